@@ -0,0 +1,13 @@
+package com.formation.library.cache;
+
+// Doit rester aligné sur spring.cache.cache-names (application.yaml)
+public final class CacheNames {
+
+  public static final String BOOKS_BY_ID = "booksById";
+  public static final String BOOKS_BY_ISBN = "booksByIsbn";
+  public static final String AUTHORS_BY_ID = "authorsById";
+  public static final String AUTHORS_BY_EMAIL = "authorsByEmail";
+
+  private CacheNames() {
+  }
+}
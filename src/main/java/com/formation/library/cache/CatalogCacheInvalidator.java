@@ -0,0 +1,132 @@
+package com.formation.library.cache;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.repository.CatalogUpsert.UpsertedAuthor;
+import com.formation.library.repository.CatalogUpsert.UpsertedBook;
+import com.formation.library.util.Isbn;
+import com.formation.library.util.TransactionCallbacks;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Invalidation après commit : une lecture concurrente ne peut pas remettre en cache l'état non validé.
+// La fenêtre résiduelle (lecture démarrée avant le commit) est bornée par expireAfterWrite, tout comme
+// l'état périmé servi par les autres nœuds, que cette invalidation locale n'atteint pas (30 s par défaut).
+@Component
+public class CatalogCacheInvalidator {
+
+  private static final String AUTHOR_BOOKS_ROLE = Author.class.getName() + ".books";
+
+  private final CacheManager cacheManager;
+  private final NegativeLookupCache negativeLookupCache;
+  private final EntityManagerFactory entityManagerFactory;
+
+  public CatalogCacheInvalidator(CacheManager cacheManager, NegativeLookupCache negativeLookupCache,
+      EntityManagerFactory entityManagerFactory) {
+    this.cacheManager = cacheManager;
+    this.negativeLookupCache = negativeLookupCache;
+    this.entityManagerFactory = entityManagerFactory;
+  }
+
+  // Création d'un livre, ou changement d'ISBN : la clé ne doit plus être connue comme introuvable
+  public void bookCreated(String isbn) {
+    long isbnKey = Isbn.toKey(isbn);
+    TransactionCallbacks.afterCommit(() -> negativeLookupCache.bookCreated(isbnKey));
+  }
+
+  public void booksCreated(Collection<Long> isbnKeys) {
+    TransactionCallbacks.afterCommit(() -> isbnKeys.forEach(negativeLookupCache::bookCreated));
+  }
+
+  public void authorCreated(String email) {
+    TransactionCallbacks.afterCommit(() -> negativeLookupCache.authorCreated(email));
+  }
+
+  // La fiche auteur embarque ses livres : toute modification d'un livre invalide aussi son auteur
+  public void evictBook(Long id, String isbn, Long authorId) {
+    TransactionCallbacks.afterCommit(() -> {
+      evict(CacheNames.BOOKS_BY_ID, id);
+      evict(CacheNames.BOOKS_BY_ISBN, Isbn.toKey(isbn));
+      evict(CacheNames.AUTHORS_BY_ID, authorId);
+    });
+  }
+
+  // Le nom de l'auteur est dénormalisé dans chaque livre en cache : on vide les caches de livres,
+  // les modifications d'auteurs étant rares
+  public void evictAuthor(Long id, String email) {
+    TransactionCallbacks.afterCommit(() -> {
+      evict(CacheNames.AUTHORS_BY_ID, id);
+      evict(CacheNames.AUTHORS_BY_EMAIL, email);
+      clear(CacheNames.BOOKS_BY_ID);
+      clear(CacheNames.BOOKS_BY_ISBN);
+    });
+  }
+
+  // Upsert JDBC : Hibernate ignore ces écritures, son cache de second niveau est invalidé ici, y compris les
+  // résultats de requêtes (le registre des horodatages de mise à jour n'est pas averti).
+  // Un livre mis à jour a pu changer d'auteur sans que l'ancien soit connu : toutes les fiches auteurs sont vidées
+  public void booksUpserted(List<UpsertedBook> books, Collection<Long> authorIds) {
+    boolean updated = books.stream().anyMatch(book -> !book.created());
+    TransactionCallbacks.afterCommit(() -> {
+      org.hibernate.Cache secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+      for (UpsertedBook book : books) {
+        evict(CacheNames.BOOKS_BY_ID, book.id());
+        evict(CacheNames.BOOKS_BY_ISBN, book.isbnKey());
+        negativeLookupCache.bookCreated(book.isbnKey());
+        secondLevelCache.evictEntityData(Book.class, book.id());
+      }
+      secondLevelCache.evictDefaultQueryRegion();
+      if (updated) {
+        clear(CacheNames.AUTHORS_BY_ID);
+        secondLevelCache.evictCollectionData(AUTHOR_BOOKS_ROLE);
+      } else {
+        for (Long authorId : authorIds) {
+          evict(CacheNames.AUTHORS_BY_ID, authorId);
+          secondLevelCache.evictCollectionData(AUTHOR_BOOKS_ROLE, authorId);
+        }
+      }
+    });
+  }
+
+  public void authorsUpserted(List<UpsertedAuthor> authors) {
+    TransactionCallbacks.afterCommit(() -> {
+      org.hibernate.Cache secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+      for (UpsertedAuthor author : authors) {
+        evict(CacheNames.AUTHORS_BY_ID, author.id());
+        evict(CacheNames.AUTHORS_BY_EMAIL, author.email());
+        negativeLookupCache.authorCreated(author.email());
+        secondLevelCache.evictEntityData(Author.class, author.id());
+      }
+      // Nom d'auteur repris dans les projections de livres en cache
+      secondLevelCache.evictDefaultQueryRegion();
+      clear(CacheNames.BOOKS_BY_ID);
+      clear(CacheNames.BOOKS_BY_ISBN);
+    });
+  }
+
+  public void evictAuthorBooks(Long authorId) {
+    TransactionCallbacks.afterCommit(() -> evict(CacheNames.AUTHORS_BY_ID, authorId));
+  }
+
+  private void evict(String cacheName, Object key) {
+    Cache cache = cacheManager.getCache(cacheName);
+    if (cache != null && key != null) {
+      cache.evict(key);
+    }
+  }
+
+  private void clear(String cacheName) {
+    Cache cache = cacheManager.getCache(cacheName);
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.formation.library.cache;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.util.BloomFilter;
+
+// Pré-contrôle d'unicité des ISBN et emails avant création : « absent » est certain et évite la requête
+// d'existence, « peut-être présent » retombe sur la base. Les suppressions ne retirent rien (faux
+// positifs supplémentaires, donc une requête de plus) ; la contrainte unique reste l'arbitre final.
+// Tant que le parcours initial n'est pas terminé, tout est « peut-être présent ».
+@Component
+public class ExistingKeysFilter {
+
+  private static final Logger log = LoggerFactory.getLogger(ExistingKeysFilter.class);
+
+  private final BookRepository bookRepository;
+  private final AuthorRepository authorRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final BloomFilter isbnKeys;
+  private final BloomFilter emails;
+  private volatile boolean ready;
+
+  public ExistingKeysFilter(BookRepository bookRepository, AuthorRepository authorRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${library.existing-keys.expected-insertions:2000000}") long expectedInsertions,
+      @Value("${library.existing-keys.false-positive-rate:0.01}") double falsePositiveRate) {
+    this.bookRepository = bookRepository;
+    this.authorRepository = authorRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.isbnKeys = new BloomFilter(expectedInsertions, falsePositiveRate);
+    this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+  }
+
+  // Les écritures concurrentes du parcours sont ajoutées directement : le filtre ne fait que grossir
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    long start = System.nanoTime();
+    long[] counts = transactionTemplate.execute(status -> {
+      long books = 0;
+      long authors = 0;
+      try (Stream<Long> keys = bookRepository.streamIsbnKeys()) {
+        Iterator<Long> iterator = keys.iterator();
+        while (iterator.hasNext()) {
+          isbnKeys.put(iterator.next());
+          books++;
+        }
+      }
+      try (Stream<String> addresses = authorRepository.streamEmails()) {
+        Iterator<String> iterator = addresses.iterator();
+        while (iterator.hasNext()) {
+          emails.put(BloomFilter.hash(iterator.next()));
+          authors++;
+        }
+      }
+      return new long[] { books, authors };
+    });
+    ready = true;
+    log.info("Filtre d'unicité construit : {} ISBN, {} emails en {} ms", counts[0], counts[1],
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  public boolean mightContainIsbn(long isbnKey) {
+    return !ready || isbnKeys.mightContain(isbnKey);
+  }
+
+  public boolean mightContainEmail(String email) {
+    return !ready || emails.mightContain(BloomFilter.hash(email));
+  }
+
+  public void addIsbn(Long isbnKey) {
+    if (isbnKey != null) {
+      isbnKeys.put(isbnKey);
+    }
+  }
+
+  public void addEmail(String email) {
+    if (email != null) {
+      emails.put(BloomFilter.hash(email));
+    }
+  }
+}
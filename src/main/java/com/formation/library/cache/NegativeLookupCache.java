@@ -0,0 +1,53 @@
+package com.formation.library.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Clés récemment introuvables (ISBN, email) : une recherche répétée sur une clé inexistante ne touche
+// plus la base. Taille bornée et durée de vie courte ; une création retire la clé après commit
+// (CatalogCacheInvalidator), la fenêtre résiduelle est bornée par expireAfterWrite.
+@Component
+public class NegativeLookupCache {
+
+  private final Cache<Long, Boolean> missingIsbnKeys;
+  private final Cache<String, Boolean> missingEmails;
+
+  public NegativeLookupCache(
+      @Value("${library.negative-cache.spec:maximumSize=100000,expireAfterWrite=30s,recordStats}") String spec,
+      MeterRegistry meterRegistry) {
+    this.missingIsbnKeys = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.from(spec).<Long, Boolean>build(),
+        "missingBooksByIsbn");
+    this.missingEmails = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.from(spec).<String, Boolean>build(),
+        "missingAuthorsByEmail");
+  }
+
+  public boolean isMissingBook(long isbnKey) {
+    return missingIsbnKeys.getIfPresent(isbnKey) != null;
+  }
+
+  public void bookMissing(long isbnKey) {
+    missingIsbnKeys.put(isbnKey, Boolean.TRUE);
+  }
+
+  public void bookCreated(long isbnKey) {
+    missingIsbnKeys.invalidate(isbnKey);
+  }
+
+  public boolean isMissingAuthor(String email) {
+    return missingEmails.getIfPresent(email) != null;
+  }
+
+  public void authorMissing(String email) {
+    missingEmails.put(email, Boolean.TRUE);
+  }
+
+  public void authorCreated(String email) {
+    missingEmails.invalidate(email);
+  }
+}
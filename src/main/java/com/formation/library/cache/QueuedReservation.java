@@ -0,0 +1,16 @@
+package com.formation.library.cache;
+
+import java.time.Instant;
+import java.util.Comparator;
+
+// Entrée d'une file de réservation : ordre d'arrivée, l'identifiant départageant les ex aequo
+public record QueuedReservation(long id, Instant reservedAt, String patron) implements Comparable<QueuedReservation> {
+
+  private static final Comparator<QueuedReservation> ORDER = Comparator.comparing(QueuedReservation::reservedAt)
+      .thenComparingLong(QueuedReservation::id);
+
+  @Override
+  public int compareTo(QueuedReservation other) {
+    return ORDER.compare(this, other);
+  }
+}
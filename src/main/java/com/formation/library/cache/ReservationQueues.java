@@ -0,0 +1,75 @@
+package com.formation.library.cache;
+
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.formation.library.repository.ReservationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Files d'attente en mémoire par clé ISBN, triées par ordre d'arrivée : tête en O(1), ajout et retrait
+// en O(log n) quelle que soit la longueur de la file. Cache propre à chaque nœud : la table reservations
+// reste la référence. Une file absente (jamais lue, évincée ou expirée) est rechargée par l'index, hors de
+// tout verrou du cache ; les ajouts et retraits locaux sont appliqués après commit. Les réservations prises
+// sur un autre nœud, ou validées pendant un chargement, n'apparaissent qu'au rechargement suivant
+// (expireAfterWrite) : l'UPDATE conditionnel du service refuse une tête qui n'est pas la première en base.
+@Component
+public class ReservationQueues {
+
+  private final Cache<Long, NavigableSet<QueuedReservation>> queues;
+  private final ReservationRepository reservationRepository;
+
+  public ReservationQueues(ReservationRepository reservationRepository,
+      @Value("${library.reservations.queue-cache-spec:maximumSize=10000,expireAfterWrite=1m,recordStats}") String spec,
+      MeterRegistry meterRegistry) {
+    this.reservationRepository = reservationRepository;
+    this.queues = CaffeineCacheMetrics.monitor(meterRegistry,
+        Caffeine.from(spec).<Long, NavigableSet<QueuedReservation>>build(), "reservationQueues");
+  }
+
+  // Premier lecteur en attente, ou null si la file est vide
+  public QueuedReservation head(long isbnKey) {
+    NavigableSet<QueuedReservation> queue = queues.getIfPresent(isbnKey);
+    if (queue == null) {
+      // Lecture JDBC hors du calcul du cache : elle ne bloque pas les autres clés du même segment
+      NavigableSet<QueuedReservation> loaded = load(isbnKey);
+      queue = queues.asMap().putIfAbsent(isbnKey, loaded);
+      if (queue == null) {
+        queue = loaded;
+      }
+    }
+    Iterator<QueuedReservation> entries = queue.iterator();
+    return entries.hasNext() ? entries.next() : null;
+  }
+
+  // Ajout en place : ne repousse pas l'expiration de la file
+  public void add(long isbnKey, QueuedReservation reservation) {
+    NavigableSet<QueuedReservation> queue = queues.getIfPresent(isbnKey);
+    if (queue != null) {
+      queue.add(reservation);
+    }
+  }
+
+  // File à relire depuis la base : sa tête n'est plus la première réservation en attente
+  public void invalidate(long isbnKey) {
+    queues.invalidate(isbnKey);
+  }
+
+  public void remove(long isbnKey, QueuedReservation reservation) {
+    NavigableSet<QueuedReservation> queue = queues.getIfPresent(isbnKey);
+    if (queue != null) {
+      queue.remove(reservation);
+    }
+  }
+
+  private NavigableSet<QueuedReservation> load(long isbnKey) {
+    return new ConcurrentSkipListSet<>(reservationRepository.findWaitingByIsbnKey(isbnKey));
+  }
+}
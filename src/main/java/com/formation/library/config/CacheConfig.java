@@ -0,0 +1,10 @@
+package com.formation.library.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caffeine configuré par spring.cache.* ; statistiques publiées dans /actuator/metrics (cache.gets, ...)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
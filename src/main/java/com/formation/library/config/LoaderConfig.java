@@ -0,0 +1,27 @@
+package com.formation.library.config;
+
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.library.loader.CatalogLoader;
+import com.formation.library.loader.IsbnKeyBackfill;
+import com.formation.library.loader.JdbcBatchCatalogLoader;
+import com.formation.library.loader.PgCopyCatalogLoader;
+
+@Configuration
+public class LoaderConfig {
+
+  @Bean
+  public CatalogLoader catalogLoader(DatabaseDriver databaseDriver, JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager, IsbnKeyBackfill isbnKeyBackfill) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    if (databaseDriver == DatabaseDriver.POSTGRESQL) {
+      return new PgCopyCatalogLoader(jdbcTemplate, transactionTemplate, isbnKeyBackfill);
+    }
+    return new JdbcBatchCatalogLoader(jdbcTemplate, transactionTemplate);
+  }
+}
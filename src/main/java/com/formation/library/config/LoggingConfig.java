@@ -0,0 +1,20 @@
+package com.formation.library.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.formation.library.logging.AccessLogFilter;
+import com.formation.library.logging.AsyncLogPipeline;
+
+@Configuration
+public class LoggingConfig {
+
+  @Bean
+  public FilterRegistrationBean<AccessLogFilter> accessLogFilter(AsyncLogPipeline pipeline) {
+    FilterRegistrationBean<AccessLogFilter> registration = new FilterRegistrationBean<>(new AccessLogFilter(pipeline));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
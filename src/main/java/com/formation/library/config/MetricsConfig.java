@@ -0,0 +1,18 @@
+package com.formation.library.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Active @Timed sur les beans Spring (services, mapper) ; les requêtes des dépôts Spring Data
+// sont mesurées par Spring Boot (spring.data.repository.invocations, étiquetées par méthode)
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+    return new TimedAspect(meterRegistry);
+  }
+}
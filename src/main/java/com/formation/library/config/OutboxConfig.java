@@ -0,0 +1,27 @@
+package com.formation.library.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.library.outbox.BookEventSink;
+import com.formation.library.outbox.FileBookEventSink;
+import com.formation.library.outbox.QueueBookEventSink;
+
+@Configuration
+public class OutboxConfig {
+
+  // file : un seul nœud (fichier local) ; queue : tests
+  @Bean
+  public BookEventSink bookEventSink(@Value("${library.book-events.sink:file}") String sink,
+      @Value("${library.book-events.file:book-events.ndjson}") Path file, ObjectMapper objectMapper) {
+    return switch (sink) {
+      case "file" -> new FileBookEventSink(objectMapper, file);
+      case "queue" -> new QueueBookEventSink();
+      default -> throw new IllegalArgumentException("Destination d'événements inconnue : " + sink);
+    };
+  }
+}
@@ -0,0 +1,45 @@
+package com.formation.library.config;
+
+import java.sql.DatabaseMetaData;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import com.formation.library.repository.CatalogUpsert;
+import com.formation.library.repository.H2LoanLedgerStore;
+import com.formation.library.repository.H2MergeCatalogUpsert;
+import com.formation.library.repository.LoanLedgerStore;
+import com.formation.library.repository.PgCatalogUpsert;
+import com.formation.library.repository.PgLoanLedgerStore;
+
+@Configuration
+public class PersistenceConfig {
+
+  @Bean
+  public DatabaseDriver databaseDriver(DataSource dataSource) throws MetaDataAccessException {
+    String productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+    return DatabaseDriver.fromProductName(productName);
+  }
+
+  @Bean
+  public CatalogUpsert catalogUpsert(DatabaseDriver databaseDriver, JdbcTemplate jdbcTemplate) {
+    if (databaseDriver == DatabaseDriver.POSTGRESQL) {
+      return new PgCatalogUpsert(jdbcTemplate);
+    }
+    return new H2MergeCatalogUpsert(jdbcTemplate);
+  }
+
+  @Bean
+  public LoanLedgerStore loanLedgerStore(DatabaseDriver databaseDriver, JdbcTemplate jdbcTemplate) {
+    if (databaseDriver == DatabaseDriver.POSTGRESQL) {
+      return new PgLoanLedgerStore(jdbcTemplate);
+    }
+    return new H2LoanLedgerStore(jdbcTemplate);
+  }
+}
@@ -0,0 +1,24 @@
+package com.formation.library.config;
+
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.search.CatalogSearch;
+import com.formation.library.search.InMemoryTrigramCatalogSearch;
+import com.formation.library.search.PgTrgmCatalogSearch;
+
+@Configuration
+public class SearchConfig {
+
+  @Bean
+  public CatalogSearch catalogSearch(DatabaseDriver databaseDriver, BookRepository bookRepository,
+      AuthorRepository authorRepository) {
+    if (databaseDriver == DatabaseDriver.POSTGRESQL) {
+      return new PgTrgmCatalogSearch(bookRepository, authorRepository);
+    }
+    return new InMemoryTrigramCatalogSearch(bookRepository, authorRepository);
+  }
+}
@@ -1,11 +1,15 @@
 package com.formation.library.controller;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,26 +20,42 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.formation.library.dto.AuthorDTO;
 import com.formation.library.dto.AuthorWithBooksDTO;
+import com.formation.library.dto.BulkUpsertResultDTO;
+import com.formation.library.dto.CursorPageDTO;
 import com.formation.library.entity.Author;
 import com.formation.library.mapper.DTOMapper;
 import com.formation.library.service.IAuthorService;
+import com.formation.library.util.NdjsonWriter;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
+@Validated
 @RequestMapping("/api/authors")
 @CrossOrigin(origins = "*")
 public class AuthorController {
 
+  private static final int MAX_PAGE_SIZE = 500;
+  private static final int MAX_UPSERT_BATCH = 5_000;
+
   private final IAuthorService authorService;
   private final DTOMapper dtoMapper;
+  private final ObjectMapper objectMapper;
+  private final Duration exportTimeout;
 
-  public AuthorController(IAuthorService authorService, DTOMapper dtoMapper) {
+  public AuthorController(IAuthorService authorService, DTOMapper dtoMapper,
+      ObjectMapper objectMapper, @Value("${library.export.timeout:2h}") Duration exportTimeout) {
     this.authorService = authorService;
     this.dtoMapper = dtoMapper;
+    this.objectMapper = objectMapper;
+    this.exportTimeout = exportTimeout;
   }
 
   @PostMapping
@@ -45,31 +65,62 @@ public class AuthorController {
     return new ResponseEntity<>(authorDTO, HttpStatus.CREATED);
   }
 
+  @PutMapping("/email/{email}")
+  public ResponseEntity<AuthorDTO> upsertAuthor(@PathVariable String email, @Valid @RequestBody Author author) {
+    author.setEmail(email);
+    Author upsertedAuthor = authorService.upsertByEmail(author);
+    return ResponseEntity.ok(dtoMapper.toAuthorDTO(upsertedAuthor));
+  }
+
+  @PutMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BulkUpsertResultDTO> upsertAuthors(@RequestBody List<@Valid Author> authors) {
+    if (authors.size() > MAX_UPSERT_BATCH) {
+      throw new IllegalArgumentException("Un lot ne peut pas dépasser " + MAX_UPSERT_BATCH + " auteurs");
+    }
+    return ResponseEntity.ok(authorService.upsertAllByEmail(authors));
+  }
+
+  // Export complet pour les synchronisations : une ligne JSON par auteur, mémoire constante
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> exportAuthors(HttpServletRequest request) {
+    // Même délai que l'export des livres (library.export.timeout)
+    WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+    StreamingResponseBody body = out -> {
+      try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+        authorService.exportAll(writer);
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<AuthorWithBooksDTO> getAuthor(@PathVariable Long id) {
-    Author author = authorService.findById(id);
-    AuthorWithBooksDTO authorDTO = dtoMapper.toAuthorWithBooksDTO(author);
+    AuthorWithBooksDTO authorDTO = authorService.findDTOById(id);
     return ResponseEntity.ok(authorDTO);
   }
 
   @GetMapping
-  public ResponseEntity<List<AuthorDTO>> getAllAuthors() {
-    List<Author> authors = authorService.findAll();
-    List<AuthorDTO> authorDTOs = dtoMapper.toAuthorDTOList(authors);
-    return ResponseEntity.ok(authorDTOs);
+  public ResponseEntity<CursorPageDTO<AuthorDTO>> getAllAuthors(
+      @RequestParam(defaultValue = "0") Long after,
+      @RequestParam(defaultValue = "50") int limit) {
+    int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+    List<AuthorDTO> authors = authorService.findPage(after, pageSize);
+    CursorPageDTO<AuthorDTO> page = dtoMapper.toAuthorDTOPage(authors, pageSize);
+    return ResponseEntity.ok(page);
   }
 
   @GetMapping("/search")
-  public ResponseEntity<List<AuthorDTO>> searchAuthors(@RequestParam String name) {
-    List<Author> authors = authorService.findByName(name);
-    List<AuthorDTO> authorDTOs = dtoMapper.toAuthorDTOList(authors);
+  public ResponseEntity<List<AuthorDTO>> searchAuthors(
+      @RequestParam String name,
+      @RequestParam(defaultValue = "false") boolean ranked,
+      @RequestParam(defaultValue = "50") int limit) {
+    List<AuthorDTO> authorDTOs = authorService.searchByName(name, Math.clamp(limit, 1, MAX_PAGE_SIZE), ranked);
     return ResponseEntity.ok(authorDTOs);
   }
 
   @GetMapping("/email/{email}")
   public ResponseEntity<AuthorDTO> getAuthorByEmail(@PathVariable String email) {
-    Author author = authorService.findByEmail(email);
-    AuthorDTO authorDTO = dtoMapper.toAuthorDTO(author);
+    AuthorDTO authorDTO = authorService.findDTOByEmail(email);
     return ResponseEntity.ok(authorDTO);
   }
 
@@ -77,15 +128,13 @@ public class AuthorController {
   public ResponseEntity<List<AuthorDTO>> getAuthorsByBirthDate(
       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-    List<Author> authors = authorService.findByBirthDateBetween(startDate, endDate);
-    List<AuthorDTO> authorDTOs = dtoMapper.toAuthorDTOList(authors);
+    List<AuthorDTO> authorDTOs = authorService.findByBirthDateBetween(startDate, endDate);
     return ResponseEntity.ok(authorDTOs);
   }
 
   @GetMapping("/genre/{genre}")
   public ResponseEntity<List<AuthorDTO>> getAuthorsByGenre(@PathVariable String genre) {
-    List<Author> authors = authorService.findByGenre(genre);
-    List<AuthorDTO> authorDTOs = dtoMapper.toAuthorDTOList(authors);
+    List<AuthorDTO> authorDTOs = authorService.findByGenre(genre);
     return ResponseEntity.ok(authorDTOs);
   }
 
@@ -1,11 +1,17 @@
 package com.formation.library.controller;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,27 +23,48 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.formation.library.dto.BookDTO;
 import com.formation.library.dto.BookWithAuthorDTO;
+import com.formation.library.dto.BulkImportResultDTO;
+import com.formation.library.dto.BulkUpsertResultDTO;
+import com.formation.library.dto.CursorPageDTO;
 import com.formation.library.entity.Book;
 import com.formation.library.entity.Book.BookStatus;
 import com.formation.library.mapper.DTOMapper;
+import com.formation.library.service.IBookImportService;
+import com.formation.library.service.IBookImportService.Format;
 import com.formation.library.service.IBookService;
+import com.formation.library.util.NdjsonWriter;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
+@Validated
 @RequestMapping("/api/books")
 @CrossOrigin(origins = "*")
 public class BookController {
 
+  private static final int MAX_PAGE_SIZE = 500;
+  private static final int MAX_UPSERT_BATCH = 5_000;
+
   private final IBookService bookService;
+  private final IBookImportService bookImportService;
   private final DTOMapper dtoMapper;
+  private final ObjectMapper objectMapper;
+  private final Duration exportTimeout;
 
-  public BookController(IBookService bookService, DTOMapper dtoMapper) {
+  public BookController(IBookService bookService, IBookImportService bookImportService, DTOMapper dtoMapper,
+      ObjectMapper objectMapper, @Value("${library.export.timeout:2h}") Duration exportTimeout) {
     this.bookService = bookService;
+    this.bookImportService = bookImportService;
     this.dtoMapper = dtoMapper;
+    this.objectMapper = objectMapper;
+    this.exportTimeout = exportTimeout;
   }
 
   @PostMapping
@@ -47,59 +74,102 @@ public class BookController {
     return new ResponseEntity<>(bookDTO, HttpStatus.CREATED);
   }
 
+  // Le corps est lu en flux : le fichier n'est jamais chargé entièrement en mémoire
+  @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+  public ResponseEntity<BulkImportResultDTO> importBooksNdjson(InputStream body) {
+    return ResponseEntity.ok(bookImportService.importBooks(body, Format.NDJSON));
+  }
+
+  @PostMapping(value = "/bulk", consumes = "text/csv")
+  public ResponseEntity<BulkImportResultDTO> importBooksCsv(InputStream body) {
+    return ResponseEntity.ok(bookImportService.importBooks(body, Format.CSV));
+  }
+
+  // Création ou remplacement par ISBN : 201 si le livre est nouveau, 204 s'il a été mis à jour
+  @PutMapping("/isbn/{isbn}")
+  public ResponseEntity<Void> upsertBook(@PathVariable String isbn, @Valid @RequestBody Book book) {
+    book.setIsbn(isbn);
+    Book upsertedBook = bookService.upsertByIsbn(book);
+    if (upsertedBook.getVersion() == 0) {
+      return ResponseEntity.created(URI.create("/api/books/" + upsertedBook.getId())).build();
+    }
+    return ResponseEntity.noContent().build();
+  }
+
+  @PutMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<BulkUpsertResultDTO> upsertBooks(@RequestBody List<@Valid Book> books) {
+    if (books.size() > MAX_UPSERT_BATCH) {
+      throw new IllegalArgumentException("Un lot ne peut pas dépasser " + MAX_UPSERT_BATCH + " livres");
+    }
+    return ResponseEntity.ok(bookService.upsertAllByIsbn(books));
+  }
+
+  // Export complet pour les synchronisations : une ligne JSON par livre, mémoire constante
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> exportBooks(HttpServletRequest request) {
+    // Délai propre à l'export complet, au lieu de spring.mvc.async.request-timeout : coupé en cours de flux,
+    // le corps NDJSON serait tronqué
+    WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+    StreamingResponseBody body = out -> {
+      try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+        bookService.exportAll(writer);
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
   @GetMapping("/{id}")
   public ResponseEntity<BookWithAuthorDTO> getBook(@PathVariable Long id) {
-    Book book = bookService.findById(id);
-    BookWithAuthorDTO bookDTO = dtoMapper.toBookWithAuthorDTO(book);
+    BookWithAuthorDTO bookDTO = bookService.findDTOById(id);
     return ResponseEntity.ok(bookDTO);
   }
 
   @GetMapping
-  public ResponseEntity<List<BookDTO>> getAllBooks() {
-    List<Book> books = bookService.findAll();
-    List<BookDTO> bookDTOs = dtoMapper.toBookDTOList(books);
-    return ResponseEntity.ok(bookDTOs);
+  public ResponseEntity<CursorPageDTO<BookDTO>> getAllBooks(
+      @RequestParam(defaultValue = "0") Long after,
+      @RequestParam(defaultValue = "50") int limit) {
+    int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+    List<BookDTO> books = bookService.findPage(after, pageSize);
+    CursorPageDTO<BookDTO> page = dtoMapper.toBookDTOPage(books, pageSize);
+    return ResponseEntity.ok(page);
   }
 
   @GetMapping("/isbn/{isbn}")
   public ResponseEntity<BookWithAuthorDTO> getBookByIsbn(@PathVariable String isbn) {
-    Book book = bookService.findByIsbn(isbn);
-    BookWithAuthorDTO bookDTO = dtoMapper.toBookWithAuthorDTO(book);
+    BookWithAuthorDTO bookDTO = bookService.findDTOByIsbn(isbn);
     return ResponseEntity.ok(bookDTO);
   }
 
   @GetMapping("/search")
-  public ResponseEntity<List<BookDTO>> searchBooks(@RequestParam String title) {
-    List<Book> books = bookService.findByTitle(title);
-    List<BookDTO> bookDTOs = dtoMapper.toBookDTOList(books);
+  public ResponseEntity<List<BookDTO>> searchBooks(
+      @RequestParam String title,
+      @RequestParam(defaultValue = "false") boolean ranked,
+      @RequestParam(defaultValue = "50") int limit) {
+    List<BookDTO> bookDTOs = bookService.searchByTitle(title, Math.clamp(limit, 1, MAX_PAGE_SIZE), ranked);
     return ResponseEntity.ok(bookDTOs);
   }
 
   @GetMapping("/status/{status}")
   public ResponseEntity<List<BookDTO>> getBooksByStatus(@PathVariable BookStatus status) {
-    List<Book> books = bookService.findByStatus(status);
-    List<BookDTO> bookDTOs = dtoMapper.toBookDTOList(books);
+    List<BookDTO> bookDTOs = bookService.findByStatus(status);
     return ResponseEntity.ok(bookDTOs);
   }
 
   @GetMapping("/genre/{genre}")
   public ResponseEntity<List<BookDTO>> getBooksByGenre(@PathVariable String genre) {
-    List<Book> books = bookService.findByGenre(genre);
-    List<BookDTO> bookDTOs = dtoMapper.toBookDTOList(books);
+    List<BookDTO> bookDTOs = bookService.findByGenre(genre);
     return ResponseEntity.ok(bookDTOs);
   }
 
   @GetMapping("/author/{authorId}")
   public ResponseEntity<List<BookDTO>> getBooksByAuthor(@PathVariable Long authorId) {
-    List<Book> books = bookService.findByAuthorId(authorId);
-    List<BookDTO> bookDTOs = dtoMapper.toBookDTOList(books);
+    List<BookDTO> bookDTOs = bookService.findByAuthorId(authorId);
     return ResponseEntity.ok(bookDTOs);
   }
 
   @GetMapping("/author/name")
   public ResponseEntity<List<BookDTO>> getBooksByAuthorName(@RequestParam String authorName) {
-    List<Book> books = bookService.findByAuthorName(authorName);
-    List<BookDTO> bookDTOs = dtoMapper.toBookDTOList(books);
+    List<BookDTO> bookDTOs = bookService.findByAuthorName(authorName);
     return ResponseEntity.ok(bookDTOs);
   }
 
@@ -107,8 +177,7 @@ public class BookController {
   public ResponseEntity<List<BookDTO>> getBooksByPublicationDate(
       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-    List<Book> books = bookService.findByPublicationDateBetween(startDate, endDate);
-    List<BookDTO> bookDTOs = dtoMapper.toBookDTOList(books);
+    List<BookDTO> bookDTOs = bookService.findByPublicationDateBetween(startDate, endDate);
     return ResponseEntity.ok(bookDTOs);
   }
 
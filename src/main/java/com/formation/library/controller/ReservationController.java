@@ -0,0 +1,42 @@
+package com.formation.library.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.formation.library.dto.BookWithAuthorDTO;
+import com.formation.library.dto.ReservationDTO;
+import com.formation.library.mapper.DTOMapper;
+import com.formation.library.service.IReservationService;
+
+@RestController
+@RequestMapping("/api/books")
+@CrossOrigin(origins = "*")
+public class ReservationController {
+
+  private final IReservationService reservationService;
+  private final DTOMapper dtoMapper;
+
+  public ReservationController(IReservationService reservationService, DTOMapper dtoMapper) {
+    this.reservationService = reservationService;
+    this.dtoMapper = dtoMapper;
+  }
+
+  @PostMapping("/{isbn}/reserve")
+  public ResponseEntity<ReservationDTO> reserveBook(@PathVariable String isbn, @RequestParam String patron) {
+    ReservationDTO reservationDTO = dtoMapper.toReservationDTO(reservationService.reserve(isbn, patron));
+    return ResponseEntity.status(HttpStatus.CREATED).body(reservationDTO);
+  }
+
+  @PatchMapping("/{isbn}/pickup")
+  public ResponseEntity<BookWithAuthorDTO> pickUpBook(@PathVariable String isbn, @RequestParam String patron) {
+    BookWithAuthorDTO bookDTO = dtoMapper.toBookWithAuthorDTO(reservationService.pickUp(isbn, patron));
+    return ResponseEntity.ok(bookDTO);
+  }
+}
@@ -0,0 +1,20 @@
+package com.formation.library.dto;
+
+import java.time.Instant;
+
+import com.formation.library.entity.Book.BookStatus;
+import com.formation.library.entity.BookEvent;
+
+// Événement publié : id unique, clé d'idempotence côté consommateur (croissant par nœud seulement) ;
+// version croissante par livre, un événement de version déjà dépassée pour ce livre est ignoré
+public record BookEventDTO(
+    Long id,
+    Long bookId,
+    long version,
+    String isbn,
+    BookEvent.Type type,
+    BookStatus status,
+    int availableCopies,
+    Instant occurredAt
+) {
+}
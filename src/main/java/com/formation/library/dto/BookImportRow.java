@@ -0,0 +1,13 @@
+package com.formation.library.dto;
+
+import java.time.LocalDate;
+
+public record BookImportRow(
+    String title,
+    String isbn,
+    LocalDate publicationDate,
+    Integer pages,
+    String genre,
+    Long authorId
+) {
+}
@@ -11,6 +11,15 @@ public record BookWithAuthorDTO(
     Integer pages,
     String genre,
     BookStatus status,
+    int totalCopies,
+    int availableCopies,
     AuthorDTO author
 ) {
+
+  public BookWithAuthorDTO(Long id, String title, String isbn, LocalDate publicationDate, Integer pages,
+      String genre, BookStatus status, int totalCopies, int availableCopies, Long authorId, String authorName,
+      String authorEmail, LocalDate authorBirthDate, String authorBiography) {
+    this(id, title, isbn, publicationDate, pages, genre, status, totalCopies, availableCopies,
+        new AuthorDTO(authorId, authorName, authorEmail, authorBirthDate, authorBiography));
+  }
 }
\ No newline at end of file
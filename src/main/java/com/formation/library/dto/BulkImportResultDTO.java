@@ -0,0 +1,13 @@
+package com.formation.library.dto;
+
+import java.util.List;
+
+public record BulkImportResultDTO(
+    long received,
+    long imported,
+    long rejected,
+    long elapsedMillis,
+    double rowsPerSecond,
+    List<String> errors
+) {
+}
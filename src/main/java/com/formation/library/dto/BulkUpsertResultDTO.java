@@ -0,0 +1,11 @@
+package com.formation.library.dto;
+
+import java.util.List;
+
+// ids dans l'ordre des éléments reçus ; une clé répétée dans le lot n'est écrite qu'une fois
+public record BulkUpsertResultDTO(
+    long received,
+    long written,
+    List<Long> ids
+) {
+}
@@ -0,0 +1,9 @@
+package com.formation.library.dto;
+
+import java.util.List;
+
+public record CursorPageDTO<T>(
+    List<T> items,
+    Long nextCursor
+) {
+}
@@ -0,0 +1,17 @@
+package com.formation.library.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Corps des réponses d'erreur : forme fixe, sérialiseur Jackson résolu une fois pour toutes
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ErrorDTO(
+    LocalDateTime timestamp,
+    int status,
+    String error,
+    String message,
+    Map<String, String> errors
+) {
+}
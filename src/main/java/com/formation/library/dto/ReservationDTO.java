@@ -0,0 +1,14 @@
+package com.formation.library.dto;
+
+import java.time.Instant;
+
+import com.formation.library.entity.Reservation.ReservationStatus;
+
+public record ReservationDTO(
+    Long id,
+    String isbn,
+    String patron,
+    ReservationStatus status,
+    Instant reservedAt
+) {
+}
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -12,10 +14,12 @@ import java.util.List;
 
 @Entity
 @Table(name = "authors")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "authors")
 public class Author {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+  @SequenceGenerator(name = "authors_seq", sequenceName = "authors_seq", allocationSize = 50)
   private Long id;
 
   @NotNull(message = "Le nom doit être renseigné")
@@ -34,6 +38,7 @@ public class Author {
   private String biography;
 
   @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author-books")
   private List<Book> books = new ArrayList<>();
 
   public Author() {
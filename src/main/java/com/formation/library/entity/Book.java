@@ -3,26 +3,38 @@ package com.formation.library.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import com.formation.library.exception.InvalidBookStateException;
+import com.formation.library.util.Isbn;
+import com.formation.library.validation.ValidIsbn;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "books")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
 public class Book {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "books_seq")
+  @SequenceGenerator(name = "books_seq", sequenceName = "books_seq", allocationSize = 50)
   private Long id;
 
   @NotBlank(message = "Le titre ne peut pas être vide")
   @Column(nullable = false)
   private String title;
 
-  @Pattern(regexp = "^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:\\d+[- ]){3})[- 0-9X]{13}$|97[89]\\d{10}$|(?=(?:\\d+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?\\d{1,5}[- ]?\\d+[- ]?\\d+[- ]?[0-9X]$", message = "Format ISBN invalide")
+  @ValidIsbn
   @Column(unique = true, nullable = false)
   private String isbn;
 
+  // Clé canonique de l'ISBN (ISBN-13 sur 64 bits) : unicité et recherche indépendantes des tirets
+  // et de la forme 10/13 ; nulle pour les lignes chargées hors JPA tant que IsbnKeyBackfill n'est pas passé
+  @Column(name = "isbn_key", unique = true)
+  private Long isbnKey;
+
   @Column(name = "publication_date")
   private LocalDate publicationDate;
 
@@ -35,11 +47,39 @@ public class Book {
   @NotNull(message = "Le statut ne peut pas être null")
   private BookStatus status = BookStatus.AVAILABLE;
 
+  // Exemplaires physiques du titre. En base, les compteurs ne sont modifiés que par les UPDATE conditionnels
+  // d'emprunt, de retour et de réservation ; sans exemplaire disponible, le statut passe à RESERVED si un
+  // exemplaire rendu attend un lecteur de la file, à BORROWED sinon
+  @Positive(message = "Le nombre d'exemplaires doit être positif")
+  @ColumnDefault("1")
+  @Column(name = "total_copies", nullable = false)
+  private int totalCopies = 1;
+
+  // Vrai si totalCopies figure dans le corps de la requête : une modification envoyée par un client antérieur
+  // aux exemplaires conserve le nombre actuel au lieu de la valeur par défaut
+  @Transient
+  private boolean totalCopiesSet;
+
+  @ColumnDefault("1")
+  @Column(name = "available_copies", nullable = false)
+  private int availableCopies = 1;
+
+  // Exemplaires rendus et mis de côté pour le premier lecteur de la file de réservation
+  @ColumnDefault("0")
+  @Column(name = "held_copies", nullable = false)
+  private int heldCopies;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "author_id", nullable = false)
   @NotNull(message = "L'auteur ne peut pas être null")
   private Author author;
 
+  // Verrou optimiste ; la valeur par défaut couvre les lignes insérées hors JPA (CatalogLoader)
+  @Version
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
+
   public enum BookStatus {
     AVAILABLE, BORROWED, RESERVED, MAINTENANCE
   }
@@ -50,14 +90,14 @@ public class Book {
 
   public Book(String title, String isbn, Author author) {
     this.title = title;
-    this.isbn = isbn;
+    setIsbn(isbn);
     this.author = author;
   }
 
   public Book(String title, String isbn, LocalDate publicationDate,
       Integer pages, String genre, Author author) {
     this.title = title;
-    this.isbn = isbn;
+    setIsbn(isbn);
     this.publicationDate = publicationDate;
     this.pages = pages;
     this.genre = genre;
@@ -87,6 +127,11 @@ public class Book {
 
   public void setIsbn(String isbn) {
     this.isbn = isbn;
+    updateIsbnKey();
+  }
+
+  public Long getIsbnKey() {
+    return isbnKey;
   }
 
   public LocalDate getPublicationDate() {
@@ -121,6 +166,46 @@ public class Book {
     this.status = status;
   }
 
+  public int getTotalCopies() {
+    return totalCopies;
+  }
+
+  public boolean hasTotalCopies() {
+    return totalCopiesSet;
+  }
+
+  // Les exemplaires empruntés ou mis de côté restent comptés : seuls des exemplaires en rayon peuvent être retirés
+  public void setTotalCopies(int totalCopies) {
+    int borrowed = this.totalCopies - availableCopies;
+    if (totalCopies < borrowed) {
+      throw new IllegalArgumentException(
+          "Le nombre d'exemplaires ne peut pas être inférieur aux " + borrowed + " exemplaires empruntés");
+    }
+    this.totalCopies = totalCopies;
+    this.totalCopiesSet = true;
+    this.availableCopies = totalCopies - borrowed;
+    if (status == BookStatus.AVAILABLE || status == BookStatus.BORROWED || status == BookStatus.RESERVED) {
+      status = availableCopies > 0 ? BookStatus.AVAILABLE
+          : heldCopies > 0 ? BookStatus.RESERVED : BookStatus.BORROWED;
+    }
+  }
+
+  public int getAvailableCopies() {
+    return availableCopies;
+  }
+
+  public int getHeldCopies() {
+    return heldCopies;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   public Author getAuthor() {
     return author;
   }
@@ -129,23 +214,59 @@ public class Book {
     this.author = author;
   }
 
+  @PrePersist
+  @PreUpdate
+  void updateIsbnKey() {
+    long key = Isbn.toKey(isbn);
+    this.isbnKey = key == Isbn.INVALID ? null : key;
+  }
+
   // Méthodes métier
   public boolean isAvailable() {
-    return status == BookStatus.AVAILABLE;
+    return status == BookStatus.AVAILABLE && availableCopies > 0;
   }
 
   public void borrow() {
     if (!isAvailable()) {
-      throw new IllegalStateException("Le livre n'est pas disponible pour l'emprunt");
+      throw new InvalidBookStateException("Le livre n'est pas disponible pour l'emprunt");
+    }
+    availableCopies--;
+    if (availableCopies == 0) {
+      status = BookStatus.BORROWED;
     }
-    this.status = BookStatus.BORROWED;
   }
 
   public void returnBook() {
-    if (status != BookStatus.BORROWED) {
-      throw new IllegalStateException("Le livre n'est pas emprunté");
+    checkBorrowed();
+    availableCopies++;
+    if (status == BookStatus.BORROWED || status == BookStatus.RESERVED) {
+      status = BookStatus.AVAILABLE;
+    }
+  }
+
+  // Retour avec file d'attente : l'exemplaire ne repasse pas en rayon, il est mis de côté
+  public void returnForReservation() {
+    checkBorrowed();
+    heldCopies++;
+    if (availableCopies == 0) {
+      status = BookStatus.RESERVED;
+    }
+  }
+
+  public void pickUpReservedCopy() {
+    if (heldCopies == 0) {
+      throw new InvalidBookStateException("Aucun exemplaire n'est réservé");
+    }
+    heldCopies--;
+    if (status == BookStatus.RESERVED && heldCopies == 0) {
+      status = BookStatus.BORROWED;
+    }
+  }
+
+  private void checkBorrowed() {
+    if (availableCopies + heldCopies >= totalCopies) {
+      throw new InvalidBookStateException("Le livre n'est pas emprunté");
     }
-    this.status = BookStatus.AVAILABLE;
   }
 
   @Override
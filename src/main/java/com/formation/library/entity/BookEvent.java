@@ -0,0 +1,104 @@
+package com.formation.library.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import com.formation.library.entity.Book.BookStatus;
+
+// Changement du catalogue écrit dans la transaction qui le produit (table book_outbox), puis publié par lots
+// et supprimé. Sans clé étrangère : l'événement de suppression survit au livre
+@Entity
+@Table(name = "book_outbox")
+public class BookEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_outbox_seq")
+  @SequenceGenerator(name = "book_outbox_seq", sequenceName = "book_outbox_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(name = "book_id", nullable = false)
+  private Long bookId;
+
+  @Column(nullable = false)
+  private String isbn;
+
+  // Version du livre après le changement (Book.version, suivante pour DELETED) : croissante par livre quel que
+  // soit le nœud, elle permet aux consommateurs d'écarter un événement reçu après un plus récent
+  @ColumnDefault("0")
+  @Column(nullable = false)
+  private Long version;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private Type type;
+
+  // État du livre après le changement (avant la suppression pour DELETED)
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private BookStatus status;
+
+  @Column(name = "available_copies", nullable = false)
+  private int availableCopies;
+
+  @Column(name = "occurred_at", nullable = false)
+  private Instant occurredAt;
+
+  // Constructeurs
+  public BookEvent() {
+  }
+
+  public BookEvent(Book book, Type type, Instant occurredAt) {
+    this(book.getId(), book.getIsbn(), type == Type.DELETED ? book.getVersion() + 1 : book.getVersion(), type,
+        book.getStatus(), book.getAvailableCopies(), occurredAt);
+  }
+
+  public BookEvent(Long bookId, String isbn, Long version, Type type, BookStatus status, int availableCopies,
+      Instant occurredAt) {
+    this.bookId = bookId;
+    this.isbn = isbn;
+    this.version = version;
+    this.type = type;
+    this.status = status;
+    this.availableCopies = availableCopies;
+    this.occurredAt = occurredAt;
+  }
+
+  // Getters
+  public Long getId() {
+    return id;
+  }
+
+  public Long getBookId() {
+    return bookId;
+  }
+
+  public String getIsbn() {
+    return isbn;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public BookStatus getStatus() {
+    return status;
+  }
+
+  public int getAvailableCopies() {
+    return availableCopies;
+  }
+
+  public Instant getOccurredAt() {
+    return occurredAt;
+  }
+
+  public enum Type {
+    CREATED, UPDATED, DELETED, BORROWED, RETURNED
+  }
+}
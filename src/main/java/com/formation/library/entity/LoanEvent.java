@@ -0,0 +1,96 @@
+package com.formation.library.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// Événement de prêt écrit dans la transaction de l'emprunt ou du retour (table d'attente loan_outbox),
+// puis versé par lots dans le journal loans. Sans clé étrangère : l'historique survit au livre
+@Entity
+@Table(name = "loan_outbox")
+public class LoanEvent {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_outbox_seq")
+  @SequenceGenerator(name = "loan_outbox_seq", sequenceName = "loan_outbox_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(name = "book_id", nullable = false)
+  private Long bookId;
+
+  @Column(name = "isbn_key")
+  private Long isbnKey;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private Type type;
+
+  @Column(length = 100)
+  private String patron;
+
+  @Column(name = "occurred_at", nullable = false)
+  private Instant occurredAt;
+
+  // Échéance du prêt : emprunt, ou emprunt signalé en retard
+  @Column(name = "due_at")
+  private Instant dueAt;
+
+  // Emprunt signalé en retard : identifiant de son événement BORROWED
+  @Column(name = "loan_id")
+  private Long loanId;
+
+  // Constructeurs
+  public LoanEvent() {
+  }
+
+  public LoanEvent(Long bookId, Long isbnKey, Type type, String patron, Instant occurredAt, Instant dueAt) {
+    this(bookId, isbnKey, type, patron, occurredAt, dueAt, null);
+  }
+
+  public LoanEvent(Long bookId, Long isbnKey, Type type, String patron, Instant occurredAt, Instant dueAt,
+      Long loanId) {
+    this.bookId = bookId;
+    this.isbnKey = isbnKey;
+    this.type = type;
+    this.patron = patron;
+    this.occurredAt = occurredAt;
+    this.dueAt = dueAt;
+    this.loanId = loanId;
+  }
+
+  // Getters
+  public Long getId() {
+    return id;
+  }
+
+  public Long getBookId() {
+    return bookId;
+  }
+
+  public Long getIsbnKey() {
+    return isbnKey;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public String getPatron() {
+    return patron;
+  }
+
+  public Instant getOccurredAt() {
+    return occurredAt;
+  }
+
+  public Instant getDueAt() {
+    return dueAt;
+  }
+
+  public Long getLoanId() {
+    return loanId;
+  }
+
+  public enum Type {
+    BORROWED, RETURNED, OVERDUE
+  }
+}
@@ -0,0 +1,97 @@
+package com.formation.library.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import java.time.Instant;
+
+// File d'attente d'un titre : l'index couvre la lecture de la file dans l'ordre d'arrivée et
+// l'unicité par lecteur est vérifiée par le service
+@Entity
+@Table(name = "reservations", indexes = {
+    @Index(name = "idx_reservations_queue", columnList = "book_id, status, reserved_at, id"),
+    @Index(name = "idx_reservations_patron", columnList = "book_id, patron")
+})
+public class Reservation {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+  @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = 50)
+  private Long id;
+
+  // Suppression d'un livre : ses réservations sont supprimées par la base (ON DELETE CASCADE)
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "book_id", nullable = false)
+  @OnDelete(action = OnDeleteAction.CASCADE)
+  private Book book;
+
+  @NotBlank(message = "Le lecteur doit être renseigné")
+  @Size(max = 100, message = "L'identifiant du lecteur ne peut pas dépasser 100 caractères")
+  @Column(nullable = false, length = 100)
+  private String patron;
+
+  @Column(name = "reserved_at", nullable = false)
+  private Instant reservedAt;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private ReservationStatus status = ReservationStatus.WAITING;
+
+  // Constructeurs
+  public Reservation() {
+  }
+
+  public Reservation(Book book, String patron, Instant reservedAt) {
+    this.book = book;
+    this.patron = patron;
+    this.reservedAt = reservedAt;
+  }
+
+  // Getters et Setters
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Book getBook() {
+    return book;
+  }
+
+  public void setBook(Book book) {
+    this.book = book;
+  }
+
+  public String getPatron() {
+    return patron;
+  }
+
+  public void setPatron(String patron) {
+    this.patron = patron;
+  }
+
+  public Instant getReservedAt() {
+    return reservedAt;
+  }
+
+  public void setReservedAt(Instant reservedAt) {
+    this.reservedAt = reservedAt;
+  }
+
+  public ReservationStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(ReservationStatus status) {
+    this.status = status;
+  }
+
+  // WAITING : dans la file ; READY : un exemplaire rendu est mis de côté pour le lecteur
+  public enum ReservationStatus {
+    WAITING, READY
+  }
+}
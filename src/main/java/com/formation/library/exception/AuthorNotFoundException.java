@@ -1,11 +1,12 @@
 package com.formation.library.exception;
 
+// Sans pile d'appels, comme BookNotFoundException
 public class AuthorNotFoundException extends RuntimeException {
   public AuthorNotFoundException(Long id) {
-    super("Auteur non trouvé avec l'ID: " + id);
+    super("Auteur non trouvé avec l'ID: " + id, null, false, false);
   }
 
   public AuthorNotFoundException(String email) {
-    super("Auteur non trouvé avec l'email: " + email);
+    super("Auteur non trouvé avec l'email: " + email, null, false, false);
   }
 }
@@ -1,11 +1,13 @@
 package com.formation.library.exception;
 
+// Sans pile d'appels : exception de contrôle traduite en 404, sa trace ne sert à rien et la
+// construire coûtait plus cher que la recherche manquée
 public class BookNotFoundException extends RuntimeException {
   public BookNotFoundException(Long id) {
-    super("Livre non trouvé avec l'ID: " + id);
+    super("Livre non trouvé avec l'ID: " + id, null, false, false);
   }
 
   public BookNotFoundException(String isbn) {
-    super("Livre non trouvé avec l'ISBN: " + isbn);
+    super("Livre non trouvé avec l'ISBN: " + isbn, null, false, false);
   }
 }
@@ -1,7 +1,12 @@
 package com.formation.library.exception;
 
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -9,55 +14,87 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.formation.library.dto.ErrorDTO;
+
+import jakarta.validation.ConstraintViolationException;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
   @ExceptionHandler(AuthorNotFoundException.class)
-  public ResponseEntity<Map<String, Object>> handleAuthorNotFound(AuthorNotFoundException ex) {
+  public ResponseEntity<ErrorDTO> handleAuthorNotFound(AuthorNotFoundException ex) {
     return buildErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
   }
 
   @ExceptionHandler(BookNotFoundException.class)
-  public ResponseEntity<Map<String, Object>> handleBookNotFound(BookNotFoundException ex) {
+  public ResponseEntity<ErrorDTO> handleBookNotFound(BookNotFoundException ex) {
     return buildErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
   }
 
   @ExceptionHandler(BookAlreadyBorrowedException.class)
-  public ResponseEntity<Map<String, Object>> handleBookAlreadyBorrowed(BookAlreadyBorrowedException ex) {
+  public ResponseEntity<ErrorDTO> handleBookAlreadyBorrowed(BookAlreadyBorrowedException ex) {
     return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
   }
 
   @ExceptionHandler(InvalidIsbnException.class)
-  public ResponseEntity<Map<String, Object>> handleInvalidIsbn(InvalidIsbnException ex) {
+  public ResponseEntity<ErrorDTO> handleInvalidIsbn(InvalidIsbnException ex) {
     return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
   }
 
   @ExceptionHandler(IllegalArgumentException.class)
-  public ResponseEntity<Map<String, Object>> handleInvalidIsbn(IllegalArgumentException ex) {
+  public ResponseEntity<ErrorDTO> handleInvalidIsbn(IllegalArgumentException ex) {
     return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(InvalidBookStateException.class)
+  public ResponseEntity<ErrorDTO> handleInvalidBookState(InvalidBookStateException ex) {
+    return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
+  }
+
+  // Contrainte unique violée malgré le pré-contrôle (création concurrente de la même clé) ; les autres
+  // violations d'intégrité ne sont pas des conflits
+  @ExceptionHandler(DuplicateKeyException.class)
+  public ResponseEntity<ErrorDTO> handleDuplicateKey(DuplicateKeyException ex) {
+    return buildErrorResponse("La ressource entre en conflit avec une ressource existante", HttpStatus.CONFLICT);
+  }
+
+  @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+  public ResponseEntity<ErrorDTO> handleOptimisticLocking(ObjectOptimisticLockingFailureException ex) {
+    return buildErrorResponse("La ressource a été modifiée par une autre requête, veuillez réessayer",
+        HttpStatus.CONFLICT);
+  }
+
+  // Pool JDBC saturé (connection-timeout Hikari dépassé) : le client peut réessayer
+  @ExceptionHandler({ CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class })
+  public ResponseEntity<ErrorDTO> handleConnectionUnavailable(RuntimeException ex) {
+    ResponseEntity<ErrorDTO> response = buildErrorResponse(
+        "Service momentanément saturé, veuillez réessayer", HttpStatus.SERVICE_UNAVAILABLE);
+    return ResponseEntity.status(response.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1")
+        .body(response.getBody());
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
-  public ResponseEntity<Map<String, Object>> handleValidationErrors(MethodArgumentNotValidException ex) {
-    Map<String, Object> errors = new HashMap<>();
+  public ResponseEntity<ErrorDTO> handleValidationErrors(MethodArgumentNotValidException ex) {
+    Map<String, String> errors = new HashMap<>();
     ex.getBindingResult().getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
 
-    Map<String, Object> response = new HashMap<>();
-    response.put("timestamp", LocalDateTime.now());
-    response.put("status", HttpStatus.BAD_REQUEST.value());
-    response.put("error", "Validation Failed");
-    response.put("errors", errors);
-
-    return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    return new ResponseEntity<>(new ErrorDTO(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), "Validation Failed",
+        null, errors), HttpStatus.BAD_REQUEST);
   }
 
-  private ResponseEntity<Map<String, Object>> buildErrorResponse(String message, HttpStatus status) {
-    Map<String, Object> response = new HashMap<>();
-    response.put("timestamp", LocalDateTime.now());
-    response.put("status", status.value());
-    response.put("error", status.getReasonPhrase());
-    response.put("message", message);
+  // Éléments des lots (List<@Valid …>) : validés sur la méthode du contrôleur, pas à la lecture du corps
+  @ExceptionHandler(ConstraintViolationException.class)
+  public ResponseEntity<ErrorDTO> handleConstraintViolations(ConstraintViolationException ex) {
+    Map<String, String> errors = new HashMap<>();
+    ex.getConstraintViolations()
+        .forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+
+    return new ResponseEntity<>(new ErrorDTO(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), "Validation Failed",
+        null, errors), HttpStatus.BAD_REQUEST);
+  }
 
-    return new ResponseEntity<>(response, status);
+  private ResponseEntity<ErrorDTO> buildErrorResponse(String message, HttpStatus status) {
+    return new ResponseEntity<>(new ErrorDTO(LocalDateTime.now(), status.value(), status.getReasonPhrase(), message,
+        null), status);
   }
 }
@@ -0,0 +1,8 @@
+package com.formation.library.exception;
+
+// Transition refusée par l'état du livre (emprunt, retour, réservation, retrait)
+public class InvalidBookStateException extends RuntimeException {
+  public InvalidBookStateException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,47 @@
+package com.formation.library.jfr;
+
+import com.formation.library.metrics.BorrowMetrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.formation.library.Borrow")
+@Label("Emprunt ou retour")
+@Description("Emprunt ou retour d'un livre, de la mise à jour conditionnelle jusqu'à l'issue")
+@Category({ "Library", "Service" })
+@StackTrace(false)
+public class BorrowEvent extends jdk.jfr.Event {
+
+  @Label("ISBN")
+  String isbn;
+
+  @Label("Opération")
+  String operation;
+
+  private final transient BorrowMetrics.Operation kind;
+
+  @Label("Issue")
+  String outcome;
+
+  public BorrowEvent(BorrowMetrics.Operation operation, String isbn) {
+    this.kind = operation;
+    this.operation = operation.name().toLowerCase();
+    this.isbn = isbn;
+    begin();
+  }
+
+  public BorrowMetrics.Operation operation() {
+    return kind;
+  }
+
+  public void end(BorrowMetrics.Outcome outcome) {
+    end();
+    if (shouldCommit()) {
+      this.outcome = outcome.name().toLowerCase();
+      commit();
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package com.formation.library.jfr;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Enregistrement JFR à la demande, borné en durée et en taille :
+ * <ul>
+ * <li>POST /actuator/jfr {"duration": 60, "settings": "profile"} : démarre un enregistrement</li>
+ * <li>GET /actuator/jfr : état de l'enregistrement courant</li>
+ * <li>DELETE /actuator/jfr : l'arrête, les données restent téléchargeables</li>
+ * <li>GET /actuator/jfr/{id} : télécharge le fichier .jfr (instantané si l'enregistrement est en cours)</li>
+ * </ul>
+ * Un seul enregistrement à la fois ; le démarrage suivant libère le précédent.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrRecordingEndpoint {
+
+  static final int DEFAULT_DURATION_SECONDS = 60;
+  static final int MAX_DURATION_SECONDS = 900;
+  static final long MAX_SIZE_BYTES = 256L * 1024 * 1024;
+
+  // Pas de synchronized : les requêtes peuvent s'exécuter sur des threads virtuels
+  private final Lock lock = new ReentrantLock();
+  private Recording recording;
+
+  @ReadOperation
+  public Map<String, Object> status() {
+    lock.lock();
+    try {
+      return describe(recording);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @WriteOperation
+  public WebEndpointResponse<Map<String, Object>> start(@Nullable Integer duration,
+      @Nullable String settings) {
+    int seconds = duration == null ? DEFAULT_DURATION_SECONDS : duration;
+    if (seconds < 1 || seconds > MAX_DURATION_SECONDS) {
+      return new WebEndpointResponse<>(Map.of("error",
+          "La durée doit être comprise entre 1 et " + MAX_DURATION_SECONDS + " secondes"),
+          WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+    Configuration configuration;
+    try {
+      configuration = Configuration.getConfiguration(settings == null ? "profile" : settings);
+    } catch (IOException | ParseException e) {
+      return new WebEndpointResponse<>(Map.of("error", "Configuration JFR inconnue : " + settings),
+          WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+
+    lock.lock();
+    try {
+      if (recording != null && recording.getState() == RecordingState.RUNNING) {
+        return new WebEndpointResponse<>(describe(recording), 409);
+      }
+      if (recording != null) {
+        recording.close();
+      }
+      recording = new Recording(configuration);
+      recording.setName("library-" + configuration.getName());
+      recording.setToDisk(true);
+      recording.setDuration(Duration.ofSeconds(seconds));
+      recording.setMaxSize(MAX_SIZE_BYTES);
+      recording.start();
+      return new WebEndpointResponse<>(describe(recording), WebEndpointResponse.STATUS_OK);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @DeleteOperation
+  public Map<String, Object> stop() {
+    lock.lock();
+    try {
+      if (recording != null && recording.getState() == RecordingState.RUNNING) {
+        recording.stop();
+      }
+      return describe(recording);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @ReadOperation(produces = "application/octet-stream")
+  public WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+    lock.lock();
+    try {
+      if (recording == null || recording.getId() != id) {
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+      }
+      Path file = Files.createTempFile("library-" + id + "-", ".jfr");
+      recording.dump(file);
+      return new WebEndpointResponse<>(new TemporaryFileResource(file), WebEndpointResponse.STATUS_OK);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static Map<String, Object> describe(Recording recording) {
+    Map<String, Object> status = new LinkedHashMap<>();
+    if (recording == null) {
+      status.put("state", "NONE");
+      return status;
+    }
+    status.put("id", recording.getId());
+    status.put("name", recording.getName());
+    status.put("state", recording.getState());
+    status.put("startTime", Objects.toString(recording.getStartTime(), null));
+    status.put("stopTime", Objects.toString(recording.getStopTime(), null));
+    status.put("duration", Objects.toString(recording.getDuration(), null));
+    status.put("size", recording.getSize());
+    return status;
+  }
+
+  // Fichier de l'instantané supprimé à la fin du téléchargement
+  private static final class TemporaryFileResource extends FileSystemResource {
+
+    TemporaryFileResource(Path file) {
+      super(file);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+      return new FilterInputStream(super.getInputStream()) {
+
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            Files.deleteIfExists(getFile().toPath());
+          }
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.formation.library.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.formation.library.MappingBatch")
+@Label("Conversion d'une liste en DTO")
+@Description("Conversion d'une liste d'entités en DTO par DTOMapper")
+@Category({ "Library", "Mapping" })
+@StackTrace(false)
+public class MappingBatchEvent extends jdk.jfr.Event {
+
+  @Label("Méthode")
+  String method;
+
+  @Label("Éléments")
+  int size;
+
+  public MappingBatchEvent(String method, int size) {
+    this.method = method;
+    this.size = size;
+    begin();
+  }
+}
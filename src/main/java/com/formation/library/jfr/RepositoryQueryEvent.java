@@ -0,0 +1,27 @@
+package com.formation.library.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.formation.library.RepositoryQuery")
+@Label("Requête de dépôt")
+@Description("Exécution d'une méthode de dépôt Spring Data ; lignes = éléments renvoyés ou lignes modifiées")
+@Category({ "Library", "Persistence" })
+@StackTrace(false)
+class RepositoryQueryEvent extends jdk.jfr.Event {
+
+  @Label("Dépôt")
+  String repository;
+
+  @Label("Méthode")
+  String method;
+
+  @Label("Lignes")
+  long rows;
+
+  @Label("Succès")
+  boolean success;
+}
@@ -0,0 +1,45 @@
+package com.formation.library.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import com.formation.library.util.RepositoryResults;
+
+// Ajouté au proxy de chaque dépôt ; les méthodes default sont ignorées, seule la requête qu'elles
+// délèguent est enregistrée
+class RepositoryQueryEventInterceptor implements MethodInterceptor {
+
+  private final String repository;
+
+  RepositoryQueryEventInterceptor(Class<?> repositoryInterface) {
+    this.repository = repositoryInterface.getSimpleName();
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    if (invocation.getMethod().isDefault()) {
+      return invocation.proceed();
+    }
+    RepositoryQueryEvent event = new RepositoryQueryEvent();
+    if (!event.isEnabled()) {
+      return invocation.proceed();
+    }
+    event.begin();
+    Object result = null;
+    boolean success = false;
+    try {
+      result = invocation.proceed();
+      success = true;
+      return result;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.repository = repository;
+        event.method = invocation.getMethod().getName();
+        event.success = success;
+        event.rows = success ? RepositoryResults.rows(result, invocation.getMethod()) : 0;
+        event.commit();
+      }
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.formation.library.jfr;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+// Branche RepositoryQueryEventInterceptor sur tous les dépôts Spring Data de l'application
+@Component
+public class RepositoryQueryEventPostProcessor implements BeanPostProcessor {
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) {
+    if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+      factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+          (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+              new RepositoryQueryEventInterceptor(repositoryInformation.getRepositoryInterface()))));
+    }
+    return bean;
+  }
+}
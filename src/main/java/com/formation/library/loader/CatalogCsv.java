@@ -0,0 +1,33 @@
+package com.formation.library.loader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.formation.library.util.CsvLineParser;
+
+final class CatalogCsv {
+
+  private CatalogCsv() {
+  }
+
+  // Ouvre le fichier et consomme l'en-tête après l'avoir vérifié
+  static BufferedReader open(Path file, List<String> columns) {
+    try {
+      BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+      String header = reader.readLine();
+      if (header == null || !CsvLineParser.parse(header).stream().map(String::trim).toList().equals(columns)) {
+        reader.close();
+        throw new IllegalArgumentException(
+            "En-tête CSV attendu pour " + file.getFileName() + " : " + String.join(",", columns));
+      }
+      return reader;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Lecture impossible : " + file, e);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.formation.library.loader;
+
+import java.util.Map;
+
+public record CatalogLoadReport(
+    long authorsRead,
+    long authorsInserted,
+    long booksRead,
+    long booksInserted,
+    Map<String, Long> phaseMillis
+) {
+}
@@ -0,0 +1,39 @@
+package com.formation.library.loader;
+
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Lancé avant ApplicationReadyEvent : l'index de recherche en mémoire voit donc les lignes chargées
+@Component
+@ConditionalOnProperty(prefix = "library.loader", name = { "authors-file", "books-file" })
+public class CatalogLoadRunner implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(CatalogLoadRunner.class);
+
+  private final CatalogLoader catalogLoader;
+  private final Path authorsFile;
+  private final Path booksFile;
+
+  public CatalogLoadRunner(CatalogLoader catalogLoader,
+      @Value("${library.loader.authors-file}") Path authorsFile,
+      @Value("${library.loader.books-file}") Path booksFile) {
+    this.catalogLoader = catalogLoader;
+    this.authorsFile = authorsFile;
+    this.booksFile = booksFile;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    log.info("Chargement du catalogue depuis {} et {}", authorsFile, booksFile);
+    CatalogLoadReport report = catalogLoader.load(authorsFile, booksFile);
+    log.info("Catalogue chargé : {}/{} auteurs, {}/{} livres insérés, phases (ms) {}", report.authorsInserted(),
+        report.authorsRead(), report.booksInserted(), report.booksRead(), report.phaseMillis());
+  }
+}
@@ -0,0 +1,13 @@
+package com.formation.library.loader;
+
+import java.nio.file.Path;
+import java.util.List;
+
+// Chargement massif du catalogue depuis des fichiers CSV, hors JPA
+public interface CatalogLoader {
+
+  List<String> AUTHOR_COLUMNS = List.of("name", "email", "birthDate", "biography");
+  List<String> BOOK_COLUMNS = List.of("title", "isbn", "publicationDate", "pages", "genre", "authorEmail");
+
+  CatalogLoadReport load(Path authorsFile, Path booksFile);
+}
@@ -0,0 +1,87 @@
+package com.formation.library.loader;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.formation.library.util.Isbn;
+
+// Calcule isbn_key pour les lignes qui n'en ont pas (données antérieures à la colonne, COPY PostgreSQL).
+// Les doublons (même livre sous deux écritures) et les ISBN invalides restent sans clé et sont journalisés.
+@Component
+public class IsbnKeyBackfill implements ApplicationRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(IsbnKeyBackfill.class);
+
+  static final int BATCH_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+  public IsbnKeyBackfill(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    long updated = backfill();
+    if (updated > 0) {
+      log.info("Clé ISBN calculée pour {} livres", updated);
+    }
+  }
+
+  // Parcours par clé (id) : chaque lot relit uniquement les lignes restantes après le dernier id vu
+  public long backfill() {
+    long updated = 0;
+    long afterId = 0;
+    List<IsbnRow> rows;
+    while (!(rows = jdbcTemplate.query(
+        "SELECT id, isbn FROM books WHERE isbn_key IS NULL AND id > ? ORDER BY id LIMIT ?",
+        (rs, rowNum) -> new IsbnRow(rs.getLong(1), rs.getString(2)), afterId, BATCH_SIZE)).isEmpty()) {
+      afterId = rows.get(rows.size() - 1).id();
+
+      List<Object[]> args = new ArrayList<>(rows.size());
+      Set<Long> keys = new HashSet<>();
+      for (IsbnRow row : rows) {
+        long key = Isbn.toKey(row.isbn());
+        if (key == Isbn.INVALID) {
+          log.warn("ISBN invalide, clé non calculée : livre {} ({})", row.id(), row.isbn());
+        } else if (keys.add(key)) {
+          args.add(new Object[] { key, row.id() });
+        } else {
+          log.warn("ISBN en double, clé non calculée : livre {} ({})", row.id(), row.isbn());
+        }
+      }
+
+      // Pas d'échec de contrainte en cours de lot : une erreur interromprait la transaction PostgreSQL englobante
+      Set<Long> taken = keys.isEmpty() ? Set.of()
+          : new HashSet<>(namedJdbcTemplate.queryForList("SELECT isbn_key FROM books WHERE isbn_key IN (:keys)",
+              Map.of("keys", keys), Long.class));
+      List<Object[]> free = args.stream().filter(a -> {
+        if (taken.contains((Long) a[0])) {
+          log.warn("ISBN en double, clé non calculée : livre {}", a[1]);
+          return false;
+        }
+        return true;
+      }).toList();
+      if (!free.isEmpty()) {
+        updated += jdbcTemplate.batchUpdate("UPDATE books SET isbn_key = ? WHERE id = ?", free).length;
+      }
+    }
+    return updated;
+  }
+
+  private record IsbnRow(long id, String isbn) {
+  }
+}
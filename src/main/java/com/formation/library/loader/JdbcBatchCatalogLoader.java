@@ -0,0 +1,153 @@
+package com.formation.library.loader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.library.util.CsvLineParser;
+import com.formation.library.util.Isbn;
+
+// Repli sans COPY (H2) : INSERT JDBC par lots, emails résolus par lot avec une requête IN.
+// Les livres à l'ISBN invalide sont ignorés ; l'unicité porte sur la clé canonique isbn_key
+public class JdbcBatchCatalogLoader implements CatalogLoader {
+
+  static final int BATCH_SIZE = 1000;
+
+  private static final String INSERT_AUTHOR = """
+      INSERT INTO authors (id, name, email, birth_date, biography)
+      SELECT NEXT VALUE FOR authors_seq, ?, ?, ?, ?
+      WHERE NOT EXISTS (SELECT 1 FROM authors WHERE email = ?)
+      """;
+
+  private static final String INSERT_BOOK = """
+      INSERT INTO books (id, title, isbn, isbn_key, publication_date, pages, genre, status, author_id)
+      SELECT NEXT VALUE FOR books_seq, ?, ?, ?, ?, ?, ?, 'AVAILABLE', ?
+      WHERE NOT EXISTS (SELECT 1 FROM books WHERE isbn_key = ?)
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  public JdbcBatchCatalogLoader(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  @Override
+  public CatalogLoadReport load(Path authorsFile, Path booksFile) {
+    PhaseTimer timer = new PhaseTimer();
+    CatalogLoadReport report = transactionTemplate.execute(status -> {
+      long[] authors = loadAuthors(authorsFile, timer);
+      long[] books = loadBooks(booksFile, timer);
+      return new CatalogLoadReport(authors[0], authors[1], books[0], books[1], null);
+    });
+    timer.mark("commit");
+
+    return new CatalogLoadReport(report.authorsRead(), report.authorsInserted(), report.booksRead(),
+        report.booksInserted(), timer.phases());
+  }
+
+  private long[] loadAuthors(Path file, PhaseTimer timer) {
+    long read = 0;
+    long inserted = 0;
+    try (BufferedReader reader = CatalogCsv.open(file, AUTHOR_COLUMNS)) {
+      List<Object[]> batch;
+      while (!(batch = readBatch(reader, AUTHOR_COLUMNS.size())).isEmpty()) {
+        List<Object[]> args = batch.stream()
+            .map(f -> new Object[] { f[0], f[1], toDate(f[2]), f[3], f[1] })
+            .toList();
+        read += batch.size();
+        timer.mark("readAuthors");
+        inserted += sum(jdbcTemplate.batchUpdate(INSERT_AUTHOR, args));
+        timer.mark("insertAuthors");
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Lecture impossible : " + file, e);
+    }
+    return new long[] { read, inserted };
+  }
+
+  private long[] loadBooks(Path file, PhaseTimer timer) {
+    long read = 0;
+    long inserted = 0;
+    try (BufferedReader reader = CatalogCsv.open(file, BOOK_COLUMNS)) {
+      List<Object[]> batch;
+      while (!(batch = readBatch(reader, BOOK_COLUMNS.size())).isEmpty()) {
+        read += batch.size();
+        timer.mark("readBooks");
+
+        Map<String, Long> authorIds = resolveEmails(batch.stream().map(f -> (String) f[5]).filter(Objects::nonNull)
+            .distinct().toList());
+        timer.mark("resolveEmails");
+
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (Object[] f : batch) {
+          Long authorId = authorIds.get((String) f[5]);
+          long isbnKey = Isbn.toKey((String) f[1]);
+          if (authorId != null && isbnKey != Isbn.INVALID) {
+            args.add(new Object[] { f[0], f[1], isbnKey, toDate(f[2]), toInteger(f[3]), f[4], authorId, isbnKey });
+          }
+        }
+        inserted += sum(jdbcTemplate.batchUpdate(INSERT_BOOK, args));
+        timer.mark("insertBooks");
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Lecture impossible : " + file, e);
+    }
+    return new long[] { read, inserted };
+  }
+
+  private Map<String, Long> resolveEmails(List<String> emails) {
+    Map<String, Long> ids = new HashMap<>(emails.size());
+    if (!emails.isEmpty()) {
+      namedJdbcTemplate.query("SELECT email, id FROM authors WHERE email IN (:emails)", Map.of("emails", emails),
+          rs -> {
+            ids.put(rs.getString(1), rs.getLong(2));
+          });
+    }
+    return ids;
+  }
+
+  private static List<Object[]> readBatch(BufferedReader reader, int columns) throws IOException {
+    List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+    String line;
+    while (batch.size() < BATCH_SIZE && (line = reader.readLine()) != null) {
+      if (line.isBlank()) {
+        continue;
+      }
+      List<String> fields = CsvLineParser.parse(line);
+      if (fields.size() != columns) {
+        throw new IllegalArgumentException("Nombre de colonnes invalide : " + line);
+      }
+      batch.add(fields.stream().map(f -> f.isEmpty() ? null : f).toArray());
+    }
+    return batch;
+  }
+
+  private static Date toDate(Object value) {
+    return value == null ? null : Date.valueOf(LocalDate.parse((String) value));
+  }
+
+  private static Integer toInteger(Object value) {
+    return value == null ? null : Integer.valueOf((String) value);
+  }
+
+  private static long sum(int[] counts) {
+    return Arrays.stream(counts).filter(c -> c > 0).sum();
+  }
+}
@@ -0,0 +1,95 @@
+package com.formation.library.loader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// COPY FROM STDIN vers des tables temporaires, puis INSERT ... SELECT ensembliste vers les tables JPA
+public class PgCopyCatalogLoader implements CatalogLoader {
+
+  private static final String CREATE_STAGING = """
+      CREATE TEMP TABLE authors_staging (
+        name text, email text, birth_date date, biography text
+      ) ON COMMIT DROP;
+      CREATE TEMP TABLE books_staging (
+        title text, isbn text, publication_date date, pages integer, genre text, author_email text
+      ) ON COMMIT DROP
+      """;
+
+  // Les identifiants viennent des séquences Hibernate : chaque nextval réserve un bloc complet,
+  // les lignes chargées ne peuvent donc pas entrer en collision avec les identifiants JPA
+  private static final String INSERT_AUTHORS = """
+      INSERT INTO authors (id, name, email, birth_date, biography)
+      SELECT nextval('authors_seq'), s.name, s.email, s.birth_date, s.biography
+      FROM authors_staging s
+      ON CONFLICT DO NOTHING
+      """;
+
+  // Résolution des emails en une seule jointure ; les livres d'auteurs inconnus sont ignorés
+  private static final String INSERT_BOOKS = """
+      INSERT INTO books (id, title, isbn, publication_date, pages, genre, status, author_id)
+      SELECT nextval('books_seq'), s.title, s.isbn, s.publication_date, s.pages, s.genre, 'AVAILABLE', a.id
+      FROM books_staging s
+      JOIN authors a ON a.email = s.author_email
+      ON CONFLICT DO NOTHING
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final IsbnKeyBackfill isbnKeyBackfill;
+
+  public PgCopyCatalogLoader(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+      IsbnKeyBackfill isbnKeyBackfill) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.isbnKeyBackfill = isbnKeyBackfill;
+  }
+
+  @Override
+  public CatalogLoadReport load(Path authorsFile, Path booksFile) {
+    PhaseTimer timer = new PhaseTimer();
+    CatalogLoadReport report = transactionTemplate.execute(status -> {
+      jdbcTemplate.execute(CREATE_STAGING);
+      timer.mark("staging");
+
+      long authorsRead = copy("COPY authors_staging FROM STDIN WITH (FORMAT csv)", authorsFile, AUTHOR_COLUMNS);
+      timer.mark("copyAuthors");
+      long booksRead = copy("COPY books_staging FROM STDIN WITH (FORMAT csv)", booksFile, BOOK_COLUMNS);
+      timer.mark("copyBooks");
+
+      long authorsInserted = jdbcTemplate.update(INSERT_AUTHORS);
+      timer.mark("insertAuthors");
+      long booksInserted = jdbcTemplate.update(INSERT_BOOKS);
+      timer.mark("insertBooks");
+      // Clé canonique calculée en Java (contrôle et normalisation ISBN-10), dans la même transaction
+      isbnKeyBackfill.backfill();
+      timer.mark("isbnKeys");
+
+      return new CatalogLoadReport(authorsRead, authorsInserted, booksRead, booksInserted, null);
+    });
+    timer.mark("commit");
+
+    jdbcTemplate.execute("ANALYZE authors, books");
+    timer.mark("analyze");
+
+    return new CatalogLoadReport(report.authorsRead(), report.authorsInserted(), report.booksRead(),
+        report.booksInserted(), timer.phases());
+  }
+
+  private long copy(String sql, Path file, List<String> columns) {
+    return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+      try (BufferedReader reader = CatalogCsv.open(file, columns)) {
+        return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, reader);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Lecture impossible : " + file, e);
+      }
+    });
+  }
+}
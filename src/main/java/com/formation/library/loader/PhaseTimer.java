@@ -0,0 +1,22 @@
+package com.formation.library.loader;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+final class PhaseTimer {
+
+  private final Map<String, Long> phases = new LinkedHashMap<>();
+  private long last = System.nanoTime();
+
+  // Enregistre la durée écoulée depuis la phase précédente
+  void mark(String phase) {
+    long now = System.nanoTime();
+    phases.merge(phase, (now - last) / 1_000_000, Long::sum);
+    last = now;
+  }
+
+  Map<String, Long> phases() {
+    return Collections.unmodifiableMap(phases);
+  }
+}
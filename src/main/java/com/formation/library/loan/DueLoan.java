@@ -0,0 +1,7 @@
+package com.formation.library.loan;
+
+import java.time.Instant;
+
+// Emprunt inscrit au journal (id de l'événement BORROWED) et son échéance
+public record DueLoan(long id, long bookId, Long isbnKey, String patron, Instant dueAt) {
+}
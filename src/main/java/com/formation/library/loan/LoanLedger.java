@@ -0,0 +1,181 @@
+package com.formation.library.loan;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.library.entity.Book;
+import com.formation.library.entity.LoanEvent;
+import com.formation.library.repository.LoanEventRepository;
+import com.formation.library.repository.LoanLedgerStore;
+import com.formation.library.util.TransactionCallbacks;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Journal des prêts. Chaque emprunt ou retour ajoute une ligne à loan_outbox dans sa propre transaction :
+ * un changement de statut validé a toujours son événement, un changement annulé n'en a pas. Le journal
+ * loans, indexé et partitionné, n'est écrit que par lots : un thread dédié déplace la file d'attente tous
+ * les batchSize événements validés ou toutes les flushInterval ms, en une instruction par lot.
+ * Après un arrêt brutal, les événements restés dans loan_outbox sont versés au premier lot suivant.
+ */
+@Component
+public class LoanLedger implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(LoanLedger.class);
+  private static final int PARTITIONS_AHEAD = 3;
+
+  private final LoanEventRepository loanEventRepository;
+  private final LoanLedgerStore store;
+  private final TransactionTemplate transactionTemplate;
+  private final Duration loanDuration;
+  private final int batchSize;
+  private final long flushIntervalNanos;
+  private final AtomicInteger pending = new AtomicInteger();
+  private final Counter written;
+  private final DistributionSummary batches;
+  private volatile Consumer<DueLoan> borrowListener = loan -> {
+  };
+  private YearMonth partitionedUntil;
+  private volatile boolean running;
+  private Thread relay;
+
+  public LoanLedger(LoanEventRepository loanEventRepository, LoanLedgerStore store,
+      PlatformTransactionManager transactionManager,
+      @Value("${library.loans.duration:21d}") Duration loanDuration,
+      @Value("${library.loans.ledger.batch-size:500}") int batchSize,
+      @Value("${library.loans.ledger.flush-interval:200ms}") Duration flushInterval,
+      MeterRegistry meterRegistry) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("La taille des lots du journal des prêts doit être positive");
+    }
+    this.loanEventRepository = loanEventRepository;
+    this.store = store;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.loanDuration = loanDuration;
+    this.batchSize = batchSize;
+    this.flushIntervalNanos = flushInterval.toNanos();
+    this.written = Counter.builder("library.loans.ledger.written")
+        .description("Événements de prêt versés au journal")
+        .register(meterRegistry);
+    this.batches = DistributionSummary.builder("library.loans.ledger.batch")
+        .description("Taille des lots versés au journal des prêts")
+        .register(meterRegistry);
+  }
+
+  // À appeler dans la transaction du changement de statut
+  public void borrowed(Book book, String patron) {
+    Instant now = Instant.now();
+    LoanEvent event = new LoanEvent(book.getId(), book.getIsbnKey(), LoanEvent.Type.BORROWED, patron, now,
+        now.plus(loanDuration));
+    record(event);
+    TransactionCallbacks.afterCommit(() -> borrowListener.accept(
+        new DueLoan(event.getId(), event.getBookId(), event.getIsbnKey(), patron, event.getDueAt())));
+  }
+
+  public void returned(Book book) {
+    record(new LoanEvent(book.getId(), book.getIsbnKey(), LoanEvent.Type.RETURNED, null, Instant.now(), null));
+  }
+
+  public void overdue(List<DueLoan> loans) {
+    Instant now = Instant.now();
+    loans.forEach(loan -> record(new LoanEvent(loan.bookId(), loan.isbnKey(), LoanEvent.Type.OVERDUE,
+        loan.patron(), now, loan.dueAt(), loan.id())));
+  }
+
+  // Emprunts validés, notifiés après commit (planification des échéances)
+  public void onBorrowed(Consumer<DueLoan> listener) {
+    this.borrowListener = listener;
+  }
+
+  // Verse tous les événements validés ; retourne le nombre d'événements déplacés
+  public int flush() {
+    pending.set(0);
+    int total = 0;
+    int moved;
+    do {
+      moved = transactionTemplate.execute(status -> store.moveBatch(batchSize));
+      if (moved > 0) {
+        batches.record(moved);
+        written.increment(moved);
+      }
+      total += moved;
+    } while (moved == batchSize);
+    return total;
+  }
+
+  private void record(LoanEvent event) {
+    loanEventRepository.save(event);
+    TransactionCallbacks.afterCommit(() -> {
+      if (pending.incrementAndGet() >= batchSize) {
+        LockSupport.unpark(relay);
+      }
+    });
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    relay = Thread.ofPlatform().name("library-loan-ledger").daemon().start(this::relayLoop);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    LockSupport.unpark(relay);
+    try {
+      relay.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // Arrêté après le serveur web : les derniers prêts sont versés au journal avant la fermeture du pool JDBC
+  @Override
+  public int getPhase() {
+    return 0;
+  }
+
+  private void relayLoop() {
+    while (running) {
+      flushQuietly();
+      LockSupport.parkNanos(flushIntervalNanos);
+    }
+    flushQuietly();
+  }
+
+  private void flushQuietly() {
+    try {
+      YearMonth month = YearMonth.now(ZoneOffset.UTC);
+      if (!month.equals(partitionedUntil)) {
+        store.ensurePartitions(month, PARTITIONS_AHEAD);
+        partitionedUntil = month;
+      }
+      flush();
+    } catch (RuntimeException e) {
+      // Base indisponible : les événements restent dans loan_outbox jusqu'au prochain passage
+      log.warn("Versement au journal des prêts reporté : {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package com.formation.library.loan;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.library.repository.DueLoanStore;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Détection des prêts en retard sans balayage de la table : les échéances des prochains horizon jours sont
+ * rangées dans une roue temporelle et la fenêtre chargée avance par plages d'échéances lues sur l'index
+ * idx_loans_due ; les emprunts de ce nœud y entrent dès leur validation. L'horizon reste inférieur à la durée
+ * d'un prêt : chaque emprunt, quel que soit le nœud qui l'a enregistré, est lu dans le journal avant son
+ * échéance. Les emprunts échus sont vérifiés par lots (encore ouverts, pas encore signalés), réservés dans
+ * loan_overdue (un seul signalement par emprunt, même entre plusieurs nœuds) puis inscrits au journal comme
+ * OVERDUE. Le point de reprise commun (loan_overdue_scan) n'avance qu'après un passage sans échec : après un
+ * redémarrage, la lecture y reprend et les lots en échec sont relus. Les retours ne retirent rien de la roue,
+ * la vérification écarte les emprunts clôturés entre-temps.
+ */
+@Component
+public class OverdueScanner implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(OverdueScanner.class);
+
+  private final DueLoanStore dueLoanStore;
+  private final LoanLedger loanLedger;
+  private final TransactionTemplate transactionTemplate;
+  private final long tickMillis;
+  private final Duration horizon;
+  private final Duration loanDuration;
+  private final int batchSize;
+  private final Timer lag;
+  private final DistributionSummary batches;
+  private final Queue<DueLoan> borrowed = new ConcurrentLinkedQueue<>();
+  private final Set<Long> scheduled = new HashSet<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private TimingWheel<DueLoan> wheel;
+  // Échéances déjà lues dans le journal : ]…, loadedUntil]
+  private Instant loadedUntil;
+  private volatile int pending;
+  private volatile boolean running;
+  private Thread scanner;
+
+  public OverdueScanner(DueLoanStore dueLoanStore, LoanLedger loanLedger,
+      PlatformTransactionManager transactionManager,
+      @Value("${library.loans.overdue.tick:1m}") Duration tick,
+      @Value("${library.loans.overdue.horizon:1d}") Duration horizon,
+      @Value("${library.loans.duration:21d}") Duration loanDuration,
+      @Value("${library.loans.overdue.batch-size:500}") int batchSize,
+      MeterRegistry meterRegistry) {
+    if (tick.toMillis() < 1 || batchSize < 1) {
+      throw new IllegalArgumentException("Le pas et la taille des lots de détection des retards doivent être positifs");
+    }
+    if (horizon.compareTo(loanDuration) >= 0) {
+      throw new IllegalArgumentException("L'horizon de détection des retards doit être inférieur à la durée d'un prêt");
+    }
+    this.dueLoanStore = dueLoanStore;
+    this.loanLedger = loanLedger;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.tickMillis = tick.toMillis();
+    this.horizon = horizon;
+    this.loanDuration = loanDuration;
+    this.batchSize = batchSize;
+    this.lag = Timer.builder("library.loans.overdue.lag")
+        .description("Délai entre l'échéance d'un prêt et son signalement en retard")
+        .register(meterRegistry);
+    this.batches = DistributionSummary.builder("library.loans.overdue.batch")
+        .description("Prêts signalés en retard par lot")
+        .register(meterRegistry);
+    Gauge.builder("library.loans.overdue.scheduled", this, scanner -> scanner.pending)
+        .description("Échéances en attente dans la roue")
+        .register(meterRegistry);
+  }
+
+  // Un passage : charge la fenêtre d'échéances jusqu'à now + horizon et signale les prêts échus ;
+  // retourne le nombre de prêts signalés
+  public int scan(Instant now) {
+    lock.lock();
+    try {
+      if (wheel == null) {
+        loanLedger.flush();
+        Instant checkpoint = dueLoanStore.checkpoint();
+        // Premier démarrage : les retards de plus d'une durée de prêt ne sont pas rattrapés
+        loadedUntil = checkpoint == null ? now.minus(loanDuration) : checkpoint;
+        wheel = new TimingWheel<>(tickOf(now));
+      }
+      int overdue = 0;
+      DueLoan loan;
+      while ((loan = borrowed.poll()) != null) {
+        schedule(loan);
+      }
+      Instant until = now.plus(horizon);
+      if (until.isAfter(loadedUntil)) {
+        overdue += load(until, now);
+      }
+      List<DueLoan> expired = new ArrayList<>();
+      wheel.advance(tickOf(now), expired::add);
+      overdue += fire(expired, now);
+      // Échéances arrondies jusqu'au tick courant : toutes examinées, sans échec
+      dueLoanStore.advanceCheckpoint(Instant.ofEpochMilli(tickOf(now) * tickMillis));
+      return overdue;
+    } finally {
+      pending = wheel == null ? 0 : wheel.size();
+      lock.unlock();
+    }
+  }
+
+  // Lecture incrémentale par pages ; les échéances déjà passées sont signalées page par page
+  private int load(Instant until, Instant now) {
+    loanLedger.flush();
+    int overdue = 0;
+    Instant after = loadedUntil;
+    long afterId = Long.MIN_VALUE;
+    List<DueLoan> page;
+    do {
+      page = dueLoanStore.findDue(after, afterId, until, batchSize);
+      page.forEach(this::schedule);
+      if (!page.isEmpty()) {
+        DueLoan last = page.get(page.size() - 1);
+        after = last.dueAt();
+        afterId = last.id();
+        List<DueLoan> expired = new ArrayList<>();
+        wheel.advance(tickOf(now), expired::add);
+        overdue += fire(expired, now);
+      }
+    } while (page.size() == batchSize);
+    loadedUntil = until;
+    return overdue;
+  }
+
+  private void schedule(DueLoan loan) {
+    if (scheduled.add(loan.id())) {
+      // Arrondi au tick supérieur : jamais signalé avant l'échéance
+      wheel.schedule(Math.floorDiv(loan.dueAt().toEpochMilli() + tickMillis - 1, tickMillis), loan);
+    }
+  }
+
+  private int fire(List<DueLoan> expired, Instant now) {
+    if (expired.isEmpty()) {
+      return 0;
+    }
+    expired.forEach(loan -> scheduled.remove(loan.id()));
+    int overdue = 0;
+    for (int from = 0; from < expired.size(); from += batchSize) {
+      List<DueLoan> batch = expired.subList(from, Math.min(from + batchSize, expired.size()));
+      try {
+        // Retours encore dans loan_outbox : versés avant la vérification
+        loanLedger.flush();
+        Set<Long> open = dueLoanStore.findOpen(batch.stream().map(DueLoan::id).toList());
+        List<DueLoan> late = batch.stream().filter(loan -> open.contains(loan.id())).toList();
+        if (!late.isEmpty()) {
+          List<DueLoan> flagged = transactionTemplate.execute(status -> {
+            dueLoanStore.lockCheckpoint();
+            List<DueLoan> inserted = dueLoanStore.flagOverdue(late);
+            loanLedger.overdue(inserted);
+            return inserted;
+          });
+          if (!flagged.isEmpty()) {
+            flagged.forEach(loan -> lag.record(Duration.between(loan.dueAt(), now)));
+            batches.record(flagged.size());
+            overdue += flagged.size();
+          }
+        }
+      } catch (RuntimeException e) {
+        // Lots non signalés remis dans la roue : échus, ils repartent au prochain passage ; le point de reprise
+        // n'avance pas, un redémarrage les relit
+        expired.subList(from, expired.size()).forEach(this::schedule);
+        throw e;
+      }
+    }
+    return overdue;
+  }
+
+  private long tickOf(Instant instant) {
+    return Math.floorDiv(instant.toEpochMilli(), tickMillis);
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    loanLedger.onBorrowed(borrowed::add);
+    scanner = Thread.ofPlatform().name("library-overdue-scanner").daemon().start(this::scanLoop);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    LockSupport.unpark(scanner);
+    try {
+      scanner.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void scanLoop() {
+    while (running) {
+      try {
+        scan(Instant.now());
+      } catch (RuntimeException e) {
+        // Base indisponible : les prêts échus restent à signaler, la lecture reprend au prochain passage
+        log.warn("Détection des retards reportée : {}", e.getMessage());
+      }
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(tickMillis));
+    }
+  }
+}
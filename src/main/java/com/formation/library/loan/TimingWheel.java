@@ -0,0 +1,114 @@
+package com.formation.library.loan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Roue temporelle hiérarchique : LEVELS niveaux de SLOTS cases, chaque case d'un niveau couvrant une
+ * révolution complète du niveau inférieur. Un élément est rangé dans le niveau le plus bas qui contient son
+ * échéance, puis redescend d'un niveau (cascade) lorsque l'horloge atteint sa case : ajout et expiration en
+ * O(1), sans tri ni parcours des échéances lointaines. Les échéances hors de la roue (plus de SLOTS^LEVELS
+ * ticks) attendent dans un débordement réexaminé à chaque révolution du niveau supérieur.
+ * Non thread-safe : utilisée par un seul thread à la fois.
+ */
+final class TimingWheel<T> {
+
+  static final int SLOT_BITS = 6;
+  static final int SLOTS = 1 << SLOT_BITS;
+  static final int LEVELS = 4;
+  private static final int MASK = SLOTS - 1;
+
+  private final List<List<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+  private List<Entry<T>> overflow = new ArrayList<>();
+  private List<Entry<T>> ready = new ArrayList<>();
+  private long currentTick;
+  private int size;
+
+  TimingWheel(long startTick) {
+    for (int i = 0; i < LEVELS * SLOTS; i++) {
+      slots.add(new ArrayList<>());
+    }
+    this.currentTick = startTick;
+  }
+
+  long currentTick() {
+    return currentTick;
+  }
+
+  int size() {
+    return size;
+  }
+
+  // Une échéance déjà passée expire au prochain advance
+  void schedule(long dueTick, T item) {
+    place(new Entry<>(dueTick, item));
+    size++;
+  }
+
+  // Avance l'horloge jusqu'à toTick (jamais en arrière) et remet les éléments échus dans l'ordre des échéances
+  int advance(long toTick, Consumer<T> expired) {
+    int fired = fire(expired);
+    while (currentTick < toTick) {
+      currentTick++;
+      cascade();
+      List<Entry<T>> slot = slots.get((int) (currentTick & MASK));
+      if (!slot.isEmpty()) {
+        ready.addAll(slot);
+        slot.clear();
+      }
+      fired += fire(expired);
+    }
+    return fired;
+  }
+
+  private void place(Entry<T> entry) {
+    if (entry.dueTick <= currentTick) {
+      ready.add(entry);
+      return;
+    }
+    for (int level = 0; level < LEVELS; level++) {
+      int shift = SLOT_BITS * (level + 1);
+      if (entry.dueTick >>> shift == currentTick >>> shift) {
+        slots.get(level * SLOTS + (int) ((entry.dueTick >>> (SLOT_BITS * level)) & MASK)).add(entry);
+        return;
+      }
+    }
+    overflow.add(entry);
+  }
+
+  // Début d'une case au niveau l : ses éléments, tous dans la révolution qui commence, redescendent
+  private void cascade() {
+    if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0 && !overflow.isEmpty()) {
+      List<Entry<T>> entries = overflow;
+      overflow = new ArrayList<>();
+      entries.forEach(this::place);
+    }
+    for (int level = LEVELS - 1; level >= 1; level--) {
+      if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+        continue;
+      }
+      List<Entry<T>> slot = slots.get(level * SLOTS + (int) ((currentTick >>> (SLOT_BITS * level)) & MASK));
+      if (!slot.isEmpty()) {
+        List<Entry<T>> entries = new ArrayList<>(slot);
+        slot.clear();
+        entries.forEach(this::place);
+      }
+    }
+  }
+
+  private int fire(Consumer<T> expired) {
+    if (ready.isEmpty()) {
+      return 0;
+    }
+    List<Entry<T>> entries = ready;
+    ready = new ArrayList<>();
+    entries.sort((a, b) -> Long.compare(a.dueTick, b.dueTick));
+    entries.forEach(entry -> expired.accept(entry.item));
+    size -= entries.size();
+    return entries.size();
+  }
+
+  private record Entry<T>(long dueTick, T item) {
+  }
+}
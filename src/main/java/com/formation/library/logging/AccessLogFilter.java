@@ -0,0 +1,40 @@
+package com.formation.library.logging;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Enregistré par LoggingConfig, en tête de chaîne pour mesurer toute la requête
+public class AccessLogFilter extends OncePerRequestFilter {
+
+  private final AsyncLogPipeline pipeline;
+
+  public AccessLogFilter(AsyncLogPipeline pipeline) {
+    this.pipeline = pipeline;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    long start = System.nanoTime();
+    int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+    try {
+      chain.doFilter(request, response);
+      status = response.getStatus();
+    } finally {
+      pipeline.request(request.getMethod(), uri(request), status, System.nanoTime() - start);
+    }
+  }
+
+  // Motif de la route (/api/books/{id}) plutôt que l'URI réelle : pas d'identifiants ni d'ISBN dans le journal
+  private static String uri(HttpServletRequest request) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return pattern != null ? pattern.toString() : request.getRequestURI();
+  }
+}
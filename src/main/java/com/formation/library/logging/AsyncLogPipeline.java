@@ -0,0 +1,171 @@
+package com.formation.library.logging;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Journal d'accès et de requêtes SQL asynchrone et échantillonné. Le thread de requête décide
+ * (échantillonnage par catégorie, seuil de lenteur, échec) puis dépose une mesure brute dans
+ * LogRingBuffer ; un thread dédié formate les lignes clé=valeur et les écrit dans les loggers
+ * library.access et library.sql. Les requêtes lentes et les échecs sont toujours journalisés (WARN),
+ * les autres au taux d'échantillonnage (INFO). File pleine : la ligne est perdue et comptée
+ * (library.logging.dropped), la requête n'attend jamais.
+ */
+@Component
+public class AsyncLogPipeline implements SmartLifecycle {
+
+  static final Logger ACCESS_LOG = LoggerFactory.getLogger("library.access");
+  static final Logger SQL_LOG = LoggerFactory.getLogger("library.sql");
+
+  private static final int DRAIN_BATCH = 256;
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+  private final LogRingBuffer<LogEntry> buffer;
+  private final double requestSampleRate;
+  private final double querySampleRate;
+  private final long slowRequestNanos;
+  private final long slowQueryNanos;
+  private final Consumer<LogEntry> sink;
+  private volatile boolean running;
+  private Thread writer;
+
+  @Autowired
+  public AsyncLogPipeline(@Value("${library.logging.capacity:16384}") int capacity,
+      @Value("${library.logging.sample.request:0.01}") double requestSampleRate,
+      @Value("${library.logging.sample.query:0.001}") double querySampleRate,
+      @Value("${library.logging.slow-request:500ms}") Duration slowRequest,
+      @Value("${library.logging.slow-query:100ms}") Duration slowQuery,
+      MeterRegistry meterRegistry) {
+    this(capacity, requestSampleRate, querySampleRate, slowRequest, slowQuery, AsyncLogPipeline::write);
+    FunctionCounter.builder("library.logging.dropped", buffer, LogRingBuffer::dropped)
+        .description("Lignes de journal perdues, file asynchrone pleine")
+        .register(meterRegistry);
+  }
+
+  AsyncLogPipeline(int capacity, double requestSampleRate, double querySampleRate, Duration slowRequest,
+      Duration slowQuery, Consumer<LogEntry> sink) {
+    if (requestSampleRate < 0 || requestSampleRate > 1 || querySampleRate < 0 || querySampleRate > 1) {
+      throw new IllegalArgumentException("Les taux d'échantillonnage doivent être compris entre 0 et 1");
+    }
+    this.buffer = new LogRingBuffer<>(capacity);
+    this.requestSampleRate = requestSampleRate;
+    this.querySampleRate = querySampleRate;
+    this.slowRequestNanos = slowRequest.toNanos();
+    this.slowQueryNanos = slowQuery.toNanos();
+    this.sink = sink;
+  }
+
+  public void request(String method, String uri, int status, long durationNanos) {
+    boolean slow = durationNanos >= slowRequestNanos;
+    boolean failed = status >= 500;
+    if (slow || failed || sampled(requestSampleRate)) {
+      buffer.offer(new LogEntry(LogEntry.Category.REQUEST, System.currentTimeMillis(), method, uri, status,
+          durationNanos, slow, failed));
+    }
+  }
+
+  // Le nombre de lignes n'est calculé que pour une requête effectivement journalisée
+  public boolean shouldLogQuery(long durationNanos, boolean failed) {
+    return durationNanos >= slowQueryNanos || failed || sampled(querySampleRate);
+  }
+
+  public void query(String repository, String method, long rows, long durationNanos, boolean failed) {
+    buffer.offer(new LogEntry(LogEntry.Category.QUERY, System.currentTimeMillis(), repository, method, rows,
+        durationNanos, durationNanos >= slowQueryNanos, failed));
+  }
+
+  long dropped() {
+    return buffer.dropped();
+  }
+
+  private static boolean sampled(double rate) {
+    return rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    writer = Thread.ofPlatform().name("library-log-writer").daemon().start(this::drainLoop);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    LockSupport.unpark(writer);
+    try {
+      writer.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // Phase basse : arrêté après le serveur web (phase la plus haute arrêtée en premier), les dernières
+  // requêtes traitées sont encore écrites
+  @Override
+  public int getPhase() {
+    return 0;
+  }
+
+  private void drainLoop() {
+    while (running) {
+      if (buffer.drain(sink, DRAIN_BATCH) == 0) {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+    }
+    while (buffer.drain(sink, DRAIN_BATCH) > 0) {
+      // Vidage final à l'arrêt
+    }
+  }
+
+  private static void write(LogEntry entry) {
+    Logger logger = entry.category() == LogEntry.Category.REQUEST ? ACCESS_LOG : SQL_LOG;
+    boolean alwaysLogged = entry.slow() || entry.failed();
+    if (alwaysLogged ? !logger.isWarnEnabled() : !logger.isInfoEnabled()) {
+      return;
+    }
+    String line = format(entry);
+    if (alwaysLogged) {
+      logger.warn(line);
+    } else {
+      logger.info(line);
+    }
+  }
+
+  static String format(LogEntry entry) {
+    StringBuilder line = new StringBuilder(128)
+        .append("ts=").append(Instant.ofEpochMilli(entry.timestampMillis()));
+    if (entry.category() == LogEntry.Category.REQUEST) {
+      line.append(" method=").append(entry.operation())
+          .append(" uri=").append(entry.target())
+          .append(" status=").append(entry.value());
+    } else {
+      line.append(" repository=").append(entry.operation())
+          .append(" method=").append(entry.target())
+          .append(" rows=").append(entry.value());
+    }
+    line.append(" durationMs=").append(String.format(Locale.ROOT, "%.3f", entry.durationNanos() / 1e6))
+        .append(" slow=").append(entry.slow())
+        .append(" failed=").append(entry.failed());
+    return line.toString();
+  }
+}
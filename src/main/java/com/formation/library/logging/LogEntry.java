@@ -0,0 +1,10 @@
+package com.formation.library.logging;
+
+// Mesure brute : le formatage est fait par le thread d'écriture, pas par le thread de requête
+record LogEntry(Category category, long timestampMillis, String operation, String target, long value,
+    long durationNanos, boolean slow, boolean failed) {
+
+  enum Category {
+    REQUEST, QUERY
+  }
+}
@@ -0,0 +1,85 @@
+package com.formation.library.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * File bornée sans verrou, plusieurs producteurs et un seul consommateur. Chaque case porte un numéro
+ * de séquence : un producteur réserve une position par CAS puis publie l'élément en avançant la
+ * séquence de la case, que le consommateur attend avant de lire. Pleine, la file rejette : un
+ * producteur (thread de requête) n'attend jamais.
+ */
+final class LogRingBuffer<E> {
+
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<E> slots;
+  private final AtomicLongArray sequences;
+  private final AtomicLong tail = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+  // Lu et écrit par le seul consommateur
+  private long head;
+
+  LogRingBuffer(int capacity) {
+    if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("La capacité doit être une puissance de 2 : " + capacity);
+    }
+    this.capacity = capacity;
+    this.mask = capacity - 1;
+    this.slots = new AtomicReferenceArray<>(capacity);
+    this.sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  boolean offer(E element) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) position & mask;
+      long gap = sequences.getAcquire(index) - position;
+      if (gap == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          slots.setPlain(index, element);
+          sequences.setRelease(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (gap < 0) {
+        // Case encore occupée par l'élément d'un tour précédent : file pleine
+        dropped.increment();
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  int drain(Consumer<? super E> consumer, int limit) {
+    int drained = 0;
+    while (drained < limit) {
+      int index = (int) head & mask;
+      if (sequences.getAcquire(index) != head + 1) {
+        break;
+      }
+      E element = slots.getPlain(index);
+      slots.setPlain(index, null);
+      sequences.setRelease(index, head + capacity);
+      head++;
+      drained++;
+      consumer.accept(element);
+    }
+    return drained;
+  }
+
+  long dropped() {
+    return dropped.sum();
+  }
+
+  int capacity() {
+    return capacity;
+  }
+}
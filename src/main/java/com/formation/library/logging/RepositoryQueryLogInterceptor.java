@@ -0,0 +1,52 @@
+package com.formation.library.logging;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.formation.library.util.RepositoryResults;
+
+// Les méthodes default ne sont pas journalisées : la requête qu'elles délèguent l'est
+class RepositoryQueryLogInterceptor implements MethodInterceptor {
+
+  private final String repository;
+  private final ObjectProvider<AsyncLogPipeline> pipelineProvider;
+  // Résolu sans verrou : un premier appel concurrent sous un moniteur ne doit pas épingler de thread virtuel
+  private volatile AsyncLogPipeline pipeline;
+
+  RepositoryQueryLogInterceptor(Class<?> repositoryInterface, ObjectProvider<AsyncLogPipeline> pipeline) {
+    this.repository = repositoryInterface.getSimpleName();
+    this.pipelineProvider = pipeline;
+  }
+
+  @Override
+  public Object invoke(MethodInvocation invocation) throws Throwable {
+    if (invocation.getMethod().isDefault()) {
+      return invocation.proceed();
+    }
+    long start = System.nanoTime();
+    Object result = null;
+    boolean failed = true;
+    try {
+      result = invocation.proceed();
+      failed = false;
+      return result;
+    } finally {
+      long duration = System.nanoTime() - start;
+      AsyncLogPipeline logPipeline = pipeline();
+      if (logPipeline != null && logPipeline.shouldLogQuery(duration, failed)) {
+        logPipeline.query(repository, invocation.getMethod().getName(),
+            failed ? 0 : RepositoryResults.rows(result, invocation.getMethod()), duration, failed);
+      }
+    }
+  }
+
+  private AsyncLogPipeline pipeline() {
+    AsyncLogPipeline logPipeline = pipeline;
+    if (logPipeline == null) {
+      logPipeline = pipelineProvider.getIfAvailable();
+      pipeline = logPipeline;
+    }
+    return logPipeline;
+  }
+}
@@ -0,0 +1,28 @@
+package com.formation.library.logging;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+// Journal SQL au niveau des dépôts Spring Data. Le pipeline est résolu à l'exécution : un
+// BeanPostProcessor ne doit pas forcer la création anticipée de ses dépendances
+@Component
+public class RepositoryQueryLogPostProcessor implements BeanPostProcessor {
+
+  private final ObjectProvider<AsyncLogPipeline> pipeline;
+
+  public RepositoryQueryLogPostProcessor(ObjectProvider<AsyncLogPipeline> pipeline) {
+    this.pipeline = pipeline;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(Object bean, String beanName) {
+    if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+      factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+          (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new RepositoryQueryLogInterceptor(
+              repositoryInformation.getRepositoryInterface(), pipeline))));
+    }
+    return bean;
+  }
+}
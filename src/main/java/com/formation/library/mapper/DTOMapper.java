@@ -4,14 +4,21 @@ import com.formation.library.dto.AuthorDTO;
 import com.formation.library.dto.AuthorWithBooksDTO;
 import com.formation.library.dto.BookDTO;
 import com.formation.library.dto.BookWithAuthorDTO;
+import com.formation.library.dto.CursorPageDTO;
+import com.formation.library.dto.ReservationDTO;
 import com.formation.library.entity.Author;
 import com.formation.library.entity.Book;
+import com.formation.library.entity.Reservation;
+import com.formation.library.jfr.MappingBatchEvent;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
+@Timed(value = "library.mapping", description = "Durée des conversions entités -> DTO")
 public class DTOMapper {
 
     public AuthorDTO toAuthorDTO(Author author) {
@@ -62,6 +69,19 @@ public class DTOMapper {
         );
     }
 
+    public ReservationDTO toReservationDTO(Reservation reservation) {
+        if (reservation == null) {
+            return null;
+        }
+        return new ReservationDTO(
+            reservation.getId(),
+            reservation.getBook().getIsbn(),
+            reservation.getPatron(),
+            reservation.getStatus(),
+            reservation.getReservedAt()
+        );
+    }
+
     public BookWithAuthorDTO toBookWithAuthorDTO(Book book) {
         if (book == null) {
             return null;
@@ -74,32 +94,46 @@ public class DTOMapper {
             book.getPages(),
             book.getGenre(),
             book.getStatus(),
+            book.getTotalCopies(),
+            book.getAvailableCopies(),
             toAuthorDTO(book.getAuthor())
         );
     }
 
     public List<AuthorDTO> toAuthorDTOList(List<Author> authors) {
-        return authors.stream()
-            .map(this::toAuthorDTO)
-            .collect(Collectors.toList());
+        return mapBatch("toAuthorDTOList", authors, this::toAuthorDTO);
     }
 
     public List<BookDTO> toBookDTOList(List<Book> books) {
-        return books.stream()
-            .map(this::toBookDTO)
-            .collect(Collectors.toList());
+        return mapBatch("toBookDTOList", books, this::toBookDTO);
+    }
+
+    public CursorPageDTO<AuthorDTO> toAuthorDTOPage(List<AuthorDTO> authors, int limit) {
+        Long nextCursor = authors.size() == limit ? authors.get(authors.size() - 1).id() : null;
+        return new CursorPageDTO<>(authors, nextCursor);
+    }
+
+    public CursorPageDTO<BookDTO> toBookDTOPage(List<BookDTO> books, int limit) {
+        Long nextCursor = books.size() == limit ? books.get(books.size() - 1).id() : null;
+        return new CursorPageDTO<>(books, nextCursor);
     }
 
     public List<AuthorWithBooksDTO> toAuthorWithBooksDTOList(List<Author> authors) {
-        return authors.stream()
-            .map(this::toAuthorWithBooksDTO)
-            .collect(Collectors.toList());
+        return mapBatch("toAuthorWithBooksDTOList", authors, this::toAuthorWithBooksDTO);
     }
 
     public List<BookWithAuthorDTO> toBookWithAuthorDTOList(List<Book> books) {
-        return books.stream()
-            .map(this::toBookWithAuthorDTO)
+        return mapBatch("toBookWithAuthorDTOList", books, this::toBookWithAuthorDTO);
+    }
+
+    // Événement JFR par liste convertie : coût du mapping rapporté au nombre d'éléments
+    private static <S, T> List<T> mapBatch(String method, List<S> source, Function<S, T> mapper) {
+        MappingBatchEvent event = new MappingBatchEvent(method, source.size());
+        List<T> result = source.stream()
+            .map(mapper)
             .collect(Collectors.toList());
+        event.commit();
+        return result;
     }
 
     public Author toAuthorEntity(AuthorDTO authorDTO) {
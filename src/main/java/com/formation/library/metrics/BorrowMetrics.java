@@ -0,0 +1,55 @@
+package com.formation.library.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Issues des emprunts et retours ; toutes les séries sont créées au démarrage pour exposer des zéros
+@Component
+public class BorrowMetrics {
+
+  public static final String METRIC_NAME = "library.borrow.outcomes";
+
+  public enum Operation {
+    BORROW, RETURN
+  }
+
+  public enum Outcome {
+    SUCCESS, NOT_FOUND, ALREADY_BORROWED, NOT_BORROWED;
+
+    boolean appliesTo(Operation operation) {
+      return switch (this) {
+        case ALREADY_BORROWED -> operation == Operation.BORROW;
+        case NOT_BORROWED -> operation == Operation.RETURN;
+        default -> true;
+      };
+    }
+  }
+
+  private final Map<Operation, Map<Outcome, Counter>> counters = new EnumMap<>(Operation.class);
+
+  public BorrowMetrics(MeterRegistry meterRegistry) {
+    for (Operation operation : Operation.values()) {
+      Map<Outcome, Counter> byOutcome = new EnumMap<>(Outcome.class);
+      for (Outcome outcome : Outcome.values()) {
+        if (!outcome.appliesTo(operation)) {
+          continue;
+        }
+        byOutcome.put(outcome, Counter.builder(METRIC_NAME)
+            .description("Emprunts et retours de livres par issue")
+            .tag("operation", operation.name().toLowerCase())
+            .tag("outcome", outcome.name().toLowerCase())
+            .register(meterRegistry));
+      }
+      counters.put(operation, byOutcome);
+    }
+  }
+
+  public void record(Operation operation, Outcome outcome) {
+    counters.get(operation).get(outcome).increment();
+  }
+}
@@ -0,0 +1,180 @@
+package com.formation.library.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.library.dto.BookEventDTO;
+import com.formation.library.entity.Book;
+import com.formation.library.entity.BookEvent;
+import com.formation.library.repository.BookEventRepository;
+import com.formation.library.repository.BookOutboxStore;
+import com.formation.library.repository.CatalogUpsert.UpsertedBook;
+import com.formation.library.util.TransactionCallbacks;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Événements du catalogue (création, modification, suppression, emprunt, retour) pour les systèmes en aval,
+ * qui n'ont plus à interroger /api/books/status/{status}. Chaque changement ajoute une ligne à book_outbox
+ * dans sa propre transaction. Un thread dédié publie les lignes validées par lots (batchSize événements
+ * validés ou flushInterval, le premier atteint) : verrouillage SKIP LOCKED, publication, suppression, commit.
+ * Plusieurs nœuds se partagent la file sans publier deux fois le même lot, mais sans ordre global : les id
+ * viennent de blocs de séquence propres à chaque nœud et les lots sont publiés en parallèle. Chaque événement
+ * porte la version du livre ; les consommateurs écartent ceux dont la version est déjà dépassée.
+ */
+@Component
+public class BookEventOutbox implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(BookEventOutbox.class);
+
+  private final BookEventRepository bookEventRepository;
+  private final BookOutboxStore store;
+  private final BookEventSink sink;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final long flushIntervalNanos;
+  private final AtomicInteger pending = new AtomicInteger();
+  private final Counter published;
+  private final DistributionSummary batches;
+  private volatile boolean running;
+  private Thread relay;
+
+  public BookEventOutbox(BookEventRepository bookEventRepository, BookOutboxStore store, BookEventSink sink,
+      PlatformTransactionManager transactionManager,
+      @Value("${library.book-events.batch-size:500}") int batchSize,
+      @Value("${library.book-events.flush-interval:200ms}") Duration flushInterval,
+      MeterRegistry meterRegistry) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("La taille des lots d'événements du catalogue doit être positive");
+    }
+    this.bookEventRepository = bookEventRepository;
+    this.store = store;
+    this.sink = sink;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.flushIntervalNanos = flushInterval.toNanos();
+    this.published = Counter.builder("library.book-events.published")
+        .description("Événements du catalogue publiés")
+        .register(meterRegistry);
+    this.batches = DistributionSummary.builder("library.book-events.batch")
+        .description("Taille des lots d'événements du catalogue publiés")
+        .register(meterRegistry);
+  }
+
+  // À appeler dans la transaction du changement, avec l'état du livre après celui-ci
+  public void record(Book book, BookEvent.Type type) {
+    record(List.of(new BookEvent(book, type, Instant.now())));
+  }
+
+  // Livres enregistrés ensemble (import par lots), version déjà attribuée
+  public void recordAll(List<Book> books, BookEvent.Type type) {
+    Instant now = Instant.now();
+    record(books.stream().map(book -> new BookEvent(book, type, now)).toList());
+  }
+
+  // Lignes écrites par CatalogUpsert, hors contexte de persistance : création ou mise à jour selon la version
+  public void recordUpserted(List<UpsertedBook> rows, Map<Long, String> isbnByKey) {
+    Instant now = Instant.now();
+    record(rows.stream().map(row -> new BookEvent(row.id(), isbnByKey.get(row.isbnKey()), row.version(),
+        row.created() ? BookEvent.Type.CREATED : BookEvent.Type.UPDATED, row.status(), row.availableCopies(), now))
+        .toList());
+  }
+
+  private void record(List<BookEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    bookEventRepository.saveAll(events);
+    TransactionCallbacks.afterCommit(() -> {
+      if (pending.addAndGet(events.size()) >= batchSize) {
+        LockSupport.unpark(relay);
+      }
+    });
+  }
+
+  // Publie tous les événements validés ; retourne le nombre d'événements publiés
+  public int flush() {
+    pending.set(0);
+    int total = 0;
+    int count;
+    do {
+      count = transactionTemplate.execute(status -> publishBatch());
+      if (count > 0) {
+        batches.record(count);
+        published.increment(count);
+      }
+      total += count;
+    } while (count == batchSize);
+    return total;
+  }
+
+  private int publishBatch() {
+    List<BookEventDTO> events = store.lockBatch(batchSize);
+    if (events.isEmpty()) {
+      return 0;
+    }
+    sink.publish(events);
+    store.delete(events.stream().map(BookEventDTO::id).toList());
+    return events.size();
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    relay = Thread.ofPlatform().name("library-book-events").daemon().start(this::relayLoop);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    LockSupport.unpark(relay);
+    try {
+      relay.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  // Arrêté après le serveur web : les derniers changements sont publiés avant la fermeture du pool JDBC
+  @Override
+  public int getPhase() {
+    return 0;
+  }
+
+  private void relayLoop() {
+    while (running) {
+      flushQuietly();
+      LockSupport.parkNanos(flushIntervalNanos);
+    }
+    flushQuietly();
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      // Base ou destination indisponible : les événements restent dans book_outbox jusqu'au prochain passage
+      log.warn("Publication des événements du catalogue reportée : {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.formation.library.outbox;
+
+import java.util.List;
+
+import com.formation.library.dto.BookEventDTO;
+
+/**
+ * Destination des événements du catalogue. publish est appelée dans la transaction qui verrouille le lot :
+ * au retour, les événements doivent être livrés (écrits, envoyés), ils sont ensuite supprimés de book_outbox.
+ * Une exception laisse le lot en place pour le passage suivant ; un arrêt entre la livraison et le commit
+ * fait republier le lot, les consommateurs dédoublonnent par id et ordonnent par version du livre.
+ */
+public interface BookEventSink {
+
+  void publish(List<BookEventDTO> events);
+}
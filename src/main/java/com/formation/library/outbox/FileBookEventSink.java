@@ -0,0 +1,47 @@
+package com.formation.library.outbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.library.dto.BookEventDTO;
+import com.formation.library.util.NdjsonWriter;
+
+// Un événement JSON par ligne, ajouté en fin de fichier ; le lot est écrit sur disque avant le commit.
+// Fichier local au nœud : à plusieurs nœuds, SKIP LOCKED répartirait le flux entre leurs fichiers. Réservé aux
+// déploiements à un seul nœud
+public class FileBookEventSink implements BookEventSink {
+
+  private final ObjectMapper objectMapper;
+  private final Path file;
+
+  public FileBookEventSink(ObjectMapper objectMapper, Path file) {
+    this.objectMapper = objectMapper;
+    this.file = file;
+  }
+
+  @Override
+  public void publish(List<BookEventDTO> events) {
+    try {
+      Path parent = file.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.APPEND)) {
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, Channels.newOutputStream(channel));
+        events.forEach(writer);
+        writer.flush();
+        channel.force(false);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
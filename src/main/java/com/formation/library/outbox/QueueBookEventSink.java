@@ -0,0 +1,22 @@
+package com.formation.library.outbox;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import com.formation.library.dto.BookEventDTO;
+
+// File en mémoire, lue par un consommateur du même processus (tests, intégration locale)
+public class QueueBookEventSink implements BookEventSink {
+
+  private final BlockingQueue<BookEventDTO> events = new LinkedBlockingQueue<>();
+
+  @Override
+  public void publish(List<BookEventDTO> batch) {
+    events.addAll(batch);
+  }
+
+  public BlockingQueue<BookEventDTO> events() {
+    return events;
+  }
+}
@@ -1,19 +1,36 @@
 package com.formation.library.repository;
 
+import com.formation.library.dto.AuthorDTO;
 import com.formation.library.entity.Author;
+import com.formation.library.search.IndexEntry;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface AuthorRepository extends JpaRepository<Author, Long> {
 
+  String AUTHOR_DTO_SELECT = "SELECT new com.formation.library.dto.AuthorDTO("
+      + "a.id, a.name, a.email, a.birthDate, a.biography) FROM Author a ";
+
   Optional<Author> findByEmail(String email);
 
+  @Query("SELECT a FROM Author a WHERE a.id > :afterId ORDER BY a.id")
+  List<Author> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
   List<Author> findByNameContainingIgnoreCase(String name);
 
   @Query("SELECT a FROM Author a WHERE a.birthDate BETWEEN :startDate AND :endDate")
@@ -24,4 +41,51 @@ public interface AuthorRepository extends JpaRepository<Author, Long> {
   List<Author> findByBooksGenre(@Param("genre") String genre);
 
   boolean existsByEmail(String email);
+
+  // Projections DTO (lecture seule, sans hydratation d'entités)
+  @Query(AUTHOR_DTO_SELECT + "WHERE a.id = :id")
+  Optional<AuthorDTO> findDTOById(@Param("id") Long id);
+
+  @Query(AUTHOR_DTO_SELECT + "WHERE a.email = :email")
+  Optional<AuthorDTO> findDTOByEmail(@Param("email") String email);
+
+  @Query(AUTHOR_DTO_SELECT + "WHERE a.id IN :ids")
+  List<AuthorDTO> findDTOByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Query(AUTHOR_DTO_SELECT + "WHERE a.id > :afterId ORDER BY a.id")
+  List<AuthorDTO> findDTOPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(AUTHOR_DTO_SELECT + "ORDER BY a.id")
+  Stream<AuthorDTO> streamAllDTO();
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT a.email FROM Author a WHERE a.email IS NOT NULL")
+  Stream<String> streamEmails();
+
+  @Query(AUTHOR_DTO_SELECT + "WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+  List<AuthorDTO> findDTOByName(@Param("name") String name);
+
+  @Query(AUTHOR_DTO_SELECT + "WHERE a.birthDate BETWEEN :startDate AND :endDate")
+  List<AuthorDTO> findDTOByBirthDateBetween(@Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate);
+
+  @Query(AUTHOR_DTO_SELECT + "JOIN a.books b WHERE b.genre = :genre")
+  List<AuthorDTO> findDTOByBooksGenre(@Param("genre") String genre);
+
+  @Query("SELECT a.id FROM Author a WHERE a.id IN :ids")
+  Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+  @Query("SELECT new com.formation.library.search.IndexEntry(a.id, a.name) FROM Author a "
+      + "WHERE a.id > :afterId ORDER BY a.id")
+  List<IndexEntry> findNameEntriesAfter(@Param("afterId") Long afterId, Limit limit);
+
+  // Recherche trigramme PostgreSQL (index GIN pg_trgm, voir schema-postgresql.sql)
+  @Query(value = "SELECT a.id FROM authors a WHERE a.name ILIKE CONCAT('%', :name, '%') "
+      + "ORDER BY a.id LIMIT :limit", nativeQuery = true)
+  List<Long> searchIdsByName(@Param("name") String name, @Param("limit") int limit);
+
+  @Query(value = "SELECT a.id FROM authors a WHERE a.name ILIKE CONCAT('%', :name, '%') "
+      + "ORDER BY similarity(a.name, :name) DESC, a.id LIMIT :limit", nativeQuery = true)
+  List<Long> searchIdsByNameRanked(@Param("name") String name, @Param("limit") int limit);
 }
@@ -0,0 +1,8 @@
+package com.formation.library.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.formation.library.entity.BookEvent;
+
+public interface BookEventRepository extends JpaRepository<BookEvent, Long> {
+}
@@ -0,0 +1,54 @@
+package com.formation.library.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.formation.library.dto.BookEventDTO;
+import com.formation.library.entity.Book.BookStatus;
+import com.formation.library.entity.BookEvent;
+
+/**
+ * Lecture de book_outbox par le relais. Les lignes d'un lot restent verrouillées jusqu'à la fin de la
+ * transaction de publication : SKIP LOCKED laisse les autres nœuds prendre les lots suivants au lieu
+ * d'attendre ou de publier les mêmes événements. SQL commun à PostgreSQL et H2.
+ */
+@Repository
+public class BookOutboxStore {
+
+  private static final String LOCK_BATCH = """
+      SELECT id, book_id, version, isbn, type, status, available_copies, occurred_at FROM book_outbox
+      ORDER BY id
+      LIMIT ?
+      FOR UPDATE SKIP LOCKED
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+  public BookOutboxStore(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+  }
+
+  // À appeler dans une transaction : verrouille au plus limit événements, par id croissant (ordre d'allocation
+  // des blocs de séquence, pas ordre des commits entre nœuds)
+  public List<BookEventDTO> lockBatch(int limit) {
+    return jdbcTemplate.query(LOCK_BATCH, BookOutboxStore::toEvent, limit);
+  }
+
+  public void delete(List<Long> ids) {
+    namedJdbcTemplate.update("DELETE FROM book_outbox WHERE id IN (:ids)", Map.of("ids", ids));
+  }
+
+  private static BookEventDTO toEvent(ResultSet rs, int rowNum) throws SQLException {
+    return new BookEventDTO(rs.getLong("id"), rs.getLong("book_id"), rs.getLong("version"), rs.getString("isbn"),
+        BookEvent.Type.valueOf(rs.getString("type")), BookStatus.valueOf(rs.getString("status")),
+        rs.getInt("available_copies"), rs.getTimestamp("occurred_at").toInstant());
+  }
+}
@@ -1,37 +1,215 @@
 package com.formation.library.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.formation.library.dto.BookDTO;
+import com.formation.library.dto.BookWithAuthorDTO;
 import com.formation.library.entity.Book;
 import com.formation.library.entity.Book.BookStatus;
+import com.formation.library.search.IndexEntry;
+import com.formation.library.util.Isbn;
+
+import jakarta.persistence.QueryHint;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
 
-  Optional<Book> findByIsbn(String isbn);
+  String BOOK_DTO_SELECT = "SELECT new com.formation.library.dto.BookDTO("
+      + "b.id, b.title, b.isbn, b.publicationDate, b.pages, b.genre, b.status, a.id, a.name) "
+      + "FROM Book b JOIN b.author a ";
+
+  String BOOK_WITH_AUTHOR_DTO_SELECT = "SELECT new com.formation.library.dto.BookWithAuthorDTO("
+      + "b.id, b.title, b.isbn, b.publicationDate, b.pages, b.genre, b.status, b.totalCopies, b.availableCopies, "
+      + "a.id, a.name, a.email, a.birthDate, a.biography) "
+      + "FROM Book b JOIN b.author a ";
+
+  @Override
+  @EntityGraph(attributePaths = "author")
+  List<Book> findAll();
+
+  @EntityGraph(attributePaths = "author")
+  Optional<Book> findByIsbnKey(Long isbnKey);
+
+  // Recherches par ISBN : comparaison sur la clé canonique, un ISBN invalide ne correspond à aucun livre
+  default Optional<Book> findByIsbn(String isbn) {
+    return findByIsbnKey(Isbn.toKey(isbn));
+  }
 
+  @EntityGraph(attributePaths = "author")
+  @Query("SELECT b FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+  List<Book> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+  @EntityGraph(attributePaths = "author")
   List<Book> findByTitleContainingIgnoreCase(String title);
 
+  @EntityGraph(attributePaths = "author")
   List<Book> findByStatus(BookStatus status);
 
+  @EntityGraph(attributePaths = "author")
   List<Book> findByGenreIgnoreCase(String genre);
 
+  @EntityGraph(attributePaths = "author")
   List<Book> findByAuthorId(Long authorId);
 
+  @EntityGraph(attributePaths = "author")
   @Query("SELECT b FROM Book b WHERE b.publicationDate BETWEEN :startDate AND :endDate")
   List<Book> findByPublicationDateBetween(@Param("startDate") LocalDate startDate,
       @Param("endDate") LocalDate endDate);
 
+  @EntityGraph(attributePaths = "author")
   @Query("SELECT b FROM Book b WHERE b.author.name LIKE %:authorName%")
   List<Book> findByAuthorNameContaining(@Param("authorName") String authorName);
 
-  @Query("SELECT COUNT(b) FROM Book b WHERE b.author.id = :authorId AND b.status = :status")
-  long countByAuthorIdAndStatus(@Param("authorId") Long authorId, @Param("status") BookStatus status);
+  // Emprunt d'un exemplaire en une instruction : décrément conditionnel, 0 ligne modifiée s'il n'en reste aucun.
+  // Les expressions de SET lisent les valeurs d'avant la mise à jour
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE Book b SET b.availableCopies = b.availableCopies - 1, "
+      + "b.status = CASE WHEN b.availableCopies = 1 THEN :borrowed ELSE b.status END, b.version = b.version + 1 "
+      + "WHERE b.isbnKey = :isbnKey AND b.status = :available AND b.availableCopies > 0")
+  int borrowCopyByIsbnKey(@Param("isbnKey") Long isbnKey, @Param("available") BookStatus available,
+      @Param("borrowed") BookStatus borrowed);
+
+  default int borrowCopy(String isbn) {
+    return borrowCopyByIsbnKey(Isbn.toKey(isbn), BookStatus.AVAILABLE, BookStatus.BORROWED);
+  }
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE Book b SET b.availableCopies = b.availableCopies + 1, "
+      + "b.status = CASE WHEN b.status IN (:borrowed, :reserved) THEN :available ELSE b.status END, "
+      + "b.version = b.version + 1 "
+      + "WHERE b.isbnKey = :isbnKey AND b.availableCopies + b.heldCopies < b.totalCopies")
+  int returnCopyByIsbnKey(@Param("isbnKey") Long isbnKey, @Param("available") BookStatus available,
+      @Param("borrowed") BookStatus borrowed, @Param("reserved") BookStatus reserved);
+
+  default int returnCopy(String isbn) {
+    return returnCopyByIsbnKey(Isbn.toKey(isbn), BookStatus.AVAILABLE, BookStatus.BORROWED, BookStatus.RESERVED);
+  }
+
+  // Retour d'un exemplaire attendu par un lecteur : il est mis de côté au lieu de repasser en rayon
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE Book b SET b.heldCopies = b.heldCopies + 1, "
+      + "b.status = CASE WHEN b.status = :borrowed THEN :reserved ELSE b.status END, b.version = b.version + 1 "
+      + "WHERE b.isbnKey = :isbnKey AND b.availableCopies + b.heldCopies < b.totalCopies")
+  int holdReturnedCopyByIsbnKey(@Param("isbnKey") Long isbnKey, @Param("borrowed") BookStatus borrowed,
+      @Param("reserved") BookStatus reserved);
+
+  default int holdReturnedCopy(long isbnKey) {
+    return holdReturnedCopyByIsbnKey(isbnKey, BookStatus.BORROWED, BookStatus.RESERVED);
+  }
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE Book b SET b.heldCopies = b.heldCopies - 1, "
+      + "b.status = CASE WHEN b.status = :reserved AND b.heldCopies = 1 THEN :borrowed ELSE b.status END, "
+      + "b.version = b.version + 1 "
+      + "WHERE b.isbnKey = :isbnKey AND b.heldCopies > 0")
+  int pickUpHeldCopyByIsbnKey(@Param("isbnKey") Long isbnKey, @Param("reserved") BookStatus reserved,
+      @Param("borrowed") BookStatus borrowed);
+
+  default int pickUpHeldCopy(long isbnKey) {
+    return pickUpHeldCopyByIsbnKey(isbnKey, BookStatus.RESERVED, BookStatus.BORROWED);
+  }
+
+  // Exemplaires d'un auteur par statut, lus sur les compteurs : les exemplaires sortis sont comptés comme
+  // empruntés et ceux mis de côté comme réservés quel que soit le statut du titre, ceux en rayon selon
+  // le statut du titre
+  default long countByAuthorIdAndStatus(Long authorId, BookStatus status) {
+    return switch (status) {
+      case BORROWED -> sumBorrowedCopiesByAuthorId(authorId);
+      case RESERVED -> sumHeldCopiesByAuthorId(authorId);
+      default -> sumShelvedCopiesByAuthorIdAndStatus(authorId, status);
+    };
+  }
+
+  @Query("SELECT COALESCE(SUM(b.totalCopies - b.availableCopies - b.heldCopies), 0) FROM Book b "
+      + "WHERE b.author.id = :authorId")
+  long sumBorrowedCopiesByAuthorId(@Param("authorId") Long authorId);
+
+  @Query("SELECT COALESCE(SUM(b.heldCopies), 0) FROM Book b WHERE b.author.id = :authorId")
+  long sumHeldCopiesByAuthorId(@Param("authorId") Long authorId);
+
+  @Query("SELECT COALESCE(SUM(b.availableCopies), 0) FROM Book b "
+      + "WHERE b.author.id = :authorId AND b.status = :status")
+  long sumShelvedCopiesByAuthorIdAndStatus(@Param("authorId") Long authorId, @Param("status") BookStatus status);
+
+  boolean existsByIsbnKey(Long isbnKey);
+
+  default boolean existsByIsbn(String isbn) {
+    return existsByIsbnKey(Isbn.toKey(isbn));
+  }
+
+  // Projections DTO (lecture seule, sans hydratation d'entités)
+  @Query(BOOK_WITH_AUTHOR_DTO_SELECT + "WHERE b.id = :id")
+  Optional<BookWithAuthorDTO> findDTOById(@Param("id") Long id);
+
+  @Query(BOOK_WITH_AUTHOR_DTO_SELECT + "WHERE b.isbnKey = :isbnKey")
+  Optional<BookWithAuthorDTO> findDTOByIsbnKey(@Param("isbnKey") Long isbnKey);
+
+  default Optional<BookWithAuthorDTO> findDTOByIsbn(String isbn) {
+    return findDTOByIsbnKey(Isbn.toKey(isbn));
+  }
+
+  @Query(BOOK_DTO_SELECT + "WHERE b.id IN :ids")
+  List<BookDTO> findDTOByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Query(BOOK_DTO_SELECT + "WHERE b.id > :afterId ORDER BY b.id")
+  List<BookDTO> findDTOPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+  // Curseur JDBC lu par paquets : les projections ne sont pas attachées au contexte de persistance
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(BOOK_DTO_SELECT + "ORDER BY b.id")
+  Stream<BookDTO> streamAllDTO();
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+  @Query("SELECT b.isbnKey FROM Book b WHERE b.isbnKey IS NOT NULL")
+  Stream<Long> streamIsbnKeys();
+
+  @Query(BOOK_DTO_SELECT + "WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+  List<BookDTO> findDTOByTitle(@Param("title") String title);
+
+  @Query(BOOK_DTO_SELECT + "WHERE b.status = :status")
+  List<BookDTO> findDTOByStatus(@Param("status") BookStatus status);
+
+  @Query(BOOK_DTO_SELECT + "WHERE LOWER(b.genre) = LOWER(:genre)")
+  List<BookDTO> findDTOByGenre(@Param("genre") String genre);
+
+  // Cache de requêtes Hibernate : invalidé à chaque écriture sur books ou authors
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  @Query(BOOK_DTO_SELECT + "WHERE a.id = :authorId")
+  List<BookDTO> findDTOByAuthorId(@Param("authorId") Long authorId);
+
+  @Query(BOOK_DTO_SELECT + "WHERE b.publicationDate BETWEEN :startDate AND :endDate")
+  List<BookDTO> findDTOByPublicationDateBetween(@Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate);
+
+  @Query(BOOK_DTO_SELECT + "WHERE a.name LIKE %:authorName%")
+  List<BookDTO> findDTOByAuthorName(@Param("authorName") String authorName);
+
+  @Query("SELECT b.isbnKey FROM Book b WHERE b.isbnKey IN :isbnKeys")
+  Set<Long> findExistingIsbnKeys(@Param("isbnKeys") Collection<Long> isbnKeys);
+
+  @Query("SELECT new com.formation.library.search.IndexEntry(b.id, b.title) FROM Book b "
+      + "WHERE b.id > :afterId ORDER BY b.id")
+  List<IndexEntry> findTitleEntriesAfter(@Param("afterId") Long afterId, Limit limit);
+
+  // Recherche trigramme PostgreSQL (index GIN pg_trgm, voir schema-postgresql.sql)
+  @Query(value = "SELECT b.id FROM books b WHERE b.title ILIKE CONCAT('%', :title, '%') "
+      + "ORDER BY b.id LIMIT :limit", nativeQuery = true)
+  List<Long> searchIdsByTitle(@Param("title") String title, @Param("limit") int limit);
 
-  boolean existsByIsbn(String isbn);
+  @Query(value = "SELECT b.id FROM books b WHERE b.title ILIKE CONCAT('%', :title, '%') "
+      + "ORDER BY similarity(b.title, :title) DESC, b.id LIMIT :limit", nativeQuery = true)
+  List<Long> searchIdsByTitleRanked(@Param("title") String title, @Param("limit") int limit);
 }
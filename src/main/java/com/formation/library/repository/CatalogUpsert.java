@@ -0,0 +1,32 @@
+package com.formation.library.repository;
+
+import java.util.List;
+
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.entity.Book.BookStatus;
+
+/**
+ * Écriture « insérer ou mettre à jour » en une instruction SQL par lot, sans lecture préalable :
+ * livres par clé ISBN canonique, auteurs par email. Les écritures passent par JDBC, hors du contexte
+ * de persistance : l'appelant invalide les caches (CatalogCacheInvalidator).
+ * Une même clé présente plusieurs fois dans un lot n'est écrite qu'une fois, avec la dernière valeur.
+ */
+public interface CatalogUpsert {
+
+  List<UpsertedBook> upsertBooks(List<Book> books);
+
+  List<UpsertedAuthor> upsertAuthors(List<Author> authors);
+
+  // Une ligne insérée garde la version 0, chaque mise à jour l'incrémente. Statut et stock disponible sont ceux
+  // de la ligne écrite (conservés des emprunts en cours pour une mise à jour)
+  record UpsertedBook(long id, long isbnKey, long version, BookStatus status, int availableCopies) {
+
+    public boolean created() {
+      return version == 0;
+    }
+  }
+
+  record UpsertedAuthor(long id, String email) {
+  }
+}
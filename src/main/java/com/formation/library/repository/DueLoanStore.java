@@ -0,0 +1,115 @@
+package com.formation.library.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.formation.library.loan.DueLoan;
+
+/**
+ * Échéances lues dans le journal loans (index idx_loans_due). Les retours ne désignent pas l'emprunt qu'ils
+ * clôturent : les exemplaires sont supposés rendus dans l'ordre des emprunts, un emprunt est donc ouvert
+ * tant qu'il fait partie des N derniers emprunts du titre, N étant le nombre d'exemplaires empruntés.
+ * SQL commun à PostgreSQL et H2.
+ */
+@Repository
+public class DueLoanStore {
+
+  private static final String DUE_BETWEEN = """
+      SELECT id, book_id, isbn_key, patron, due_at FROM loans
+      WHERE type = 'BORROWED' AND due_at <= ?
+        AND (due_at > ? OR (due_at = ? AND id > ?))
+      ORDER BY due_at, id
+      LIMIT ?
+      """;
+
+  // Emprunts encore ouverts et pas encore signalés en retard
+  private static final String OPEN_AMONG = """
+      SELECT l.id FROM loans l JOIN books b ON b.id = l.book_id
+      WHERE l.id IN (:ids) AND l.type = 'BORROWED'
+        AND (SELECT COUNT(*) FROM loans n
+             WHERE n.book_id = l.book_id AND n.type = 'BORROWED'
+               AND (n.occurred_at > l.occurred_at OR (n.occurred_at = l.occurred_at AND n.id > l.id)))
+            < b.total_copies - b.available_copies - b.held_copies
+        AND NOT EXISTS (SELECT 1 FROM loan_overdue o WHERE o.loan_id = l.id)
+      """;
+
+  // 0 ligne si l'emprunt est déjà signalé ; la clé primaire de loan_overdue tranche les signalements concurrents
+  private static final String FLAG = """
+      INSERT INTO loan_overdue (loan_id, book_id, due_at, flagged_at)
+      SELECT l.id, l.book_id, l.due_at, CURRENT_TIMESTAMP FROM loans l
+      WHERE l.id = ? AND l.type = 'BORROWED' AND NOT EXISTS (SELECT 1 FROM loan_overdue o WHERE o.loan_id = l.id)
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+  public DueLoanStore(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+  }
+
+  // Page d'emprunts d'échéance dans ]after, until], après le curseur (after, afterId), par échéance croissante
+  public List<DueLoan> findDue(Instant after, long afterId, Instant until, int limit) {
+    Timestamp from = Timestamp.from(after);
+    return jdbcTemplate.query(DUE_BETWEEN, DueLoanStore::toDueLoan, Timestamp.from(until), from, from, afterId,
+        limit);
+  }
+
+  public Set<Long> findOpen(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(namedJdbcTemplate.queryForList(OPEN_AMONG, Map.of("ids", ids), Long.class));
+  }
+
+  // À appeler dans la transaction qui inscrit les retards au journal ; retourne les emprunts signalés par
+  // cet appel, sans ceux qu'un autre passage ou un autre nœud a déjà signalés
+  public List<DueLoan> flagOverdue(List<DueLoan> loans) {
+    int[] flagged = jdbcTemplate.batchUpdate(FLAG, loans.stream().map(loan -> new Object[] { loan.id() }).toList());
+    List<DueLoan> inserted = new ArrayList<>(loans.size());
+    for (int i = 0; i < flagged.length; i++) {
+      if (flagged[i] != 0) {
+        inserted.add(loans.get(i));
+      }
+    }
+    return inserted;
+  }
+
+  // Point de reprise commun aux nœuds : toutes les échéances jusqu'à cet instant ont été examinées ;
+  // null avant le premier passage
+  public Instant checkpoint() {
+    Timestamp until = jdbcTemplate.queryForObject("SELECT scanned_until FROM loan_overdue_scan WHERE id = 1",
+        Timestamp.class);
+    return until == null ? null : until.toInstant();
+  }
+
+  // Dans la transaction du signalement : un seul nœud signale à la fois
+  public void lockCheckpoint() {
+    jdbcTemplate.queryForList("SELECT id FROM loan_overdue_scan WHERE id = 1 FOR UPDATE", Integer.class);
+  }
+
+  // Jamais en arrière : un nœud en retard sur les autres ne recule pas le point de reprise
+  public void advanceCheckpoint(Instant until) {
+    Timestamp timestamp = Timestamp.from(until);
+    jdbcTemplate.update("UPDATE loan_overdue_scan SET scanned_until = ? "
+        + "WHERE id = 1 AND (scanned_until IS NULL OR scanned_until < ?)", timestamp, timestamp);
+  }
+
+  private static DueLoan toDueLoan(ResultSet rs, int rowNum) throws SQLException {
+    long isbnKey = rs.getLong("isbn_key");
+    return new DueLoan(rs.getLong("id"), rs.getLong("book_id"), rs.wasNull() ? null : isbnKey,
+        rs.getString("patron"), rs.getTimestamp("due_at").toInstant());
+  }
+}
@@ -0,0 +1,30 @@
+package com.formation.library.repository;
+
+import java.time.YearMonth;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Équivalent H2 : les lignes supprimées sont relues par OLD TABLE dans la même instruction ; table non partitionnée
+public class H2LoanLedgerStore implements LoanLedgerStore {
+
+  private static final String MOVE_BATCH = """
+      INSERT INTO loans (id, book_id, isbn_key, type, patron, occurred_at, due_at, loan_id)
+      SELECT id, book_id, isbn_key, type, patron, occurred_at, due_at, loan_id FROM OLD TABLE (
+        DELETE FROM loan_outbox WHERE id IN (SELECT id FROM loan_outbox ORDER BY id LIMIT ?))
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public H2LoanLedgerStore(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public int moveBatch(int limit) {
+    return jdbcTemplate.update(MOVE_BATCH, limit);
+  }
+
+  @Override
+  public void ensurePartitions(YearMonth from, int months) {
+  }
+}
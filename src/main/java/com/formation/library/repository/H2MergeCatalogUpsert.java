@@ -0,0 +1,53 @@
+package com.formation.library.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Équivalent H2 : MERGE ... USING, les lignes écrites étant relues dans la même instruction par FINAL TABLE.
+// Les CAST donnent leur type aux colonnes de la liste VALUES
+public class H2MergeCatalogUpsert extends JdbcCatalogUpsert {
+
+  public H2MergeCatalogUpsert(JdbcTemplate jdbcTemplate) {
+    super(jdbcTemplate);
+  }
+
+  @Override
+  protected String bookStatement(int rows) {
+    return """
+        SELECT id, isbn_key, version, status, available_copies FROM FINAL TABLE (
+          MERGE INTO books b
+          USING (VALUES %s) AS s (title, isbn, isbn_key, publication_date, pages, genre, author_id, total_copies)
+          ON b.isbn_key = s.isbn_key
+          WHEN MATCHED AND b.total_copies - b.available_copies <= s.total_copies THEN UPDATE SET
+            title = s.title, isbn = s.isbn, publication_date = s.publication_date, pages = s.pages,
+            genre = s.genre, author_id = s.author_id, total_copies = s.total_copies,
+            available_copies = b.available_copies + s.total_copies - b.total_copies,
+            status = CASE
+              WHEN b.status NOT IN ('AVAILABLE', 'BORROWED', 'RESERVED') THEN b.status
+              WHEN b.available_copies + s.total_copies > b.total_copies THEN 'AVAILABLE'
+              WHEN b.held_copies > 0 THEN 'RESERVED'
+              ELSE 'BORROWED' END,
+            version = b.version + 1
+          WHEN NOT MATCHED THEN
+            INSERT (id, title, isbn, isbn_key, publication_date, pages, genre, author_id, total_copies,
+              available_copies, status, version)
+            VALUES (NEXT VALUE FOR books_seq, s.title, s.isbn, s.isbn_key, s.publication_date, s.pages, s.genre,
+              s.author_id, s.total_copies, s.total_copies, 'AVAILABLE', 0))
+        """.formatted(repeat("(CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS BIGINT), CAST(? AS DATE), "
+            + "CAST(? AS INTEGER), CAST(? AS VARCHAR), CAST(? AS BIGINT), CAST(? AS INTEGER))", rows));
+  }
+
+  @Override
+  protected String authorStatement(int rows) {
+    return """
+        SELECT id, email FROM FINAL TABLE (
+          MERGE INTO authors a
+          USING (VALUES %s) AS s (name, email, birth_date, biography)
+          ON a.email = s.email
+          WHEN MATCHED THEN UPDATE SET name = s.name, birth_date = s.birth_date, biography = s.biography
+          WHEN NOT MATCHED THEN
+            INSERT (id, name, email, birth_date, biography)
+            VALUES (NEXT VALUE FOR authors_seq, s.name, s.email, s.birth_date, s.biography))
+        """.formatted(repeat("(CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS DATE), CAST(? AS VARCHAR))",
+            rows));
+  }
+}
@@ -0,0 +1,90 @@
+package com.formation.library.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.entity.Book.BookStatus;
+
+// Découpage en instructions multi-lignes et liaison typée des paramètres (les NULL ne sont pas
+// typables par le serveur dans une liste VALUES) ; le SQL propre à chaque base est fourni par les sous-classes
+public abstract class JdbcCatalogUpsert implements CatalogUpsert {
+
+  // 8 paramètres par livre : loin de la limite de 32767 paramètres par instruction de PostgreSQL
+  static final int MAX_ROWS_PER_STATEMENT = 500;
+
+  private static final int[] BOOK_TYPES = { Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.DATE, Types.INTEGER,
+      Types.VARCHAR, Types.BIGINT, Types.INTEGER };
+  private static final int[] AUTHOR_TYPES = { Types.VARCHAR, Types.VARCHAR, Types.DATE, Types.VARCHAR };
+
+  private final JdbcTemplate jdbcTemplate;
+
+  protected JdbcCatalogUpsert(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  // Colonnes liées, dans l'ordre : title, isbn, isbn_key, publication_date, pages, genre, author_id,
+  // total_copies. Résultat attendu : id, isbn_key, version, status, available_copies ; une mise à jour qui
+  // retirerait des exemplaires empruntés n'est pas appliquée et la ligne est absente du résultat
+  protected abstract String bookStatement(int rows);
+
+  // Colonnes liées : name, email, birth_date, biography. Résultat attendu : id, email
+  protected abstract String authorStatement(int rows);
+
+  @Override
+  public List<UpsertedBook> upsertBooks(List<Book> books) {
+    Map<Long, Object[]> rows = new LinkedHashMap<>();
+    for (Book book : books) {
+      rows.put(book.getIsbnKey(), new Object[] { book.getTitle(), book.getIsbn(), book.getIsbnKey(),
+          book.getPublicationDate(), book.getPages(), book.getGenre(), book.getAuthor().getId(),
+          book.getTotalCopies() });
+    }
+    return execute(new ArrayList<>(rows.values()), BOOK_TYPES, this::bookStatement,
+        (rs, rowNum) -> new UpsertedBook(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+            BookStatus.valueOf(rs.getString(4)), rs.getInt(5)));
+  }
+
+  @Override
+  public List<UpsertedAuthor> upsertAuthors(List<Author> authors) {
+    Map<String, Object[]> rows = new LinkedHashMap<>();
+    for (Author author : authors) {
+      rows.put(author.getEmail(), new Object[] { author.getName(), author.getEmail(), author.getBirthDate(),
+          author.getBiography() });
+    }
+    return execute(new ArrayList<>(rows.values()), AUTHOR_TYPES, this::authorStatement,
+        (rs, rowNum) -> new UpsertedAuthor(rs.getLong(1), rs.getString(2)));
+  }
+
+  protected static String repeat(String row, int rows) {
+    return String.join(", ", Collections.nCopies(rows, row));
+  }
+
+  private <T> List<T> execute(List<Object[]> rows, int[] types, IntFunction<String> statement, RowMapper<T> mapper) {
+    List<T> results = new ArrayList<>(rows.size());
+    for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+      List<Object[]> chunk = rows.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, rows.size()));
+      results.addAll(jdbcTemplate.query(statement.apply(chunk.size()), ps -> bind(ps, chunk, types), mapper));
+    }
+    return results;
+  }
+
+  private static void bind(PreparedStatement ps, List<Object[]> rows, int[] types) throws SQLException {
+    int index = 1;
+    for (Object[] row : rows) {
+      for (int column = 0; column < types.length; column++) {
+        ps.setObject(index++, row[column], types[column]);
+      }
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.formation.library.repository;
+
+import java.time.YearMonth;
+
+/**
+ * Journal des prêts (table loans, ajout seul, hors JPA). Les événements validés dans loan_outbox y sont
+ * déplacés par lots : suppression de la table d'attente et insertion dans le journal en une instruction,
+ * dans la même transaction. Un lot interrompu est rejoué en entier, jamais en double.
+ */
+public interface LoanLedgerStore {
+
+  // Déplace au plus limit événements, les plus anciens d'abord ; retourne le nombre déplacé
+  int moveBatch(int limit);
+
+  // Crée les partitions mensuelles à partir de from (sans effet sur une base non partitionnée)
+  void ensurePartitions(YearMonth from, int months);
+}
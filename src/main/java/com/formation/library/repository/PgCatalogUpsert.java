@@ -0,0 +1,47 @@
+package com.formation.library.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// INSERT ... ON CONFLICT : l'arbitrage se fait sur l'index unique, sans verrou ni lecture préalable.
+// Les exemplaires empruntés sont conservés : seul le stock disponible suit le nouveau total
+public class PgCatalogUpsert extends JdbcCatalogUpsert {
+
+  public PgCatalogUpsert(JdbcTemplate jdbcTemplate) {
+    super(jdbcTemplate);
+  }
+
+  @Override
+  protected String bookStatement(int rows) {
+    return """
+        INSERT INTO books (id, title, isbn, isbn_key, publication_date, pages, genre, author_id, total_copies,
+          available_copies, status, version)
+        SELECT nextval('books_seq'), v.title, v.isbn, v.isbn_key, v.publication_date, v.pages, v.genre, v.author_id,
+          v.total_copies, v.total_copies, 'AVAILABLE', 0
+        FROM (VALUES %s) AS v (title, isbn, isbn_key, publication_date, pages, genre, author_id, total_copies)
+        ON CONFLICT (isbn_key) DO UPDATE SET
+          title = EXCLUDED.title, isbn = EXCLUDED.isbn, publication_date = EXCLUDED.publication_date,
+          pages = EXCLUDED.pages, genre = EXCLUDED.genre, author_id = EXCLUDED.author_id,
+          total_copies = EXCLUDED.total_copies,
+          available_copies = books.available_copies + EXCLUDED.total_copies - books.total_copies,
+          status = CASE
+            WHEN books.status NOT IN ('AVAILABLE', 'BORROWED', 'RESERVED') THEN books.status
+            WHEN books.available_copies + EXCLUDED.total_copies > books.total_copies THEN 'AVAILABLE'
+            WHEN books.held_copies > 0 THEN 'RESERVED'
+            ELSE 'BORROWED' END,
+          version = books.version + 1
+        WHERE books.total_copies - books.available_copies <= EXCLUDED.total_copies
+        RETURNING id, isbn_key, version, status, available_copies
+        """.formatted(repeat("(?, ?, ?, ?, ?, ?, ?, ?)", rows));
+  }
+
+  @Override
+  protected String authorStatement(int rows) {
+    return """
+        INSERT INTO authors (id, name, email, birth_date, biography)
+        VALUES %s
+        ON CONFLICT (email) DO UPDATE SET
+          name = EXCLUDED.name, birth_date = EXCLUDED.birth_date, biography = EXCLUDED.biography
+        RETURNING id, email
+        """.formatted(repeat("(nextval('authors_seq'), ?, ?, ?, ?)", rows));
+  }
+}
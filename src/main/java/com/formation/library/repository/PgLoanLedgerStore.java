@@ -0,0 +1,52 @@
+package com.formation.library.repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Table loans partitionnée par mois (schema-postgresql.sql) : les anciens mois se détachent ou se suppriment
+// sans DELETE massif. SKIP LOCKED : deux nœuds qui vident la file en même temps se partagent les lignes
+public class PgLoanLedgerStore implements LoanLedgerStore {
+
+  private static final Logger log = LoggerFactory.getLogger(PgLoanLedgerStore.class);
+  private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+  private static final String MOVE_BATCH = """
+      WITH moved AS (
+        DELETE FROM loan_outbox
+        WHERE id IN (SELECT id FROM loan_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)
+        RETURNING id, book_id, isbn_key, type, patron, occurred_at, due_at, loan_id)
+      INSERT INTO loans (id, book_id, isbn_key, type, patron, occurred_at, due_at, loan_id)
+      SELECT id, book_id, isbn_key, type, patron, occurred_at, due_at, loan_id FROM moved
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public PgLoanLedgerStore(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public int moveBatch(int limit) {
+    return jdbcTemplate.update(MOVE_BATCH, limit);
+  }
+
+  @Override
+  public void ensurePartitions(YearMonth from, int months) {
+    for (int i = 0; i < months; i++) {
+      YearMonth month = from.plusMonths(i);
+      try {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS loans_%s PARTITION OF loans "
+            + "FOR VALUES FROM ('%s 00:00:00+00') TO ('%s 00:00:00+00')"
+            .formatted(month.format(PARTITION_SUFFIX), month.atDay(1), month.plusMonths(1).atDay(1)));
+      } catch (DataAccessException e) {
+        // Lignes du mois déjà tombées dans loans_default : la partition est à créer à la main
+        log.warn("Partition loans_{} non créée : {}", month.format(PARTITION_SUFFIX), e.getMessage());
+      }
+    }
+  }
+}
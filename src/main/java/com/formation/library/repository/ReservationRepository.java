@@ -0,0 +1,48 @@
+package com.formation.library.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.formation.library.cache.QueuedReservation;
+import com.formation.library.entity.Reservation;
+import com.formation.library.entity.Reservation.ReservationStatus;
+
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+  // Chargement d'une file complète par l'index (book_id, status, reserved_at, id)
+  @Query("SELECT new com.formation.library.cache.QueuedReservation(r.id, r.reservedAt, r.patron) "
+      + "FROM Reservation r WHERE r.book.isbnKey = :isbnKey AND r.status = :status")
+  List<QueuedReservation> findQueueByIsbnKey(@Param("isbnKey") Long isbnKey, @Param("status") ReservationStatus status);
+
+  default List<QueuedReservation> findWaitingByIsbnKey(long isbnKey) {
+    return findQueueByIsbnKey(isbnKey, ReservationStatus.WAITING);
+  }
+
+  boolean existsByBookIdAndPatron(Long bookId, String patron);
+
+  // 0 ligne modifiée si la réservation a déjà été servie ou supprimée par une transaction concurrente, ou si
+  // une réservation plus ancienne du même livre attend encore (file en mémoire périmée sur ce nœud)
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE Reservation r SET r.status = :ready WHERE r.id = :id AND r.status = :waiting AND NOT EXISTS ("
+      + "SELECT 1 FROM Reservation e WHERE e.book = r.book AND e.status = :waiting "
+      + "AND (e.reservedAt < r.reservedAt OR (e.reservedAt = r.reservedAt AND e.id < r.id)))")
+  int markReadyById(@Param("id") Long id, @Param("waiting") ReservationStatus waiting,
+      @Param("ready") ReservationStatus ready);
+
+  default int markReady(long id) {
+    return markReadyById(id, ReservationStatus.WAITING, ReservationStatus.READY);
+  }
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("DELETE FROM Reservation r WHERE r.book.id = :bookId AND r.patron = :patron AND r.status = :ready")
+  int deleteByBookIdAndPatronAndStatus(@Param("bookId") Long bookId, @Param("patron") String patron,
+      @Param("ready") ReservationStatus ready);
+
+  default int deleteReady(Long bookId, String patron) {
+    return deleteByBookIdAndPatronAndStatus(bookId, patron, ReservationStatus.READY);
+  }
+}
@@ -0,0 +1,18 @@
+package com.formation.library.search;
+
+import java.util.List;
+
+public interface CatalogSearch {
+
+  List<Long> searchBooks(String title, int limit, boolean ranked);
+
+  List<Long> searchAuthors(String name, int limit, boolean ranked);
+
+  void indexBook(Long id, String title);
+
+  void removeBook(Long id);
+
+  void indexAuthor(Long id, String name);
+
+  void removeAuthor(Long id);
+}
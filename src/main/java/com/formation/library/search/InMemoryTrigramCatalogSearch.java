@@ -0,0 +1,82 @@
+package com.formation.library.search;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.util.TransactionCallbacks;
+
+public class InMemoryTrigramCatalogSearch implements CatalogSearch {
+
+  private static final Logger log = LoggerFactory.getLogger(InMemoryTrigramCatalogSearch.class);
+  private static final int REBUILD_BATCH_SIZE = 1000;
+
+  private final BookRepository bookRepository;
+  private final AuthorRepository authorRepository;
+  private final TrigramIndex bookTitles = new TrigramIndex();
+  private final TrigramIndex authorNames = new TrigramIndex();
+
+  public InMemoryTrigramCatalogSearch(BookRepository bookRepository, AuthorRepository authorRepository) {
+    this.bookRepository = bookRepository;
+    this.authorRepository = authorRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    bookTitles.clear();
+    authorNames.clear();
+
+    long afterId = 0;
+    List<IndexEntry> page;
+    do {
+      page = bookRepository.findTitleEntriesAfter(afterId, Limit.of(REBUILD_BATCH_SIZE));
+      page.forEach(entry -> bookTitles.put(entry.id(), entry.text()));
+      afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).id();
+    } while (page.size() == REBUILD_BATCH_SIZE);
+
+    afterId = 0;
+    do {
+      page = authorRepository.findNameEntriesAfter(afterId, Limit.of(REBUILD_BATCH_SIZE));
+      page.forEach(entry -> authorNames.put(entry.id(), entry.text()));
+      afterId = page.isEmpty() ? afterId : page.get(page.size() - 1).id();
+    } while (page.size() == REBUILD_BATCH_SIZE);
+
+    log.info("Index trigramme construit : {} livres, {} auteurs", bookTitles.size(), authorNames.size());
+  }
+
+  @Override
+  public List<Long> searchBooks(String title, int limit, boolean ranked) {
+    return bookTitles.search(title, limit, ranked).stream().map(TrigramIndex.Match::id).toList();
+  }
+
+  @Override
+  public List<Long> searchAuthors(String name, int limit, boolean ranked) {
+    return authorNames.search(name, limit, ranked).stream().map(TrigramIndex.Match::id).toList();
+  }
+
+  @Override
+  public void indexBook(Long id, String title) {
+    TransactionCallbacks.afterCommit(() -> bookTitles.put(id, title));
+  }
+
+  @Override
+  public void removeBook(Long id) {
+    TransactionCallbacks.afterCommit(() -> bookTitles.remove(id));
+  }
+
+  @Override
+  public void indexAuthor(Long id, String name) {
+    TransactionCallbacks.afterCommit(() -> authorNames.put(id, name));
+  }
+
+  @Override
+  public void removeAuthor(Long id) {
+    TransactionCallbacks.afterCommit(() -> authorNames.remove(id));
+  }
+}
@@ -0,0 +1,7 @@
+package com.formation.library.search;
+
+public record IndexEntry(
+    Long id,
+    String text
+) {
+}
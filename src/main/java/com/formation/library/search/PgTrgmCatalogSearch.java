@@ -0,0 +1,48 @@
+package com.formation.library.search;
+
+import java.util.List;
+
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+
+public class PgTrgmCatalogSearch implements CatalogSearch {
+
+  private final BookRepository bookRepository;
+  private final AuthorRepository authorRepository;
+
+  public PgTrgmCatalogSearch(BookRepository bookRepository, AuthorRepository authorRepository) {
+    this.bookRepository = bookRepository;
+    this.authorRepository = authorRepository;
+  }
+
+  @Override
+  public List<Long> searchBooks(String title, int limit, boolean ranked) {
+    return ranked
+        ? bookRepository.searchIdsByTitleRanked(title, limit)
+        : bookRepository.searchIdsByTitle(title, limit);
+  }
+
+  @Override
+  public List<Long> searchAuthors(String name, int limit, boolean ranked) {
+    return ranked
+        ? authorRepository.searchIdsByNameRanked(name, limit)
+        : authorRepository.searchIdsByName(name, limit);
+  }
+
+  // Les index GIN sont maintenus par PostgreSQL
+  @Override
+  public void indexBook(Long id, String title) {
+  }
+
+  @Override
+  public void removeBook(Long id) {
+  }
+
+  @Override
+  public void indexAuthor(Long id, String name) {
+  }
+
+  @Override
+  public void removeAuthor(Long id) {
+  }
+}
@@ -0,0 +1,164 @@
+package com.formation.library.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index trigramme en mémoire pour la recherche de sous-chaînes (équivalent
+ * de pg_trgm pour H2). Chaque texte est découpé en trigrammes ; une requête
+ * ne parcourt que la liste de postings de son trigramme le plus rare.
+ */
+public class TrigramIndex {
+
+  private final Map<Long, Entry> entries = new HashMap<>();
+  private final Map<Long, Set<Long>> postings = new HashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private record Entry(String text, int trigramCount) {
+  }
+
+  public record Match(long id, double score) {
+  }
+
+  public void put(long id, String text) {
+    String normalized = normalize(text);
+    Set<Long> trigrams = trigrams(normalized);
+
+    lock.writeLock().lock();
+    try {
+      removeLocked(id);
+      entries.put(id, new Entry(normalized, trigrams.size()));
+      for (Long trigram : trigrams) {
+        postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(long id) {
+    lock.writeLock().lock();
+    try {
+      removeLocked(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      entries.clear();
+      postings.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Retourne les identifiants dont le texte contient la requête (insensible
+   * à la casse). En mode classé, le score est la similarité trigramme
+   * (|T(requête)| / |T(texte)|), sinon les résultats sont triés par id.
+   */
+  public List<Match> search(String query, int limit, boolean ranked) {
+    String normalized = normalize(query);
+    Set<Long> queryTrigrams = trigrams(normalized);
+    List<Match> matches = new ArrayList<>();
+
+    lock.readLock().lock();
+    try {
+      if (queryTrigrams.isEmpty()) {
+        // Requête trop courte pour un trigramme : parcours complet
+        entries.forEach((id, entry) -> {
+          if (entry.text().contains(normalized)) {
+            matches.add(new Match(id, score(queryTrigrams.size(), entry)));
+          }
+        });
+      } else {
+        List<Set<Long>> lists = new ArrayList<>(queryTrigrams.size());
+        for (Long trigram : queryTrigrams) {
+          Set<Long> ids = postings.get(trigram);
+          if (ids == null) {
+            return List.of();
+          }
+          lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        for (Long id : lists.get(0)) {
+          if (containsAll(lists, id)) {
+            Entry entry = entries.get(id);
+            if (entry.text().contains(normalized)) {
+              matches.add(new Match(id, score(queryTrigrams.size(), entry)));
+            }
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    Comparator<Match> order = ranked
+        ? Comparator.comparingDouble(Match::score).reversed().thenComparingLong(Match::id)
+        : Comparator.comparingLong(Match::id);
+    matches.sort(order);
+    return matches.size() > limit ? matches.subList(0, limit) : matches;
+  }
+
+  private void removeLocked(long id) {
+    Entry previous = entries.remove(id);
+    if (previous == null) {
+      return;
+    }
+    for (Long trigram : trigrams(previous.text())) {
+      Set<Long> ids = postings.get(trigram);
+      if (ids != null && ids.remove(id) && ids.isEmpty()) {
+        postings.remove(trigram);
+      }
+    }
+  }
+
+  private static boolean containsAll(List<Set<Long>> lists, Long id) {
+    for (int i = 1; i < lists.size(); i++) {
+      if (!lists.get(i).contains(id)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static double score(int queryTrigrams, Entry entry) {
+    return entry.trigramCount() == 0 ? 0 : (double) queryTrigrams / entry.trigramCount();
+  }
+
+  static String normalize(String text) {
+    return text == null ? "" : text.toLowerCase(Locale.ROOT);
+  }
+
+  static Set<Long> trigrams(String normalized) {
+    Set<Long> trigrams = new HashSet<>();
+    for (int i = 0; i + 3 <= normalized.length(); i++) {
+      trigrams.add(((long) normalized.charAt(i) << 32)
+          | ((long) normalized.charAt(i + 1) << 16)
+          | normalized.charAt(i + 2));
+    }
+    return trigrams;
+  }
+}
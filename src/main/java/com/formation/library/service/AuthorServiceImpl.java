@@ -2,30 +2,85 @@ package com.formation.library.service;
 
 import java.time.LocalDate;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.formation.library.cache.CacheNames;
+import com.formation.library.cache.CatalogCacheInvalidator;
+import com.formation.library.cache.ExistingKeysFilter;
+import com.formation.library.cache.NegativeLookupCache;
+import com.formation.library.dto.AuthorDTO;
+import com.formation.library.dto.AuthorWithBooksDTO;
+import com.formation.library.dto.BookDTO;
+import com.formation.library.dto.BulkUpsertResultDTO;
 import com.formation.library.entity.Author;
 import com.formation.library.exception.AuthorNotFoundException;
 import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.repository.CatalogUpsert;
+import com.formation.library.repository.CatalogUpsert.UpsertedAuthor;
+import com.formation.library.search.CatalogSearch;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed(value = "library.service", description = "Durée des méthodes des services du catalogue")
 @Transactional(readOnly = true)
 public class AuthorServiceImpl implements IAuthorService {
 
   private final AuthorRepository authorRepository;
-
-  public AuthorServiceImpl(AuthorRepository authorRepository) {
+  private final BookRepository bookRepository;
+  private final CatalogSearch catalogSearch;
+  private final CatalogCacheInvalidator cacheInvalidator;
+  private final NegativeLookupCache negativeLookupCache;
+  private final ExistingKeysFilter existingKeys;
+  private final CatalogUpsert catalogUpsert;
+
+  public AuthorServiceImpl(AuthorRepository authorRepository, BookRepository bookRepository,
+      CatalogSearch catalogSearch, CatalogCacheInvalidator cacheInvalidator,
+      NegativeLookupCache negativeLookupCache, ExistingKeysFilter existingKeys, CatalogUpsert catalogUpsert) {
     this.authorRepository = authorRepository;
+    this.bookRepository = bookRepository;
+    this.catalogSearch = catalogSearch;
+    this.cacheInvalidator = cacheInvalidator;
+    this.negativeLookupCache = negativeLookupCache;
+    this.existingKeys = existingKeys;
+    this.catalogUpsert = catalogUpsert;
   }
 
   @Override
   @Transactional(readOnly = false)
   public Author save(Author author) {
     validateAuthor(author);
-    return authorRepository.save(author);
+    Author savedAuthor = authorRepository.save(author);
+    existingKeys.addEmail(savedAuthor.getEmail());
+    catalogSearch.indexAuthor(savedAuthor.getId(), savedAuthor.getName());
+    cacheInvalidator.authorCreated(savedAuthor.getEmail());
+    return savedAuthor;
+  }
+
+  @Override
+  @Transactional(readOnly = false)
+  public Author upsertByEmail(Author author) {
+    upsert(List.of(author));
+    return author;
+  }
+
+  @Override
+  @Transactional(readOnly = false)
+  public BulkUpsertResultDTO upsertAllByEmail(List<Author> authors) {
+    List<UpsertedAuthor> rows = upsert(authors);
+    return new BulkUpsertResultDTO(authors.size(), rows.size(), authors.stream().map(Author::getId).toList());
   }
 
   @Override
@@ -34,50 +89,111 @@ public class AuthorServiceImpl implements IAuthorService {
         .orElseThrow(() -> new AuthorNotFoundException(id));
   }
 
+  @Override
+  @Cacheable(CacheNames.AUTHORS_BY_ID)
+  public AuthorWithBooksDTO findDTOById(Long id) {
+    AuthorDTO author = authorRepository.findDTOById(id)
+        .orElseThrow(() -> new AuthorNotFoundException(id));
+    List<BookDTO> books = bookRepository.findDTOByAuthorId(id);
+
+    return new AuthorWithBooksDTO(
+        author.id(),
+        author.name(),
+        author.email(),
+        author.birthDate(),
+        author.biography(),
+        books);
+  }
+
   @Override
   public Author findByEmail(String email) {
     return authorRepository.findByEmail(email)
         .orElseThrow(() -> new AuthorNotFoundException(email));
   }
 
+  @Override
+  @Cacheable(CacheNames.AUTHORS_BY_EMAIL)
+  public AuthorDTO findDTOByEmail(String email) {
+    if (negativeLookupCache.isMissingAuthor(email)) {
+      throw new AuthorNotFoundException(email);
+    }
+    return authorRepository.findDTOByEmail(email)
+        .orElseThrow(() -> {
+          negativeLookupCache.authorMissing(email);
+          return new AuthorNotFoundException(email);
+        });
+  }
+
   @Override
   public List<Author> findAll() {
     return authorRepository.findAll();
   }
 
   @Override
-  public List<Author> findByName(String name) {
-    return authorRepository.findByNameContainingIgnoreCase(name);
+  public List<AuthorDTO> findPage(Long afterId, int limit) {
+    return authorRepository.findDTOPageAfter(afterId, Limit.of(limit));
   }
 
   @Override
-  public List<Author> findByBirthDateBetween(LocalDate startDate, LocalDate endDate) {
-    return authorRepository.findByBirthDateBetween(startDate, endDate);
+  public void exportAll(Consumer<? super AuthorDTO> consumer) {
+    try (Stream<AuthorDTO> authors = authorRepository.streamAllDTO()) {
+      authors.forEach(consumer);
+    }
   }
 
   @Override
-  public List<Author> findByGenre(@NonNull String genre) {
-    return authorRepository.findByBooksGenre(genre);
+  public List<AuthorDTO> findByName(String name) {
+    return authorRepository.findDTOByName(name);
+  }
+
+  @Override
+  public List<AuthorDTO> searchByName(String name, int limit, boolean ranked) {
+    List<Long> ids = catalogSearch.searchAuthors(name, limit, ranked);
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, AuthorDTO> authors = authorRepository.findDTOByIdIn(ids).stream()
+        .collect(Collectors.toMap(AuthorDTO::id, Function.identity()));
+    return ids.stream().map(authors::get).filter(Objects::nonNull).toList();
+  }
+
+  @Override
+  public List<AuthorDTO> findByBirthDateBetween(LocalDate startDate, LocalDate endDate) {
+    return authorRepository.findDTOByBirthDateBetween(startDate, endDate);
+  }
+
+  @Override
+  public List<AuthorDTO> findByGenre(@NonNull String genre) {
+    return authorRepository.findDTOByBooksGenre(genre);
   }
 
   @Override
   @Transactional(readOnly = false)
   public Author update(Long id, Author author) {
     Author existingAuthor = findById(id);
+    cacheInvalidator.evictAuthor(id, existingAuthor.getEmail());
 
     existingAuthor.setName(author.getName());
     existingAuthor.setEmail(author.getEmail());
     existingAuthor.setBirthDate(author.getBirthDate());
     existingAuthor.setBiography(author.getBiography());
 
-    return authorRepository.save(existingAuthor);
+    Author updatedAuthor = authorRepository.save(existingAuthor);
+    existingKeys.addEmail(updatedAuthor.getEmail());
+    catalogSearch.indexAuthor(updatedAuthor.getId(), updatedAuthor.getName());
+    cacheInvalidator.evictAuthor(id, updatedAuthor.getEmail());
+    cacheInvalidator.authorCreated(updatedAuthor.getEmail());
+    return updatedAuthor;
   }
 
   @Override
   @Transactional(readOnly = false)
   public void deleteById(Long id) {
     Author author = findById(id);
+    author.getBooks().forEach(book -> catalogSearch.removeBook(book.getId()));
     authorRepository.delete(author);
+    catalogSearch.removeAuthor(id);
+    cacheInvalidator.evictAuthor(id, author.getEmail());
   }
 
   @Override
@@ -85,7 +201,28 @@ public class AuthorServiceImpl implements IAuthorService {
     return authorRepository.existsByEmail(email);
   }
 
+  private List<UpsertedAuthor> upsert(List<Author> authors) {
+    authors.forEach(AuthorServiceImpl::validateFields);
+    List<UpsertedAuthor> rows = catalogUpsert.upsertAuthors(authors);
+    Map<String, Long> ids = rows.stream().collect(Collectors.toMap(UpsertedAuthor::email, UpsertedAuthor::id));
+    for (Author author : authors) {
+      author.setId(ids.get(author.getEmail()));
+      existingKeys.addEmail(author.getEmail());
+      catalogSearch.indexAuthor(author.getId(), author.getName());
+    }
+    cacheInvalidator.authorsUpserted(rows);
+    return rows;
+  }
+
   private void validateAuthor(Author author) {
+    validateFields(author);
+
+    if (existingKeys.mightContainEmail(author.getEmail()) && existsByEmail(author.getEmail())) {
+      throw new IllegalArgumentException("Un auteur avec cet email existe déjà");
+    }
+  }
+
+  private static void validateFields(Author author) {
     if (author.getName() == null ||
         author.getName().isBlank()) {
       throw new IllegalArgumentException("Le nom de l'auteur ne peut pas être vide");
@@ -95,9 +232,5 @@ public class AuthorServiceImpl implements IAuthorService {
         author.getEmail().isBlank()) {
       throw new IllegalArgumentException("L'email doit être renseigné");
     }
-
-    if (existsByEmail(author.getEmail())) {
-      throw new IllegalArgumentException("Un auteur avec cet email existe déjà");
-    }
   }
 }
@@ -0,0 +1,247 @@
+package com.formation.library.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.library.cache.CatalogCacheInvalidator;
+import com.formation.library.cache.ExistingKeysFilter;
+import com.formation.library.dto.BookImportRow;
+import com.formation.library.dto.BulkImportResultDTO;
+import com.formation.library.entity.Book;
+import com.formation.library.entity.BookEvent;
+import com.formation.library.outbox.BookEventOutbox;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.search.CatalogSearch;
+import com.formation.library.util.CsvLineParser;
+import com.formation.library.util.Isbn;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+@Service
+public class BookImportServiceImpl implements IBookImportService {
+
+  private static final Logger log = LoggerFactory.getLogger(BookImportServiceImpl.class);
+
+  // Multiple de hibernate.jdbc.batch_size et de l'allocationSize des séquences
+  static final int CHUNK_SIZE = 500;
+  static final int MAX_REPORTED_ERRORS = 100;
+  static final List<String> CSV_HEADER = List.of("title", "isbn", "publicationDate", "pages", "genre", "authorId");
+
+  private final BookRepository bookRepository;
+  private final AuthorRepository authorRepository;
+  private final CatalogSearch catalogSearch;
+  private final CatalogCacheInvalidator cacheInvalidator;
+  private final ExistingKeysFilter existingKeys;
+  private final BookEventOutbox bookEvents;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+
+  public BookImportServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository,
+      CatalogSearch catalogSearch, CatalogCacheInvalidator cacheInvalidator, ExistingKeysFilter existingKeys,
+      BookEventOutbox bookEvents, EntityManager entityManager, PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper, Validator validator) {
+    this.bookRepository = bookRepository;
+    this.authorRepository = authorRepository;
+    this.catalogSearch = catalogSearch;
+    this.cacheInvalidator = cacheInvalidator;
+    this.existingKeys = existingKeys;
+    this.bookEvents = bookEvents;
+    this.entityManager = entityManager;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+  }
+
+  @Override
+  public BulkImportResultDTO importBooks(InputStream input, Format format) {
+    long start = System.nanoTime();
+    ImportReport report = new ImportReport();
+    List<NumberedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+        if (format == Format.CSV && lineNumber == 1) {
+          checkCsvHeader(line);
+          continue;
+        }
+        report.received++;
+        try {
+          BookImportRow row = format == Format.CSV ? parseCsv(line) : parseNdjson(line);
+          chunk.add(new NumberedRow(lineNumber, row));
+        } catch (IllegalArgumentException e) {
+          report.reject("Ligne " + lineNumber + " : " + e.getMessage());
+        }
+        if (chunk.size() == CHUNK_SIZE) {
+          importChunk(chunk, report);
+          chunk.clear();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Lecture du flux d'import impossible", e);
+    }
+    if (!chunk.isEmpty()) {
+      importChunk(chunk, report);
+    }
+
+    long elapsedNanos = System.nanoTime() - start;
+    double rowsPerSecond = elapsedNanos == 0 ? 0 : report.imported * 1_000_000_000d / elapsedNanos;
+    log.info("Import {} : {} lignes reçues, {} importées, {} rejetées en {} ms", format, report.received,
+        report.imported, report.rejected, elapsedNanos / 1_000_000);
+    return new BulkImportResultDTO(report.received, report.imported, report.rejected, elapsedNanos / 1_000_000,
+        rowsPerSecond, List.copyOf(report.errors));
+  }
+
+  // Une transaction par lot : un lot en échec n'annule pas les lots déjà importés
+  private void importChunk(List<NumberedRow> chunk, ImportReport report) {
+    List<String> rowErrors = new ArrayList<>();
+    try {
+      Integer saved = transactionTemplate.execute(status -> {
+        rowErrors.clear();
+        // Seules les clés que le filtre ne peut écarter sont vérifiées en base
+        Set<Long> isbnKeys = chunk.stream().map(r -> Isbn.toKey(r.row().isbn())).filter(key -> key != Isbn.INVALID)
+            .filter(existingKeys::mightContainIsbn).collect(Collectors.toSet());
+        Set<Long> authorIds = chunk.stream().map(r -> r.row().authorId()).filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Set<Long> takenIsbns = new HashSet<>(
+            isbnKeys.isEmpty() ? Set.of() : bookRepository.findExistingIsbnKeys(isbnKeys));
+        Set<Long> knownAuthors = authorIds.isEmpty() ? Set.of() : authorRepository.findExistingIds(authorIds);
+
+        List<Book> books = new ArrayList<>(chunk.size());
+        for (NumberedRow numbered : chunk) {
+          String error = toBook(numbered.row(), takenIsbns, knownAuthors, books);
+          if (error != null) {
+            rowErrors.add("Ligne " + numbered.lineNumber() + " : " + error);
+          }
+        }
+
+        bookRepository.saveAll(books);
+        // Identifiant et version attribués à la persistance : les événements partent dans le même flush
+        bookEvents.recordAll(books, BookEvent.Type.CREATED);
+        books.forEach(book -> existingKeys.addIsbn(book.getIsbnKey()));
+        // Flush par le dépôt : une violation de contrainte arrive traduite en DataAccessException et ne rejette
+        // que ce lot
+        bookRepository.flush();
+        books.forEach(book -> catalogSearch.indexBook(book.getId(), book.getTitle()));
+        books.stream().map(book -> book.getAuthor().getId()).distinct()
+            .forEach(cacheInvalidator::evictAuthorBooks);
+        cacheInvalidator.booksCreated(books.stream().map(Book::getIsbnKey).toList());
+        entityManager.clear();
+        return books.size();
+      });
+      report.imported += saved;
+      rowErrors.forEach(report::reject);
+    } catch (DataAccessException e) {
+      log.warn("Lot de {} lignes rejeté : {}", chunk.size(), e.getMostSpecificCause().getMessage());
+      chunk.forEach(numbered -> report.reject("Ligne " + numbered.lineNumber() + " : lot rejeté par la base"));
+    }
+  }
+
+  private String toBook(BookImportRow row, Set<Long> takenIsbns, Set<Long> knownAuthors, List<Book> books) {
+    long isbnKey = Isbn.toKey(row.isbn());
+    if (isbnKey == Isbn.INVALID) {
+      return "ISBN invalide : " + row.isbn();
+    }
+    if (row.authorId() == null || !knownAuthors.contains(row.authorId())) {
+      return "Auteur non trouvé avec l'ID : " + row.authorId();
+    }
+    if (!takenIsbns.add(isbnKey)) {
+      return "Un livre avec cet ISBN existe déjà : " + row.isbn();
+    }
+
+    Book book = new Book(row.title(), row.isbn(), row.publicationDate(), row.pages(), row.genre(),
+        authorRepository.getReferenceById(row.authorId()));
+    Set<ConstraintViolation<Book>> violations = validator.validate(book);
+    if (!violations.isEmpty()) {
+      takenIsbns.remove(isbnKey);
+      return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+    }
+    books.add(book);
+    return null;
+  }
+
+  private BookImportRow parseNdjson(String line) {
+    try {
+      return objectMapper.readValue(line, BookImportRow.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("JSON invalide : " + e.getOriginalMessage());
+    }
+  }
+
+  private static BookImportRow parseCsv(String line) {
+    List<String> fields = CsvLineParser.parse(line);
+    if (fields.size() != CSV_HEADER.size()) {
+      throw new IllegalArgumentException(
+          "Nombre de colonnes invalide : " + fields.size() + " au lieu de " + CSV_HEADER.size());
+    }
+    try {
+      return new BookImportRow(
+          emptyToNull(fields.get(0)),
+          emptyToNull(fields.get(1)),
+          fields.get(2).isBlank() ? null : LocalDate.parse(fields.get(2).trim()),
+          fields.get(3).isBlank() ? null : Integer.valueOf(fields.get(3).trim()),
+          emptyToNull(fields.get(4)),
+          fields.get(5).isBlank() ? null : Long.valueOf(fields.get(5).trim()));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Valeur invalide : " + e.getMessage());
+    }
+  }
+
+  private static void checkCsvHeader(String line) {
+    List<String> header = CsvLineParser.parse(line).stream().map(String::trim).toList();
+    if (!header.equals(CSV_HEADER)) {
+      throw new IllegalArgumentException("En-tête CSV attendu : " + String.join(",", CSV_HEADER));
+    }
+  }
+
+  private static String emptyToNull(String value) {
+    return value.isBlank() ? null : value;
+  }
+
+  private record NumberedRow(int lineNumber, BookImportRow row) {
+  }
+
+  private static final class ImportReport {
+    private long received;
+    private long imported;
+    private long rejected;
+    private final List<String> errors = new ArrayList<>();
+
+    private void reject(String error) {
+      rejected++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(error);
+      }
+    }
+  }
+}
@@ -2,32 +2,104 @@ package com.formation.library.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.formation.library.cache.CacheNames;
+import com.formation.library.cache.CatalogCacheInvalidator;
+import com.formation.library.cache.ExistingKeysFilter;
+import com.formation.library.cache.NegativeLookupCache;
+import com.formation.library.dto.BookDTO;
+import com.formation.library.dto.BookWithAuthorDTO;
+import com.formation.library.dto.BulkUpsertResultDTO;
 import com.formation.library.entity.Book;
 import com.formation.library.entity.Book.BookStatus;
+import com.formation.library.entity.BookEvent;
 import com.formation.library.exception.BookAlreadyBorrowedException;
 import com.formation.library.exception.BookNotFoundException;
+import com.formation.library.exception.InvalidBookStateException;
 import com.formation.library.exception.InvalidIsbnException;
+import com.formation.library.jfr.BorrowEvent;
+import com.formation.library.loan.LoanLedger;
+import com.formation.library.metrics.BorrowMetrics;
+import com.formation.library.outbox.BookEventOutbox;
 import com.formation.library.repository.BookRepository;
+import com.formation.library.repository.CatalogUpsert;
+import com.formation.library.repository.CatalogUpsert.UpsertedBook;
+import com.formation.library.search.CatalogSearch;
+import com.formation.library.util.Isbn;
+
+import io.micrometer.core.annotation.Timed;
 
 @Service
+@Timed(value = "library.service", description = "Durée des méthodes des services du catalogue")
 @Transactional(readOnly = true)
 public class BookServiceImpl implements IBookService {
 
   private final BookRepository bookRepository;
+  private final CatalogSearch catalogSearch;
+  private final CatalogCacheInvalidator cacheInvalidator;
+  private final BorrowMetrics borrowMetrics;
+  private final NegativeLookupCache negativeLookupCache;
+  private final ExistingKeysFilter existingKeys;
+  private final CatalogUpsert catalogUpsert;
+  private final IReservationService reservationService;
+  private final LoanLedger loanLedger;
+  private final BookEventOutbox bookEvents;
 
-  public BookServiceImpl(BookRepository bookRepository) {
+  public BookServiceImpl(BookRepository bookRepository, CatalogSearch catalogSearch,
+      CatalogCacheInvalidator cacheInvalidator, BorrowMetrics borrowMetrics,
+      NegativeLookupCache negativeLookupCache, ExistingKeysFilter existingKeys, CatalogUpsert catalogUpsert,
+      IReservationService reservationService, LoanLedger loanLedger, BookEventOutbox bookEvents) {
     this.bookRepository = bookRepository;
+    this.catalogSearch = catalogSearch;
+    this.cacheInvalidator = cacheInvalidator;
+    this.borrowMetrics = borrowMetrics;
+    this.negativeLookupCache = negativeLookupCache;
+    this.existingKeys = existingKeys;
+    this.catalogUpsert = catalogUpsert;
+    this.reservationService = reservationService;
+    this.loanLedger = loanLedger;
+    this.bookEvents = bookEvents;
   }
 
   @Override
   @Transactional(readOnly = false)
   public Book save(Book book) {
     validateBook(book);
-    return bookRepository.save(book);
+    Book savedBook = bookRepository.save(book);
+    bookEvents.record(savedBook, BookEvent.Type.CREATED);
+    existingKeys.addIsbn(savedBook.getIsbnKey());
+    catalogSearch.indexBook(savedBook.getId(), savedBook.getTitle());
+    cacheInvalidator.evictAuthorBooks(authorId(savedBook));
+    cacheInvalidator.bookCreated(savedBook.getIsbn());
+    return savedBook;
+  }
+
+  // Une seule instruction, sans lecture préalable : le statut d'emprunt d'un livre existant est conservé
+  @Override
+  @Transactional(readOnly = false)
+  public Book upsertByIsbn(Book book) {
+    upsert(List.of(book));
+    return book;
+  }
+
+  @Override
+  @Transactional(readOnly = false)
+  public BulkUpsertResultDTO upsertAllByIsbn(List<Book> books) {
+    List<UpsertedBook> rows = upsert(books);
+    return new BulkUpsertResultDTO(books.size(), rows.size(), books.stream().map(Book::getId).toList());
   }
 
   @Override
@@ -36,60 +108,116 @@ public class BookServiceImpl implements IBookService {
         .orElseThrow(() -> new BookNotFoundException(id));
   }
 
+  @Override
+  @Cacheable(CacheNames.BOOKS_BY_ID)
+  public BookWithAuthorDTO findDTOById(Long id) {
+    return bookRepository.findDTOById(id)
+        .orElseThrow(() -> new BookNotFoundException(id));
+  }
+
   @Override
   public Book findByIsbn(String isbn) {
     return bookRepository.findByIsbn(isbn)
         .orElseThrow(() -> new BookNotFoundException(isbn));
   }
 
+  @Override
+  @Cacheable(cacheNames = CacheNames.BOOKS_BY_ISBN, key = "T(com.formation.library.util.Isbn).toKey(#isbn)")
+  public BookWithAuthorDTO findDTOByIsbn(String isbn) {
+    long isbnKey = Isbn.toKey(isbn);
+    if (isbnKey == Isbn.INVALID || negativeLookupCache.isMissingBook(isbnKey)) {
+      throw new BookNotFoundException(isbn);
+    }
+    return bookRepository.findDTOByIsbn(isbn)
+        .orElseThrow(() -> {
+          negativeLookupCache.bookMissing(isbnKey);
+          return new BookNotFoundException(isbn);
+        });
+  }
+
   @Override
   public List<Book> findAll() {
     return bookRepository.findAll();
   }
 
   @Override
-  public List<Book> findByTitle(String title) {
-    return bookRepository.findByTitleContainingIgnoreCase(title);
+  public List<BookDTO> findPage(Long afterId, int limit) {
+    return bookRepository.findDTOPageAfter(afterId, Limit.of(limit));
+  }
+
+  @Override
+  public void exportAll(Consumer<? super BookDTO> consumer) {
+    try (Stream<BookDTO> books = bookRepository.streamAllDTO()) {
+      books.forEach(consumer);
+    }
+  }
+
+  @Override
+  public List<BookDTO> findByTitle(String title) {
+    return bookRepository.findDTOByTitle(title);
+  }
+
+  @Override
+  public List<BookDTO> searchByTitle(String title, int limit, boolean ranked) {
+    List<Long> ids = catalogSearch.searchBooks(title, limit, ranked);
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Long, BookDTO> books = bookRepository.findDTOByIdIn(ids).stream()
+        .collect(Collectors.toMap(BookDTO::id, Function.identity()));
+    return ids.stream().map(books::get).filter(Objects::nonNull).toList();
   }
 
   @Override
-  public List<Book> findByStatus(BookStatus status) {
-    return bookRepository.findByStatus(status);
+  public List<BookDTO> findByStatus(BookStatus status) {
+    return bookRepository.findDTOByStatus(status);
   }
 
   @Override
-  public List<Book> findByGenre(String genre) {
-    return bookRepository.findByGenreIgnoreCase(genre);
+  public List<BookDTO> findByGenre(String genre) {
+    return bookRepository.findDTOByGenre(genre);
   }
 
   @Override
-  public List<Book> findByAuthorId(Long authorId) {
-    return bookRepository.findByAuthorId(authorId);
+  public List<BookDTO> findByAuthorId(Long authorId) {
+    return bookRepository.findDTOByAuthorId(authorId);
   }
 
   @Override
-  public List<Book> findByAuthorName(String authorName) {
-    return bookRepository.findByAuthorNameContaining(authorName);
+  public List<BookDTO> findByAuthorName(String authorName) {
+    return bookRepository.findDTOByAuthorName(authorName);
   }
 
   @Override
-  public List<Book> findByPublicationDateBetween(LocalDate startDate, LocalDate endDate) {
-    return bookRepository.findByPublicationDateBetween(startDate, endDate);
+  public List<BookDTO> findByPublicationDateBetween(LocalDate startDate, LocalDate endDate) {
+    return bookRepository.findDTOByPublicationDateBetween(startDate, endDate);
   }
 
   @Override
   @Transactional(readOnly = false)
   public Book update(Long id, Book book) {
     Book existingBook = findById(id);
+    cacheInvalidator.evictBook(id, existingBook.getIsbn(), authorId(existingBook));
 
     existingBook.setTitle(book.getTitle());
     existingBook.setIsbn(book.getIsbn());
     existingBook.setPublicationDate(book.getPublicationDate());
     existingBook.setPages(book.getPages());
     existingBook.setGenre(book.getGenre());
+    if (book.hasTotalCopies()) {
+      existingBook.setTotalCopies(book.getTotalCopies());
+    }
     existingBook.setAuthor(book.getAuthor());
 
-    return bookRepository.save(existingBook);
+    Book updatedBook = bookRepository.save(existingBook);
+    // Version incrémentée au flush : l'événement porte celle de l'état modifié
+    bookRepository.flush();
+    bookEvents.record(updatedBook, BookEvent.Type.UPDATED);
+    existingKeys.addIsbn(updatedBook.getIsbnKey());
+    catalogSearch.indexBook(updatedBook.getId(), updatedBook.getTitle());
+    cacheInvalidator.evictBook(id, updatedBook.getIsbn(), authorId(updatedBook));
+    cacheInvalidator.bookCreated(updatedBook.getIsbn());
+    return updatedBook;
   }
 
   @Override
@@ -97,27 +225,52 @@ public class BookServiceImpl implements IBookService {
   public void deleteById(Long id) {
     Book book = findById(id);
     bookRepository.delete(book);
+    bookEvents.record(book, BookEvent.Type.DELETED);
+    catalogSearch.removeBook(id);
+    cacheInvalidator.evictBook(id, book.getIsbn(), authorId(book));
   }
 
   @Override
   @Transactional(readOnly = false)
   public Book borrowBook(String isbn) {
-    Book book = findByIsbn(isbn);
-
-    if (!book.isAvailable()) {
+    BorrowEvent event = new BorrowEvent(BorrowMetrics.Operation.BORROW, isbn);
+    if (bookRepository.borrowCopy(isbn) == 0) {
+      if (!bookRepository.existsByIsbn(isbn)) {
+        record(event, BorrowMetrics.Outcome.NOT_FOUND);
+        throw new BookNotFoundException(isbn);
+      }
+      record(event, BorrowMetrics.Outcome.ALREADY_BORROWED);
       throw new BookAlreadyBorrowedException(isbn);
     }
-
-    book.borrow();
-    return bookRepository.save(book);
+    record(event, BorrowMetrics.Outcome.SUCCESS);
+    Book book = findByIsbn(isbn);
+    loanLedger.borrowed(book, null);
+    bookEvents.record(book, BookEvent.Type.BORROWED);
+    return evicted(book);
   }
 
+  // Un lecteur en attente reçoit l'exemplaire rendu dans la même transaction : il est mis de côté (RESERVED)
+  // au lieu de repasser en rayon. Un retour refusé annule aussi la réservation servie
   @Override
   @Transactional(readOnly = false)
   public Book returnBook(String isbn) {
+    BorrowEvent event = new BorrowEvent(BorrowMetrics.Operation.RETURN, isbn);
+    long isbnKey = Isbn.toKey(isbn);
+    boolean reserved = isbnKey != Isbn.INVALID && reservationService.claimNextWaiter(isbnKey);
+    int returned = reserved ? bookRepository.holdReturnedCopy(isbnKey) : bookRepository.returnCopy(isbn);
+    if (returned == 0) {
+      if (!bookRepository.existsByIsbn(isbn)) {
+        record(event, BorrowMetrics.Outcome.NOT_FOUND);
+        throw new BookNotFoundException(isbn);
+      }
+      record(event, BorrowMetrics.Outcome.NOT_BORROWED);
+      throw new InvalidBookStateException("Le livre n'est pas emprunté");
+    }
+    record(event, BorrowMetrics.Outcome.SUCCESS);
     Book book = findByIsbn(isbn);
-    book.returnBook();
-    return bookRepository.save(book);
+    loanLedger.returned(book);
+    bookEvents.record(book, BookEvent.Type.RETURNED);
+    return evicted(book);
   }
 
   @Override
@@ -130,26 +283,82 @@ public class BookServiceImpl implements IBookService {
     return bookRepository.existsByIsbn(isbn);
   }
 
+  private void record(BorrowEvent event, BorrowMetrics.Outcome outcome) {
+    borrowMetrics.record(event.operation(), outcome);
+    event.end(outcome);
+  }
+
+  private Book evicted(Book book) {
+    cacheInvalidator.evictBook(book.getId(), book.getIsbn(), authorId(book));
+    return book;
+  }
+
+  private static Long authorId(Book book) {
+    return book.getAuthor() != null ? book.getAuthor().getId() : null;
+  }
+
+  private List<UpsertedBook> upsert(List<Book> books) {
+    for (Book book : books) {
+      validateFields(book);
+      if (book.getAuthor().getId() == null) {
+        throw new IllegalArgumentException("L'identifiant de l'auteur doit être renseigné");
+      }
+    }
+    List<UpsertedBook> rows;
+    try {
+      rows = catalogUpsert.upsertBooks(books);
+    } catch (DuplicateKeyException e) {
+      throw e;
+    } catch (DataIntegrityViolationException e) {
+      // Seule contrainte non vérifiée en amont : la clé étrangère vers l'auteur
+      throw new IllegalArgumentException("L'auteur référencé n'existe pas");
+    }
+    Map<Long, UpsertedBook> rowsByKey = rows.stream()
+        .collect(Collectors.toMap(UpsertedBook::isbnKey, Function.identity()));
+    for (Book book : books) {
+      UpsertedBook row = rowsByKey.get(book.getIsbnKey());
+      if (row == null) {
+        // Ligne laissée intacte par l'upsert : le lot entier est annulé
+        throw new IllegalArgumentException("Le nombre d'exemplaires du livre " + book.getIsbn()
+            + " ne peut pas être inférieur au nombre d'exemplaires empruntés");
+      }
+      book.setId(row.id());
+      book.setVersion(row.version());
+      existingKeys.addIsbn(row.isbnKey());
+      catalogSearch.indexBook(row.id(), book.getTitle());
+    }
+    // Une clé répétée dans le lot est écrite avec sa dernière valeur : un seul événement par ligne
+    bookEvents.recordUpserted(rows,
+        books.stream().collect(Collectors.toMap(Book::getIsbnKey, Book::getIsbn, (first, last) -> last)));
+    cacheInvalidator.booksUpserted(rows,
+        books.stream().map(BookServiceImpl::authorId).collect(Collectors.toSet()));
+    return rows;
+  }
+
   private void validateBook(Book book) {
+    validateFields(book);
+
+    // Filtre « absent » certain : pas de requête d'existence, la contrainte unique tranche les courses
+    if (existingKeys.mightContainIsbn(Isbn.toKey(book.getIsbn())) && existsByIsbn(book.getIsbn())) {
+      throw new IllegalArgumentException("Un livre avec cet ISBN existe déjà");
+    }
+  }
+
+  private static void validateFields(Book book) {
     if (book.getTitle() == null || book.getTitle().trim().isEmpty()) {
       throw new IllegalArgumentException("Le titre du livre ne peut pas être vide");
     }
 
-    if (book.getIsbn() == null || !isValidIsbn(book.getIsbn())) {
+    if (!Isbn.isValid(book.getIsbn())) {
       throw new InvalidIsbnException(book.getIsbn());
     }
 
-    if (existsByIsbn(book.getIsbn())) {
-      throw new IllegalArgumentException("Un livre avec cet ISBN existe déjà");
-    }
-
     if (book.getAuthor() == null) {
       throw new IllegalArgumentException("L'auteur ne peut pas être null");
     }
-  }
 
-  private boolean isValidIsbn(String isbn) {
-    // Validation simplifiée pour l'exemple
-    return isbn.length() == 10 || isbn.length() == 13;
+    if (book.getTotalCopies() < 1) {
+      throw new IllegalArgumentException("Le nombre d'exemplaires doit être positif");
+    }
   }
 }
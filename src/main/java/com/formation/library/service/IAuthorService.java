@@ -2,24 +2,42 @@ package com.formation.library.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.formation.library.dto.AuthorDTO;
+import com.formation.library.dto.AuthorWithBooksDTO;
+import com.formation.library.dto.BulkUpsertResultDTO;
 import com.formation.library.entity.Author;
 
 public interface IAuthorService {
 
   Author save(Author author);
 
+  Author upsertByEmail(Author author);
+
+  BulkUpsertResultDTO upsertAllByEmail(List<Author> authors);
+
   Author findById(Long id);
 
+  AuthorWithBooksDTO findDTOById(Long id);
+
   Author findByEmail(String email);
 
+  AuthorDTO findDTOByEmail(String email);
+
   List<Author> findAll();
 
-  List<Author> findByName(String name);
+  List<AuthorDTO> findPage(Long afterId, int limit);
+
+  void exportAll(Consumer<? super AuthorDTO> consumer);
+
+  List<AuthorDTO> findByName(String name);
+
+  List<AuthorDTO> searchByName(String name, int limit, boolean ranked);
 
-  List<Author> findByBirthDateBetween(LocalDate startDate, LocalDate endDate);
+  List<AuthorDTO> findByBirthDateBetween(LocalDate startDate, LocalDate endDate);
 
-  List<Author> findByGenre(String genre);
+  List<AuthorDTO> findByGenre(String genre);
 
   Author update(Long id, Author author);
 
@@ -0,0 +1,14 @@
+package com.formation.library.service;
+
+import java.io.InputStream;
+
+import com.formation.library.dto.BulkImportResultDTO;
+
+public interface IBookImportService {
+
+  enum Format {
+    NDJSON, CSV
+  }
+
+  BulkImportResultDTO importBooks(InputStream input, Format format);
+}
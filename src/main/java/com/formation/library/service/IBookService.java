@@ -2,7 +2,11 @@ package com.formation.library.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.formation.library.dto.BookDTO;
+import com.formation.library.dto.BookWithAuthorDTO;
+import com.formation.library.dto.BulkUpsertResultDTO;
 import com.formation.library.entity.Book;
 import com.formation.library.entity.Book.BookStatus;
 
@@ -10,23 +14,37 @@ public interface IBookService {
 
   Book save(Book book);
 
+  Book upsertByIsbn(Book book);
+
+  BulkUpsertResultDTO upsertAllByIsbn(List<Book> books);
+
   Book findById(Long id);
 
+  BookWithAuthorDTO findDTOById(Long id);
+
   Book findByIsbn(String isbn);
 
+  BookWithAuthorDTO findDTOByIsbn(String isbn);
+
   List<Book> findAll();
 
-  List<Book> findByTitle(String title);
+  List<BookDTO> findPage(Long afterId, int limit);
+
+  void exportAll(Consumer<? super BookDTO> consumer);
+
+  List<BookDTO> findByTitle(String title);
+
+  List<BookDTO> searchByTitle(String title, int limit, boolean ranked);
 
-  List<Book> findByStatus(BookStatus status);
+  List<BookDTO> findByStatus(BookStatus status);
 
-  List<Book> findByGenre(String genre);
+  List<BookDTO> findByGenre(String genre);
 
-  List<Book> findByAuthorId(Long authorId);
+  List<BookDTO> findByAuthorId(Long authorId);
 
-  List<Book> findByAuthorName(String authorName);
+  List<BookDTO> findByAuthorName(String authorName);
 
-  List<Book> findByPublicationDateBetween(LocalDate startDate, LocalDate endDate);
+  List<BookDTO> findByPublicationDateBetween(LocalDate startDate, LocalDate endDate);
 
   Book update(Long id, Book book);
 
@@ -0,0 +1,15 @@
+package com.formation.library.service;
+
+import com.formation.library.entity.Book;
+import com.formation.library.entity.Reservation;
+
+public interface IReservationService {
+
+  Reservation reserve(String isbn, String patron);
+
+  // Emprunt de l'exemplaire mis de côté pour le lecteur
+  Book pickUp(String isbn, String patron);
+
+  // Sert le premier lecteur en attente dans la transaction courante ; false si la file est vide
+  boolean claimNextWaiter(long isbnKey);
+}
@@ -0,0 +1,112 @@
+package com.formation.library.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.formation.library.cache.CatalogCacheInvalidator;
+import com.formation.library.cache.QueuedReservation;
+import com.formation.library.cache.ReservationQueues;
+import com.formation.library.entity.Book;
+import com.formation.library.entity.BookEvent;
+import com.formation.library.entity.Reservation;
+import com.formation.library.exception.BookNotFoundException;
+import com.formation.library.exception.InvalidBookStateException;
+import com.formation.library.loan.LoanLedger;
+import com.formation.library.outbox.BookEventOutbox;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.repository.ReservationRepository;
+import com.formation.library.util.TransactionCallbacks;
+
+import io.micrometer.core.annotation.Timed;
+
+@Service
+@Timed(value = "library.service", description = "Durée des méthodes des services du catalogue")
+@Transactional(readOnly = true)
+public class ReservationServiceImpl implements IReservationService {
+
+  private final ReservationRepository reservationRepository;
+  private final BookRepository bookRepository;
+  private final ReservationQueues reservationQueues;
+  private final CatalogCacheInvalidator cacheInvalidator;
+  private final LoanLedger loanLedger;
+  private final BookEventOutbox bookEvents;
+
+  public ReservationServiceImpl(ReservationRepository reservationRepository, BookRepository bookRepository,
+      ReservationQueues reservationQueues, CatalogCacheInvalidator cacheInvalidator, LoanLedger loanLedger,
+      BookEventOutbox bookEvents) {
+    this.reservationRepository = reservationRepository;
+    this.bookRepository = bookRepository;
+    this.reservationQueues = reservationQueues;
+    this.cacheInvalidator = cacheInvalidator;
+    this.loanLedger = loanLedger;
+    this.bookEvents = bookEvents;
+  }
+
+  @Override
+  @Transactional(readOnly = false)
+  public Reservation reserve(String isbn, String patron) {
+    if (patron == null || patron.isBlank()) {
+      throw new IllegalArgumentException("Le lecteur doit être renseigné");
+    }
+    Book book = findBook(isbn);
+    if (book.isAvailable()) {
+      throw new InvalidBookStateException("Le livre est disponible : il peut être emprunté sans réservation");
+    }
+    if (reservationRepository.existsByBookIdAndPatron(book.getId(), patron)) {
+      throw new InvalidBookStateException("Le lecteur a déjà réservé ce livre");
+    }
+
+    // Précision de la colonne : l'entrée ajoutée en mémoire est identique à celle relue depuis la base
+    Reservation reservation = reservationRepository.save(
+        new Reservation(book, patron, Instant.now().truncatedTo(ChronoUnit.MICROS)));
+    long isbnKey = book.getIsbnKey();
+    QueuedReservation queued = new QueuedReservation(reservation.getId(), reservation.getReservedAt(), patron);
+    TransactionCallbacks.afterCommit(() -> reservationQueues.add(isbnKey, queued));
+    return reservation;
+  }
+
+  @Override
+  @Transactional(readOnly = false)
+  public Book pickUp(String isbn, String patron) {
+    Book book = findBook(isbn);
+    if (reservationRepository.deleteReady(book.getId(), patron) == 0) {
+      throw new InvalidBookStateException("Aucun exemplaire n'est réservé pour ce lecteur");
+    }
+    if (bookRepository.pickUpHeldCopy(book.getIsbnKey()) == 0) {
+      // Réservation prête sans exemplaire mis de côté : la suppression est annulée avec la transaction
+      throw new InvalidBookStateException("Aucun exemplaire n'est réservé");
+    }
+    Book borrowedBook = findBook(isbn);
+    loanLedger.borrowed(borrowedBook, patron);
+    bookEvents.record(borrowedBook, BookEvent.Type.BORROWED);
+    cacheInvalidator.evictBook(borrowedBook.getId(), borrowedBook.getIsbn(),
+        borrowedBook.getAuthor() != null ? borrowedBook.getAuthor().getId() : null);
+    return borrowedBook;
+  }
+
+  // Les deux retours concurrents d'un même titre lisent la même tête : l'UPDATE conditionnel départage et
+  // le perdant relit la file. Un refus signale aussi une file périmée (réservation plus ancienne prise sur un
+  // autre nœud) : la file est rechargée depuis la base. Le retrait de la tête servie n'a lieu qu'après commit
+  @Override
+  @Transactional(readOnly = false)
+  public boolean claimNextWaiter(long isbnKey) {
+    for (QueuedReservation head = reservationQueues.head(isbnKey); head != null;
+        head = reservationQueues.head(isbnKey)) {
+      QueuedReservation claimed = head;
+      if (reservationRepository.markReady(claimed.id()) == 1) {
+        TransactionCallbacks.afterCommit(() -> reservationQueues.remove(isbnKey, claimed));
+        return true;
+      }
+      reservationQueues.invalidate(isbnKey);
+    }
+    return false;
+  }
+
+  private Book findBook(String isbn) {
+    return bookRepository.findByIsbn(isbn)
+        .orElseThrow(() -> new BookNotFoundException(isbn));
+  }
+}
@@ -0,0 +1,81 @@
+package com.formation.library.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom sur des empreintes 64 bits, sans verrou (bits dans un AtomicLongArray, ajout par CAS).
+ * mightContain ne donne jamais de faux négatif ; le taux de faux positifs reste proche de celui demandé
+ * tant que le nombre d'éléments ne dépasse pas la capacité prévue. Pas de suppression.
+ */
+public final class BloomFilter {
+
+  private final AtomicLongArray words;
+  private final long bitCount;
+  private final int hashCount;
+
+  public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("Capacité ou taux de faux positifs invalide");
+    }
+    double ln2 = Math.log(2);
+    long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+    int wordCount = Math.toIntExact((bits + 63) / 64);
+    this.words = new AtomicLongArray(wordCount);
+    this.bitCount = (long) wordCount * 64;
+    this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+  }
+
+  public void put(long hash) {
+    long h1 = mix(hash);
+    long h2 = mix(h1) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+      int index = (int) (bit >>> 6);
+      long mask = 1L << bit;
+      long word = words.get(index);
+      while ((word & mask) == 0 && !words.weakCompareAndSetVolatile(index, word, word | mask)) {
+        word = words.get(index);
+      }
+    }
+  }
+
+  public boolean mightContain(long hash) {
+    long h1 = mix(hash);
+    long h2 = mix(h1) | 1;
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+      if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public long bitCount() {
+    return bitCount;
+  }
+
+  public int hashCount() {
+    return hashCount;
+  }
+
+  // Empreinte 64 bits d'une chaîne (FNV-1a), String.hashCode n'en donnant que 32
+  public static long hash(CharSequence value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  // Finaliseur de MurmurHash3 : répartit les clés proches (ISBN consécutifs) sur tout le tableau
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
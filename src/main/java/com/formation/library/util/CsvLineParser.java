@@ -0,0 +1,43 @@
+package com.formation.library.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CsvLineParser {
+
+  private CsvLineParser() {
+  }
+
+  // RFC 4180 sur une seule ligne : champs entre guillemets, "" pour un guillemet littéral
+  public static List<String> parse(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          field.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Guillemet non fermé");
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+}
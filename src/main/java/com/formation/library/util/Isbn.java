@@ -0,0 +1,127 @@
+package com.formation.library.util;
+
+// Analyse ISBN en une passe, sans allocation : contrôle de la clé, normalisation ISBN-10 -> ISBN-13
+// et clé canonique sur 64 bits (l'ISBN-13 lui-même), identique pour toutes les écritures d'un même livre
+public final class Isbn {
+
+  public static final long INVALID = -1L;
+
+  private static final long PREFIX_978 = 978_000_000_000L;
+
+  private Isbn() {
+  }
+
+  // Accepte "ISBN", "ISBN-10:" ou "ISBN-13:" en préfixe et un tiret ou une espace entre deux chiffres
+  public static long toKey(CharSequence isbn) {
+    if (isbn == null) {
+      return INVALID;
+    }
+    int length = isbn.length();
+    int i = skipPrefix(isbn, length);
+
+    long value = 0;
+    int digits = 0;
+    int sum10 = 0;
+    int sum13 = 0;
+    boolean checkX = false;
+    boolean separator = false;
+    for (; i < length; i++) {
+      char c = isbn.charAt(i);
+      if (c >= '0' && c <= '9') {
+        if (checkX || digits == 13) {
+          return INVALID;
+        }
+        int d = c - '0';
+        sum10 += d * (10 - digits);
+        sum13 += (digits & 1) == 0 ? d : 3 * d;
+        value = value * 10 + d;
+        digits++;
+        separator = false;
+      } else if (c == 'X' || c == 'x') {
+        if (digits != 9) {
+          return INVALID;
+        }
+        sum10 += 10;
+        checkX = true;
+        digits++;
+        separator = false;
+      } else if (c == '-' || c == ' ') {
+        if (digits == 0 || separator) {
+          return INVALID;
+        }
+        separator = true;
+      } else {
+        return INVALID;
+      }
+    }
+    if (separator) {
+      return INVALID;
+    }
+
+    if (digits == 10) {
+      if (sum10 % 11 != 0) {
+        return INVALID;
+      }
+      long first9 = checkX ? value : value / 10;
+      return withCheckDigit(PREFIX_978 + first9);
+    }
+    if (digits == 13) {
+      long prefix = value / 10_000_000_000L;
+      return (prefix == 978 || prefix == 979) && sum13 % 10 == 0 ? value : INVALID;
+    }
+    return INVALID;
+  }
+
+  public static boolean isValid(CharSequence isbn) {
+    return toKey(isbn) != INVALID;
+  }
+
+  // Forme canonique : les 13 chiffres sans séparateur
+  public static String format(long key) {
+    if (key < 978_000_000_000_0L || key > 979_999_999_999_9L) {
+      throw new IllegalArgumentException("Clé ISBN invalide : " + key);
+    }
+    return Long.toString(key);
+  }
+
+  // Complète les 12 premiers chiffres d'un ISBN-13 avec sa clé de contrôle
+  public static long withCheckDigit(long first12) {
+    int sum = 0;
+    long rest = first12;
+    for (int position = 11; position >= 0; position--) {
+      int d = (int) (rest % 10);
+      sum += (position & 1) == 0 ? d : 3 * d;
+      rest /= 10;
+    }
+    return first12 * 10 + (10 - sum % 10) % 10;
+  }
+
+  private static int skipPrefix(CharSequence isbn, int length) {
+    if (!regionMatches(isbn, 0, "ISBN")) {
+      return 0;
+    }
+    int i = 4;
+    if (regionMatches(isbn, i, "-10") || regionMatches(isbn, i, "-13")) {
+      i += 3;
+    }
+    if (i < length && isbn.charAt(i) == ':') {
+      i++;
+    }
+    while (i < length && isbn.charAt(i) == ' ') {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean regionMatches(CharSequence isbn, int offset, String expected) {
+    if (isbn.length() - offset < expected.length()) {
+      return false;
+    }
+    for (int i = 0; i < expected.length(); i++) {
+      if (isbn.charAt(offset + i) != expected.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
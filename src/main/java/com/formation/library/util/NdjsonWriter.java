@@ -0,0 +1,39 @@
+package com.formation.library.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Écrit un objet JSON par ligne avec le générateur en flux de Jackson (tampon de taille fixe)
+public final class NdjsonWriter implements Consumer<Object>, Closeable {
+
+  private final JsonGenerator generator;
+
+  public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+    this.generator = objectMapper.getFactory().createGenerator(out);
+  }
+
+  @Override
+  public void accept(Object value) {
+    try {
+      generator.writeObject(value);
+      generator.writeRaw('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public void flush() throws IOException {
+    generator.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    generator.close();
+  }
+}
@@ -0,0 +1,46 @@
+package com.formation.library.util;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+
+// Nombre de lignes d'un résultat de dépôt Spring Data, pour l'instrumentation (JFR, journal SQL)
+public final class RepositoryResults {
+
+  public static final long UNKNOWN_ROWS = -1;
+
+  private RepositoryResults() {
+  }
+
+  // Éléments renvoyés, ou lignes modifiées pour une requête @Modifying
+  public static long rows(Object result, Method method) {
+    if (result == null) {
+      return 0;
+    }
+    if (result instanceof Number affected && method.isAnnotationPresent(Modifying.class)) {
+      return affected.longValue();
+    }
+    if (result instanceof Optional<?> optional) {
+      return optional.isPresent() ? 1 : 0;
+    }
+    if (result instanceof Collection<?> collection) {
+      return collection.size();
+    }
+    if (result instanceof Slice<?> slice) {
+      return slice.getNumberOfElements();
+    }
+    if (result instanceof Map<?, ?> map) {
+      return map.size();
+    }
+    if (result instanceof Iterable<?> || result instanceof BaseStream<?, ?>) {
+      // Parcours paresseux : le compter consommerait le résultat
+      return UNKNOWN_ROWS;
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,14 @@
+package com.formation.library.validation;
+
+import com.formation.library.util.Isbn;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class IsbnValidator implements ConstraintValidator<ValidIsbn, CharSequence> {
+
+  @Override
+  public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+    return value == null || Isbn.isValid(value);
+  }
+}
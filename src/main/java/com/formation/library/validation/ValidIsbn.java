@@ -0,0 +1,24 @@
+package com.formation.library.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+// ISBN-10 ou ISBN-13 avec clé de contrôle valide ; null est accepté (voir @NotNull)
+@Documented
+@Constraint(validatedBy = IsbnValidator.class)
+@Target({ ElementType.FIELD, ElementType.PARAMETER })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidIsbn {
+
+  String message() default "Format ISBN invalide";
+
+  Class<?>[] groups() default {};
+
+  Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,33 @@
+-- Exécuté après la génération du schéma par Hibernate (spring.jpa.defer-datasource-initialization)
+
+-- Journal des prêts : ajout seul, hors JPA (partitionné par mois sous PostgreSQL)
+CREATE TABLE IF NOT EXISTS loans (
+  id bigint NOT NULL,
+  book_id bigint NOT NULL,
+  isbn_key bigint,
+  type varchar(16) NOT NULL,
+  patron varchar(100),
+  occurred_at timestamp(6) with time zone NOT NULL,
+  due_at timestamp(6) with time zone,
+  loan_id bigint,
+  PRIMARY KEY (id, occurred_at)
+);
+CREATE INDEX IF NOT EXISTS idx_loans_book ON loans (book_id, occurred_at);
+-- Échéances : fenêtre de la roue des retards
+CREATE INDEX IF NOT EXISTS idx_loans_due ON loans (type, due_at);
+-- Emprunts signalés en retard, écrits dans la transaction du signalement : la clé primaire garantit un seul
+-- OVERDUE par emprunt, y compris quand plusieurs nœuds signalent en même temps
+CREATE TABLE IF NOT EXISTS loan_overdue (
+  loan_id bigint PRIMARY KEY,
+  book_id bigint NOT NULL,
+  due_at timestamp(6) with time zone NOT NULL,
+  flagged_at timestamp(6) with time zone NOT NULL
+);
+-- Point de reprise de la détection des retards, commun aux nœuds : toutes les échéances jusqu'à scanned_until
+-- ont été examinées. Le verrou de la ligne sérialise les signalements
+CREATE TABLE IF NOT EXISTS loan_overdue_scan (
+  id int PRIMARY KEY,
+  scanned_until timestamp(6) with time zone
+);
+INSERT INTO loan_overdue_scan (id) SELECT v.id FROM (VALUES (1)) AS v (id)
+WHERE NOT EXISTS (SELECT 1 FROM loan_overdue_scan);
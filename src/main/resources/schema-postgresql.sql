@@ -0,0 +1,58 @@
+-- Exécuté après la génération du schéma par Hibernate (spring.jpa.defer-datasource-initialization)
+
+-- Recherche par sous-chaîne : index trigramme GIN pour les LIKE/ILIKE '%...%'
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_books_title_trgm ON books USING gin (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_authors_name_trgm ON authors USING gin (name gin_trgm_ops);
+
+-- Identifiants par séquence (allocationSize = 50) pour permettre le batch JDBC des INSERT :
+-- on replace les séquences au-delà des identifiants déjà attribués par les anciennes colonnes IDENTITY
+SELECT setval('books_seq', GREATEST((SELECT last_value FROM books_seq), (SELECT COALESCE(MAX(id), 0) FROM books) + 50));
+SELECT setval('authors_seq', GREATEST((SELECT last_value FROM authors_seq), (SELECT COALESCE(MAX(id), 0) FROM authors) + 50));
+
+-- Verrou optimiste : lignes antérieures à l'ajout de la colonne version
+UPDATE books SET version = 0 WHERE version IS NULL;
+
+-- Exemplaires : les titres empruntés avant l'ajout des compteurs n'ont plus d'exemplaire disponible
+UPDATE books SET available_copies = 0 WHERE status = 'BORROWED' AND available_copies = total_copies;
+
+-- Retards : ddl-auto update ne régénère pas la contrainte CHECK créée par Hibernate pour l'énumération
+-- LoanEvent.Type avant l'ajout de OVERDUE
+ALTER TABLE loan_outbox DROP CONSTRAINT IF EXISTS loan_outbox_type_check;
+ALTER TABLE loan_outbox ADD CONSTRAINT loan_outbox_type_check CHECK (type IN ('BORROWED', 'RETURNED', 'OVERDUE'));
+
+-- Journal des prêts : ajout seul, partitionné par mois (partitions mensuelles créées par l'application,
+-- loans_default ne reçoit que les lignes d'un mois sans partition)
+CREATE TABLE IF NOT EXISTS loans (
+  id bigint NOT NULL,
+  book_id bigint NOT NULL,
+  isbn_key bigint,
+  type varchar(16) NOT NULL,
+  patron varchar(100),
+  occurred_at timestamp(6) with time zone NOT NULL,
+  due_at timestamp(6) with time zone,
+  loan_id bigint,
+  PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+CREATE TABLE IF NOT EXISTS loans_default PARTITION OF loans DEFAULT;
+CREATE INDEX IF NOT EXISTS idx_loans_book ON loans (book_id, occurred_at);
+-- Échéances : fenêtre de la roue des retards
+CREATE INDEX IF NOT EXISTS idx_loans_due ON loans (type, due_at);
+-- Retards : emprunt signalé (identifiant de son événement BORROWED), colonne ajoutée après la création du journal
+ALTER TABLE loans ADD COLUMN IF NOT EXISTS loan_id bigint;
+-- Emprunts signalés en retard, écrits dans la transaction du signalement : la clé primaire garantit un seul
+-- OVERDUE par emprunt, y compris quand plusieurs nœuds signalent en même temps
+CREATE TABLE IF NOT EXISTS loan_overdue (
+  loan_id bigint PRIMARY KEY,
+  book_id bigint NOT NULL,
+  due_at timestamp(6) with time zone NOT NULL,
+  flagged_at timestamp(6) with time zone NOT NULL
+);
+-- Point de reprise de la détection des retards, commun aux nœuds : toutes les échéances jusqu'à scanned_until
+-- ont été examinées. Le verrou de la ligne sérialise les signalements
+CREATE TABLE IF NOT EXISTS loan_overdue_scan (
+  id int PRIMARY KEY,
+  scanned_until timestamp(6) with time zone
+);
+INSERT INTO loan_overdue_scan (id) SELECT v.id FROM (VALUES (1)) AS v (id)
+WHERE NOT EXISTS (SELECT 1 FROM loan_overdue_scan);
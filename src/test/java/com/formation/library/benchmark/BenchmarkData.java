@@ -0,0 +1,53 @@
+package com.formation.library.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.util.Isbn;
+
+// Jeux de données déterministes partagés par les benchmarks (entités détachées, identifiants renseignés)
+final class BenchmarkData {
+
+  static final int BOOKS_PER_AUTHOR = 3;
+
+  private BenchmarkData() {
+  }
+
+  static List<Book> books(int count) {
+    Author author = author(1);
+    List<Book> books = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      books.add(book(i, author));
+    }
+    return books;
+  }
+
+  static List<Author> authorsWithBooks(int count) {
+    List<Author> authors = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Author author = author(i);
+      for (int j = 0; j < BOOKS_PER_AUTHOR; j++) {
+        author.addBook(book(i * BOOKS_PER_AUTHOR + j, author));
+      }
+      authors.add(author);
+    }
+    return authors;
+  }
+
+  static Author author(long id) {
+    Author author = new Author("Auteur " + id, "auteur" + id + "@example.com", LocalDate.of(1840, 4, 2),
+        "Romancier et journaliste, auteur de la série des Rougon-Macquart");
+    author.setId(id);
+    return author;
+  }
+
+  static Book book(long id, Author author) {
+    Book book = new Book("Livre " + id, Isbn.format(Isbn.withCheckDigit(978_000_000_000L + id)),
+        LocalDate.of(1885, 3, 1), 592, "Roman", author);
+    book.setId(id);
+    return book;
+  }
+}
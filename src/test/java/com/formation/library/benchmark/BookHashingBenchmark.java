@@ -0,0 +1,78 @@
+package com.formation.library.benchmark;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.formation.library.entity.Book;
+
+/**
+ * Book.equals/hashCode dans les collections hachées. hashCode renvoie le hash de la classe :
+ * tous les livres tombent dans le même compartiment et Book n'étant pas Comparable, chaque accès
+ * parcourt le compartiment (O(n)). La variante indexée par id sert de référence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookHashingBenchmark {
+
+  // Au-delà de 10 000, le remplissage quadratique du HashSet dépasse la durée d'une itération
+  @Param({ "10", "1000", "10000" })
+  public int size;
+
+  private List<Book> books;
+  private Set<Book> bookSet;
+  private Map<Long, Book> booksById;
+  private Book probe;
+
+  @Setup
+  public void setUp() {
+    books = BenchmarkData.books(size);
+    bookSet = new HashSet<>(books);
+    booksById = new HashMap<>();
+    books.forEach(book -> booksById.put(book.getId(), book));
+    probe = books.get(size - 1);
+  }
+
+  @Benchmark
+  public Set<Book> fillHashSet() {
+    return new HashSet<>(books);
+  }
+
+  @Benchmark
+  public Map<Long, Book> fillMapById() {
+    Map<Long, Book> map = new HashMap<>();
+    for (Book book : books) {
+      map.put(book.getId(), book);
+    }
+    return map;
+  }
+
+  @Benchmark
+  public boolean containsInHashSet() {
+    return bookSet.contains(probe);
+  }
+
+  @Benchmark
+  public boolean containsInMapById() {
+    return booksById.containsKey(probe.getId());
+  }
+}
@@ -0,0 +1,58 @@
+package com.formation.library.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.formation.library.dto.AuthorWithBooksDTO;
+import com.formation.library.dto.BookDTO;
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.mapper.DTOMapper;
+
+/**
+ * Coût de conversion entités -> DTO des listes renvoyées par les contrôleurs.
+ * Chaque auteur porte BenchmarkData.BOOKS_PER_AUTHOR livres.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DTOMapperBenchmark {
+
+  @Param({ "10", "1000", "100000" })
+  public int size;
+
+  private final DTOMapper mapper = new DTOMapper();
+  private List<Book> books;
+  private List<Author> authors;
+
+  @Setup
+  public void setUp() {
+    books = BenchmarkData.books(size);
+    authors = BenchmarkData.authorsWithBooks(size);
+  }
+
+  @Benchmark
+  public List<BookDTO> toBookDTOList() {
+    return mapper.toBookDTOList(books);
+  }
+
+  @Benchmark
+  public List<AuthorWithBooksDTO> toAuthorWithBooksDTOList() {
+    return mapper.toAuthorWithBooksDTOList(authors);
+  }
+}
@@ -0,0 +1,48 @@
+package com.formation.library.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.formation.library.util.Isbn;
+
+/**
+ * Compare l'ancienne contrainte @Pattern de Book.isbn (expression régulière avec lookaheads,
+ * sans contrôle de la clé) à l'analyseur Isbn (clé de contrôle et normalisation en une passe).
+ * Lancement : mvn -Pbenchmarks -DskipTests verify -Djmh.include=IsbnValidationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsbnValidationBenchmark {
+
+  // Copie de la contrainte retirée de Book
+  private static final Pattern LEGACY_PATTERN = Pattern.compile(
+      "^(?:ISBN(?:-1[03])?:? )?(?=[0-9X]{10}$|(?=(?:\\d+[- ]){3})[- 0-9X]{13}$|97[89]\\d{10}$|(?=(?:\\d+[- ]){4})[- 0-9]{17}$)(?:97[89][- ]?)?\\d{1,5}[- ]?\\d+[- ]?\\d+[- ]?[0-9X]$");
+
+  @Param({ "9782070360024", "978-2-07-036002-4", "2-07-036002-4", "ISBN-13: 978-2-07-036002-4", "97820703600" })
+  public String isbn;
+
+  @Benchmark
+  public boolean legacyRegex() {
+    return LEGACY_PATTERN.matcher(isbn).matches();
+  }
+
+  @Benchmark
+  public long isbnKey() {
+    return Isbn.toKey(isbn);
+  }
+}
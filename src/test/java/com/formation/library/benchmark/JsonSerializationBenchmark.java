@@ -0,0 +1,74 @@
+package com.formation.library.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.formation.library.dto.BookDTO;
+import com.formation.library.dto.BookWithAuthorDTO;
+import com.formation.library.mapper.DTOMapper;
+
+/**
+ * Sérialisation Jackson des DTO de livres, avec un ObjectMapper configuré comme celui de Spring MVC
+ * (module java.time, dates ISO). Les variantes "writer" réutilisent un ObjectWriter typé.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+  private static final int PAGE_SIZE = 50;
+
+  private ObjectMapper objectMapper;
+  private ObjectWriter bookWriter;
+  private BookDTO book;
+  private BookWithAuthorDTO bookWithAuthor;
+  private List<BookDTO> page;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    bookWriter = objectMapper.writerFor(BookDTO.class);
+    DTOMapper mapper = new DTOMapper();
+    book = mapper.toBookDTO(BenchmarkData.book(1, BenchmarkData.author(1)));
+    bookWithAuthor = mapper.toBookWithAuthorDTO(BenchmarkData.book(1, BenchmarkData.author(1)));
+    page = mapper.toBookDTOList(BenchmarkData.books(PAGE_SIZE));
+  }
+
+  @Benchmark
+  public byte[] bookDTO() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(book);
+  }
+
+  @Benchmark
+  public byte[] bookDTOWriter() throws JsonProcessingException {
+    return bookWriter.writeValueAsBytes(book);
+  }
+
+  @Benchmark
+  public byte[] bookWithAuthorDTO() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(bookWithAuthor);
+  }
+
+  @Benchmark
+  public byte[] bookDTOPage() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(page);
+  }
+}
@@ -0,0 +1,107 @@
+package com.formation.library.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.formation.library.cache.QueuedReservation;
+import com.formation.library.cache.ReservationQueues;
+import com.formation.library.repository.ReservationRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Retour d'un titre très demandé : le premier lecteur est servi puis un nouveau lecteur rejoint la file
+ * (longueur constante). Compare les files triées de ReservationQueues à une liste non triée parcourue
+ * à chaque retour, équivalent d'une lecture de la file sans index.
+ * Lancement : mvn -Pbenchmarks -DskipTests verify -Djmh.include=ReservationQueueBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationQueueBenchmark {
+
+  private static final int HOT_TITLES = 16;
+  private static final Instant EPOCH = Instant.parse("2026-01-01T00:00:00Z");
+
+  @Param({ "100", "10000" })
+  public int waiters;
+
+  private ReservationQueues queues;
+  private List<List<QueuedReservation>> unsortedQueues;
+  private long nextId;
+  private int title;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    ReservationRepository repository = mock(ReservationRepository.class);
+    when(repository.findWaitingByIsbnKey(anyLong())).thenAnswer(invocation -> {
+      List<QueuedReservation> queue = new ArrayList<>(waiters);
+      for (int i = 0; i < waiters; i++) {
+        queue.add(next());
+      }
+      return queue;
+    });
+    queues = new ReservationQueues(repository, "maximumSize=1000", new SimpleMeterRegistry());
+    unsortedQueues = new ArrayList<>(HOT_TITLES);
+    for (int t = 0; t < HOT_TITLES; t++) {
+      queues.head(t);
+      unsortedQueues.add(new ArrayList<>(repository.findWaitingByIsbnKey(t)));
+    }
+  }
+
+  @Benchmark
+  public QueuedReservation sortedQueues() {
+    long isbnKey = nextTitle();
+    QueuedReservation head = queues.head(isbnKey);
+    queues.remove(isbnKey, head);
+    queues.add(isbnKey, next());
+    return head;
+  }
+
+  @Benchmark
+  public QueuedReservation linearScan() {
+    List<QueuedReservation> queue = unsortedQueues.get(nextTitle());
+    int first = 0;
+    for (int i = 1; i < queue.size(); i++) {
+      if (queue.get(i).compareTo(queue.get(first)) < 0) {
+        first = i;
+      }
+    }
+    QueuedReservation head = queue.get(first);
+    queue.set(first, queue.get(queue.size() - 1));
+    queue.set(queue.size() - 1, next());
+    return head;
+  }
+
+  private int nextTitle() {
+    title = (title + 1) % HOT_TITLES;
+    return title;
+  }
+
+  private QueuedReservation next() {
+    long id = nextId++;
+    return new QueuedReservation(id, EPOCH.plusNanos(id * 1_000), "lecteur-" + id);
+  }
+}
@@ -10,7 +10,9 @@ import static org.hamcrest.Matchers.hasSize;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -26,13 +28,17 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.util.MultiValueMap;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.formation.library.dto.AuthorDTO;
+import com.formation.library.dto.CursorPageDTO;
 import com.formation.library.entity.Author;
 import com.formation.library.exception.AuthorNotFoundException;
 import com.formation.library.mapper.DTOMapper;
@@ -117,6 +123,22 @@ public class AuthorControllerTest {
         verifyNoInteractions(authorService);
     }
 
+    @Test
+    void shouldRejectBulkUpsertWithInvalidAuthor() throws Exception {
+        Author invalidAuthor = new Author(null, "emile.zola@example.com");
+
+        mockMvc.perform(
+                put("/api/authors/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(author1, invalidAuthor))))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation Failed"))
+                .andExpect(jsonPath("$.errors['upsertAuthors.authors[1].name']").value("Le nom doit être renseigné"));
+
+        verifyNoInteractions(authorService);
+    }
+
     @Test
     void shouldGetAuthorID() throws Exception {
 
@@ -128,8 +150,7 @@ public class AuthorControllerTest {
                 author1.getBiography(),
                 List.of());
 
-        when(authorService.findById(1L)).thenReturn(author1);
-        when(dtoMapper.toAuthorWithBooksDTO(author1)).thenReturn(dto);
+        when(authorService.findDTOById(1L)).thenReturn(dto);
 
         mockMvc.perform(
                 get("/api/authors/1")
@@ -141,13 +162,13 @@ public class AuthorControllerTest {
                 .andExpect(jsonPath("$.email").value("victor.hugo@example.com"))
                 .andExpect(jsonPath("$.birthDate").value("1802-02-26"));
 
-        verify(authorService).findById(1L);
+        verify(authorService).findDTOById(1L);
     }
 
     @Test
     void shouldReturn404ForNonExistingAuthor() throws Exception {
 
-        when(authorService.findById(999L)).thenThrow(new AuthorNotFoundException(999L));
+        when(authorService.findDTOById(999L)).thenThrow(new AuthorNotFoundException(999L));
 
         mockMvc.perform(
                 get("/api/authors/999")
@@ -157,37 +178,86 @@ public class AuthorControllerTest {
                 .andExpect(jsonPath("$.status").value("404"))
                 .andExpect(jsonPath("$.message").value("Auteur non trouvé avec l'ID: 999"));
 
-        verify(authorService).findById(999L);
+        verify(authorService).findDTOById(999L);
     }
 
     @Test
-    void shouldGetAllAuthors() throws Exception {
-        List<Author> authors = List.of(author1, author2);
-        List<AuthorDTO> authorsDTO = List.of(author1DTO, author2DTO);
+    void shouldReturn503WhenNoDatabaseConnectionIsAvailable() throws Exception {
 
-        when(authorService.findAll()).thenReturn(authors);
-        when(dtoMapper.toAuthorDTOList(authors)).thenReturn(authorsDTO);
+        when(authorService.findDTOById(1L)).thenThrow(new CannotCreateTransactionException("Connection is not available"));
 
         mockMvc.perform(
-                get("/api/authors")
+                get("/api/authors/1")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andDo(print())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void shouldReturn409WhenEmailIsTakenConcurrently() throws Exception {
+
+        when(authorService.save(any(Author.class))).thenThrow(new DuplicateKeyException("authors_email_key"));
+
+        mockMvc.perform(
+                post("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(author1)))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("409"));
+    }
+
+    @Test
+    void shouldGetFirstPageOfAuthors() throws Exception {
+        List<AuthorDTO> authors = List.of(author1DTO, author2DTO);
+        CursorPageDTO<AuthorDTO> page = new CursorPageDTO<>(List.of(author1DTO, author2DTO), 2L);
+
+        when(authorService.findPage(0L, 2)).thenReturn(authors);
+        when(dtoMapper.toAuthorDTOPage(authors, 2)).thenReturn(page);
+
+        mockMvc.perform(
+                get("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("limit", "2"))
+                .andDo(print())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].name").value("Victor Hugo"))
-                .andExpect(jsonPath("$[1].name").value("Émile Zola"));
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].name").value("Victor Hugo"))
+                .andExpect(jsonPath("$.items[1].name").value("Émile Zola"))
+                .andExpect(jsonPath("$.nextCursor").value(2));
 
-        verify(authorService).findAll();
+        verify(authorService).findPage(0L, 2);
         verifyNoMoreInteractions(authorService);
     }
 
+    @Test
+    void shouldGetNextPageOfAuthorsAfterCursor() throws Exception {
+        List<AuthorDTO> authors = List.of(author2DTO);
+        CursorPageDTO<AuthorDTO> page = new CursorPageDTO<>(List.of(author2DTO), null);
+
+        when(authorService.findPage(1L, 500)).thenReturn(authors);
+        when(dtoMapper.toAuthorDTOPage(authors, 500)).thenReturn(page);
+
+        mockMvc.perform(
+                get("/api/authors")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("after", "1")
+                        .param("limit", "10000"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].name").value("Émile Zola"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(authorService).findPage(1L, 500);
+    }
+
     @Test
     void shouldSearchAuthors() throws Exception {
-        List<Author> authors = List.of(author1);
         List<AuthorDTO> authorsDTO = List.of(author1DTO);
 
-        when(authorService.findByName("Victor")).thenReturn(authors);
-        when(dtoMapper.toAuthorDTOList(authors)).thenReturn(authorsDTO);
+        when(authorService.searchByName("Victor", 50, false)).thenReturn(authorsDTO);
 
         mockMvc.perform(
                 get("/api/authors/search")
@@ -198,6 +268,6 @@ public class AuthorControllerTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].name").value("Victor Hugo"));
 
-        verify(authorService).findByName("Victor");
+        verify(authorService).searchByName("Victor", 50, false);
     }
 }
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import java.time.LocalDate;
 
+import com.formation.library.exception.InvalidBookStateException;
+
 import static org.assertj.core.api.Assertions.*;
 
 class BookTest {
@@ -57,7 +59,7 @@ class BookTest {
     book.setStatus(Book.BookStatus.BORROWED);
 
     assertThatThrownBy(() -> book.borrow())
-        .isInstanceOf(IllegalStateException.class)
+        .isInstanceOf(InvalidBookStateException.class)
         .hasMessage("Le livre n'est pas disponible pour l'emprunt");
   }
 
@@ -74,7 +76,7 @@ class BookTest {
   @Test
   void shouldNotReturnNonBorrowedBook() {
     assertThatThrownBy(() -> book.returnBook())
-        .isInstanceOf(IllegalStateException.class)
+        .isInstanceOf(InvalidBookStateException.class)
         .hasMessage("Le livre n'est pas emprunté");
   }
 
@@ -83,7 +85,69 @@ class BookTest {
     book.setStatus(Book.BookStatus.RESERVED);
 
     assertThatThrownBy(() -> book.returnBook())
-        .isInstanceOf(IllegalStateException.class)
+        .isInstanceOf(InvalidBookStateException.class)
+        .hasMessage("Le livre n'est pas emprunté");
+  }
+
+  @Test
+  void shouldLendEachCopyBeforeBeingBorrowed() {
+    book.setTotalCopies(2);
+
+    book.borrow();
+    assertThat(book.getAvailableCopies()).isEqualTo(1);
+    assertThat(book.getStatus()).isEqualTo(Book.BookStatus.AVAILABLE);
+
+    book.borrow();
+    assertThat(book.getAvailableCopies()).isZero();
+    assertThat(book.getStatus()).isEqualTo(Book.BookStatus.BORROWED);
+
+    book.returnBook();
+    assertThat(book.getAvailableCopies()).isEqualTo(1);
+    assertThat(book.isAvailable()).isTrue();
+  }
+
+  @Test
+  void shouldKeepBorrowedCopiesWhenChangingTotal() {
+    book.setTotalCopies(3);
+    book.borrow();
+    book.borrow();
+
+    assertThatThrownBy(() -> book.setTotalCopies(1))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Le nombre d'exemplaires ne peut pas être inférieur aux 2 exemplaires empruntés");
+
+    book.setTotalCopies(2);
+    assertThat(book.getAvailableCopies()).isZero();
+    assertThat(book.getStatus()).isEqualTo(Book.BookStatus.BORROWED);
+
+    book.setTotalCopies(4);
+    assertThat(book.getAvailableCopies()).isEqualTo(2);
+    assertThat(book.getStatus()).isEqualTo(Book.BookStatus.AVAILABLE);
+  }
+
+  @Test
+  void shouldHoldReturnedCopyUntilPickedUp() {
+    book.setTotalCopies(2);
+    book.borrow();
+    book.borrow();
+
+    book.returnForReservation();
+    assertThat(book.getHeldCopies()).isEqualTo(1);
+    assertThat(book.getStatus()).isEqualTo(Book.BookStatus.RESERVED);
+    assertThat(book.isAvailable()).isFalse();
+
+    book.pickUpReservedCopy();
+    assertThat(book.getHeldCopies()).isZero();
+    assertThat(book.getStatus()).isEqualTo(Book.BookStatus.BORROWED);
+    assertThatThrownBy(() -> book.pickUpReservedCopy())
+        .isInstanceOf(InvalidBookStateException.class)
+        .hasMessage("Aucun exemplaire n'est réservé");
+  }
+
+  @Test
+  void shouldNotHoldCopyThatIsNotBorrowed() {
+    assertThatThrownBy(() -> book.returnForReservation())
+        .isInstanceOf(InvalidBookStateException.class)
         .hasMessage("Le livre n'est pas emprunté");
   }
 
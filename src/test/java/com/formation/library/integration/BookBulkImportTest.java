@@ -0,0 +1,157 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.formation.library.cache.ExistingKeysFilter;
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.entity.BookEvent;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.search.CatalogSearch;
+import com.formation.library.util.Isbn;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookBulkImportTest {
+
+  private static final int ROWS = 1200;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private CatalogSearch catalogSearch;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @MockitoSpyBean
+  private ExistingKeysFilter existingKeys;
+
+  private Statistics statistics;
+  private Long authorId;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    authorId = authorRepository.save(new Author("Émile Zola", "emile.zola@example.com")).getId();
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.findAll().forEach(book -> catalogSearch.removeBook(book.getId()));
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @Test
+  void shouldImportNdjsonInJdbcBatches() throws Exception {
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < ROWS; i++) {
+      body.append("{\"title\":\"Livre ").append(i).append("\",\"isbn\":\"").append(isbn13(i))
+          .append("\",\"publicationDate\":\"2001-01-01\",\"pages\":100,\"genre\":\"Roman\",\"authorId\":")
+          .append(authorId).append("}\n");
+    }
+    statistics.clear();
+
+    mockMvc.perform(post("/api/books/bulk").contentType("application/x-ndjson").content(body.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.received").value(ROWS))
+        .andExpect(jsonPath("$.imported").value(ROWS))
+        .andExpect(jsonPath("$.rejected").value(0));
+
+    assertThat(bookRepository.count()).isEqualTo(ROWS);
+    // Un livre et son événement book_outbox par ligne, INSERT regroupés par 50 et identifiants réservés
+    // par blocs de 50
+    assertThat(statistics.getEntityStatistics(Book.class.getName()).getInsertCount()).isEqualTo(ROWS);
+    assertThat(statistics.getEntityStatistics(BookEvent.class.getName()).getInsertCount()).isEqualTo(ROWS);
+    assertThat(statistics.getPrepareStatementCount()).isLessThan(ROWS / 10);
+    assertThat(catalogSearch.searchBooks("Livre 1199", 10, false)).hasSize(1);
+  }
+
+  @Test
+  void shouldReportRejectedRowsWithoutAbortingTheImport() throws Exception {
+    String csv = String.join("\n",
+        "title,isbn,publicationDate,pages,genre,authorId",
+        "\"Germinal, tome 1\"," + isbn13(1) + ",1885-03-01,592,Roman," + authorId,
+        "Doublon," + isbn13(1) + ",1885-03-01,592,Roman," + authorId,
+        "Sans auteur," + isbn13(2) + ",1885-03-01,592,Roman,999999",
+        "Sans pages," + isbn13(3) + ",1885-03-01,-1,Roman," + authorId,
+        "Colonnes manquantes," + isbn13(4),
+        "Nana," + isbn13(5) + ",,,," + authorId);
+
+    mockMvc.perform(post("/api/books/bulk").contentType("text/csv").content(csv))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.received").value(6))
+        .andExpect(jsonPath("$.imported").value(2))
+        .andExpect(jsonPath("$.rejected").value(4))
+        .andExpect(jsonPath("$.errors.length()").value(4))
+        .andExpect(jsonPath("$.errors[0]").value("Ligne 6 : Nombre de colonnes invalide : 2 au lieu de 6"));
+
+    assertThat(bookRepository.findByIsbn(isbn13(1))).hasValueSatisfying(
+        book -> assertThat(book.getTitle()).isEqualTo("Germinal, tome 1"));
+  }
+
+  // ISBN créé par un autre import entre la vérification et l'INSERT : seul le lot concerné est rejeté
+  @Test
+  void shouldReportChunkRejectedByTheDatabaseAndContinue() throws Exception {
+    bookRepository.save(new Book("Concurrent", isbn13(10), authorRepository.getReferenceById(authorId)));
+    doReturn(false).when(existingKeys).mightContainIsbn(Isbn.toKey(isbn13(10)));
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < ROWS; i++) {
+      body.append("{\"title\":\"Livre ").append(i).append("\",\"isbn\":\"").append(isbn13(i))
+          .append("\",\"authorId\":").append(authorId).append("}\n");
+    }
+
+    mockMvc.perform(post("/api/books/bulk").contentType("application/x-ndjson").content(body.toString()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.received").value(ROWS))
+        .andExpect(jsonPath("$.imported").value(ROWS - 500))
+        .andExpect(jsonPath("$.rejected").value(500))
+        .andExpect(jsonPath("$.errors[0]").value("Ligne 1 : lot rejeté par la base"));
+
+    assertThat(bookRepository.findByIsbn(isbn13(0))).isEmpty();
+    assertThat(bookRepository.findByIsbn(isbn13(ROWS - 1))).isPresent();
+  }
+
+  @Test
+  void shouldRejectUnexpectedCsvHeader() throws Exception {
+    mockMvc.perform(post("/api/books/bulk").contentType("text/csv").content("isbn,title\n"))
+        .andExpect(status().isBadRequest());
+  }
+
+  private static String isbn13(int n) {
+    String body = String.format("978%09d", n);
+    int sum = 0;
+    for (int i = 0; i < 12; i++) {
+      sum += (body.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+    }
+    return body + (10 - sum % 10) % 10;
+  }
+}
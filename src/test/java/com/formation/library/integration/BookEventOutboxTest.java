@@ -0,0 +1,156 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.library.dto.BookEventDTO;
+import com.formation.library.entity.Author;
+import com.formation.library.outbox.BookEventOutbox;
+import com.formation.library.outbox.BookEventSink;
+import com.formation.library.outbox.QueueBookEventSink;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookEventOutboxTest {
+
+  private static final String ISBN = "9782070360024";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private BookEventOutbox bookEvents;
+
+  @Autowired
+  private BookEventSink sink;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Author author;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    author = authorRepository.save(new Author("Albert Camus", "albert.camus@example.com"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  private String bookJson(String title) {
+    return """
+        {"title": "%s", "isbn": "%s", "totalCopies": 1, "author": {"id": %d}}
+        """.formatted(title, ISBN, author.getId());
+  }
+
+  // Le relais publie dès le commit : attente de la suppression des lignes du livre, publiées avant celle-ci.
+  // Les événements des autres tests du contexte partagent la file : seuls ceux du livre sont retenus
+  private List<BookEventDTO> publishedFor(long bookId) throws InterruptedException {
+    while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book_outbox WHERE book_id = ?", Long.class,
+        bookId) > 0) {
+      bookEvents.flush();
+      Thread.sleep(10);
+    }
+    List<BookEventDTO> published = new ArrayList<>();
+    ((QueueBookEventSink) sink).events().drainTo(published);
+    return published.stream().filter(event -> event.bookId() == bookId)
+        .sorted(Comparator.comparing(BookEventDTO::id)).toList();
+  }
+
+  private static String describe(BookEventDTO event) {
+    return event.type() + ":" + event.status() + ":" + event.availableCopies() + ":" + event.version();
+  }
+
+  @Test
+  void shouldPublishEachCommittedChangeOnceInOrder() throws Exception {
+    String created = mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON)
+        .content(bookJson("La Peste"))).andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+    long id = objectMapper.readValue(created, JsonNode.class).get("id").asLong();
+
+    mockMvc.perform(put("/api/books/{id}", id).contentType(MediaType.APPLICATION_JSON)
+        .content(bookJson("La Peste (poche)"))).andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isOk());
+    // Changement refusé, donc annulé : aucun événement
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isConflict());
+    mockMvc.perform(patch("/api/books/{isbn}/return", ISBN)).andExpect(status().isOk());
+    mockMvc.perform(delete("/api/books/{id}", id)).andExpect(status().isNoContent());
+
+    List<BookEventDTO> events = publishedFor(id);
+
+    assertThat(events).extracting(event -> event.type() + ":" + event.status() + ":" + event.availableCopies())
+        .containsExactly("CREATED:AVAILABLE:1", "UPDATED:AVAILABLE:1", "BORROWED:BORROWED:0",
+            "RETURNED:AVAILABLE:1", "DELETED:AVAILABLE:1");
+    assertThat(events).extracting(BookEventDTO::id).doesNotHaveDuplicates();
+    // Version croissante par livre : ordre retrouvé par le consommateur même sans ordre de publication
+    assertThat(events).extracting(BookEventDTO::version).containsExactly(0L, 1L, 2L, 3L, 4L);
+    assertThat(events).allSatisfy(event -> assertThat(event.isbn()).isEqualTo(ISBN));
+    assertThat(publishedFor(id)).isEmpty();
+  }
+
+  @Test
+  void shouldPublishUpsertedBooksWithTheirStoredState() throws Exception {
+    mockMvc.perform(put("/api/books/isbn/{isbn}", ISBN).contentType(MediaType.APPLICATION_JSON)
+        .content(bookJson("La Peste"))).andExpect(status().isCreated());
+    long id = bookRepository.findByIsbn(ISBN).orElseThrow().getId();
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isOk());
+    // Mise à jour par lot d'un livre emprunté : l'événement porte l'état écrit, pas celui du corps de la requête
+    mockMvc.perform(put("/api/books/bulk").contentType(MediaType.APPLICATION_JSON).content("""
+        [{"title": "La Peste", "isbn": "%s", "totalCopies": 2, "author": {"id": %d}}]
+        """.formatted(ISBN, author.getId()))).andExpect(status().isOk());
+
+    assertThat(publishedFor(id)).extracting(BookEventOutboxTest::describe)
+        .containsExactly("CREATED:AVAILABLE:1:0", "BORROWED:BORROWED:0:1", "UPDATED:AVAILABLE:1:2");
+  }
+
+  @Test
+  void shouldPublishImportedBooks() throws Exception {
+    mockMvc.perform(post("/api/books/bulk").contentType("application/x-ndjson").content("""
+        {"title": "La Peste", "isbn": "%s", "authorId": %d}
+        """.formatted(ISBN, author.getId()))).andExpect(status().isOk());
+    long id = bookRepository.findByIsbn(ISBN).orElseThrow().getId();
+
+    assertThat(publishedFor(id)).extracting(BookEventOutboxTest::describe)
+        .containsExactly("CREATED:AVAILABLE:1:0");
+  }
+}
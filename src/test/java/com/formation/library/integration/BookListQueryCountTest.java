@@ -0,0 +1,96 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.search.CatalogSearch;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookListQueryCountTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private CatalogSearch catalogSearch;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private static final String[][] ISBNS = {
+      { "9780000000019", "9780000000026" },
+      { "9780000001016", "9780000001023" },
+      { "9780000002013", "9780000002020" },
+      { "9780000003010", "9780000003027" },
+      { "9780000004017", "9780000004024" }
+  };
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    for (int i = 0; i < ISBNS.length; i++) {
+      Author author = authorRepository.save(new Author("Auteur " + i, "auteur" + i + "@example.com"));
+      bookRepository.saveAll(List.of(
+          new Book("Roman " + i, ISBNS[i][0], LocalDate.of(2000 + i, 1, 1), 200, "Roman", author),
+          new Book("Essai " + i, ISBNS[i][1], LocalDate.of(2000 + i, 6, 1), 120, "Essai", author)))
+          .forEach(book -> catalogSearch.indexBook(book.getId(), book.getTitle()));
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.findAll().forEach(book -> catalogSearch.removeBook(book.getId()));
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "/api/books",
+      "/api/books/search?title=o",
+      "/api/books/status/AVAILABLE",
+      "/api/books/genre/roman",
+      "/api/books/publication-date?startDate=1999-01-01&endDate=2010-12-31",
+      "/api/books/author/name?authorName=Auteur"
+  })
+  void shouldListBooksWithSingleStatementWhateverTheNumberOfAuthors(String url) throws Exception {
+    statistics.clear();
+
+    mockMvc.perform(get(url)).andExpect(status().isOk());
+
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+}
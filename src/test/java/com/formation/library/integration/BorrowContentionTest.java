@@ -0,0 +1,154 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.entity.Book.BookStatus;
+import com.formation.library.exception.BookAlreadyBorrowedException;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.service.IBookService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BorrowContentionTest {
+
+  // Débit journalisé au niveau INFO, activé pour cette classe dans le profil de test
+  private static final Logger log = LoggerFactory.getLogger(BorrowContentionTest.class);
+
+  private static final String ISBN = "9782070409228";
+  private static final String SHELVED_ISBN = "9782070360024";
+  private static final int COPIES = 3;
+  private static final int THREADS = 8;
+  private static final int ATTEMPTS_PER_THREAD = 50;
+
+  @Autowired
+  private IBookService bookService;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  private Author author;
+
+  @BeforeEach
+  void setUp() {
+    author = authorRepository.save(new Author("Albert Camus", "albert.camus@example.com"));
+    bookRepository.save(new Book("L'Étranger", ISBN, author));
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @Test
+  void shouldNeverGrantTheSameCopyTwice() throws Exception {
+    AtomicLong borrows = new AtomicLong();
+    AtomicLong refusals = new AtomicLong();
+    AtomicLong returns = new AtomicLong();
+    CountDownLatch start = new CountDownLatch(1);
+
+    List<Future<?>> workers = new ArrayList<>();
+    long begin;
+    try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+      for (int t = 0; t < THREADS; t++) {
+        workers.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+            try {
+              bookService.borrowBook(ISBN);
+            } catch (BookAlreadyBorrowedException e) {
+              refusals.incrementAndGet();
+              continue;
+            }
+            borrows.incrementAndGet();
+            // Seul l'emprunteur rend le livre : un double emprunt ferait échouer l'un des retours
+            bookService.returnBook(ISBN);
+            returns.incrementAndGet();
+          }
+          return null;
+        }));
+      }
+      begin = System.nanoTime();
+      start.countDown();
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    }
+    double seconds = (System.nanoTime() - begin) / 1e9;
+    log.info("{} emprunts, {} refus, {} retours en {} s ({} emprunts/s)", borrows.get(), refusals.get(),
+        returns.get(), String.format("%.2f", seconds), String.format("%.0f", borrows.get() / seconds));
+
+    Book book = bookRepository.findByIsbn(ISBN).orElseThrow();
+    assertThat(borrows.get() + refusals.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+    assertThat(returns.get()).isEqualTo(borrows.get());
+    assertThat(book.getStatus()).isEqualTo(BookStatus.AVAILABLE);
+    // Chaque transition réussie incrémente la version : aucune mise à jour perdue
+    assertThat(book.getVersion()).isEqualTo(borrows.get() + returns.get());
+  }
+
+  @Test
+  void shouldLendEachCopyExactlyOnce() throws Exception {
+    Book book = bookRepository.findByIsbn(ISBN).orElseThrow();
+    book.setTotalCopies(COPIES);
+    bookRepository.save(book);
+    Book shelved = new Book("La Peste", SHELVED_ISBN, author);
+    shelved.setTotalCopies(2);
+    bookRepository.save(shelved);
+    AtomicLong borrows = new AtomicLong();
+    CountDownLatch start = new CountDownLatch(1);
+
+    List<Future<?>> workers = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+      for (int t = 0; t < THREADS; t++) {
+        workers.add(executor.submit(() -> {
+          start.await();
+          try {
+            bookService.borrowBook(ISBN);
+            borrows.incrementAndGet();
+          } catch (BookAlreadyBorrowedException e) {
+            // Plus aucun exemplaire disponible
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    }
+
+    Book borrowed = bookRepository.findByIsbn(ISBN).orElseThrow();
+    assertThat(borrows.get()).isEqualTo(COPIES);
+    assertThat(borrowed.getAvailableCopies()).isZero();
+    assertThat(borrowed.getStatus()).isEqualTo(BookStatus.BORROWED);
+    assertThat(bookService.countByAuthorAndStatus(author.getId(), BookStatus.BORROWED)).isEqualTo(COPIES);
+    assertThat(bookService.countByAuthorAndStatus(author.getId(), BookStatus.AVAILABLE)).isEqualTo(2);
+
+    bookService.returnBook(ISBN);
+    assertThat(bookRepository.findByIsbn(ISBN).orElseThrow().isAvailable()).isTrue();
+    assertThat(bookService.countByAuthorAndStatus(author.getId(), BookStatus.AVAILABLE)).isEqualTo(3);
+  }
+}
@@ -0,0 +1,144 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.library.dto.AuthorDTO;
+import com.formation.library.dto.BookDTO;
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.service.IBookService;
+import com.formation.library.util.Isbn;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogExportTest {
+
+  private static final int BOOKS = 1200;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @MockitoSpyBean
+  private IBookService bookService;
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    Author zola = authorRepository.save(new Author("Émile Zola", "emile.zola@example.com"));
+    Author hugo = authorRepository.save(new Author("Victor Hugo", "victor.hugo@example.com"));
+    List<Book> books = new ArrayList<>();
+    for (int i = 0; i < BOOKS; i++) {
+      books.add(new Book("Livre " + i, Isbn.format(Isbn.withCheckDigit(978_000_000_000L + i)), LocalDate.of(2001, 1, 1), 100, "Roman",
+          i % 2 == 0 ? zola : hugo));
+    }
+    bookRepository.saveAll(books);
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @Test
+  void shouldStreamEveryBookAsNdjsonInASingleQuery() throws Exception {
+    statistics.clear();
+
+    List<String> lines = export("/api/books/export");
+
+    assertThat(lines).hasSize(BOOKS);
+    BookDTO first = objectMapper.readValue(lines.get(0), BookDTO.class);
+    assertThat(first.title()).isEqualTo("Livre 0");
+    assertThat(first.authorName()).isEqualTo("Émile Zola");
+    assertThat(first.publicationDate()).isEqualTo(LocalDate.of(2001, 1, 1));
+    assertThat(objectMapper.readValue(lines.get(BOOKS - 1), BookDTO.class).title()).isEqualTo("Livre " + (BOOKS - 1));
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    assertThat(statistics.getEntityLoadCount()).isZero();
+  }
+
+  @Test
+  void shouldStreamEveryAuthorAsNdjson() throws Exception {
+    List<String> lines = export("/api/authors/export");
+
+    assertThat(lines).hasSize(2);
+    assertThat(objectMapper.readValue(lines.get(1), AuthorDTO.class).email()).isEqualTo("victor.hugo@example.com");
+  }
+
+  // spring.mvc.async.request-timeout abaissé à 500 ms dans le profil de test (échéances vérifiées chaque
+  // seconde par Tomcat) : l'export complet a son propre délai
+  @Test
+  void shouldNotCutOffExportRunningPastTheAsyncRequestTimeout() {
+    doAnswer(invocation -> {
+      Thread.sleep(2_000);
+      return invocation.callRealMethod();
+    }).when(bookService).exportAll(any());
+
+    String body = restTemplate.getForObject("/api/books/export", String.class);
+
+    assertThat(body.lines()).hasSize(BOOKS);
+  }
+
+  private List<String> export(String url) throws Exception {
+    MvcResult result = mockMvc.perform(get(url))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    String body = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    return body.lines().toList();
+  }
+}
@@ -0,0 +1,106 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.loader.CatalogLoadReport;
+import com.formation.library.loader.CatalogLoader;
+import com.formation.library.loader.JdbcBatchCatalogLoader;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.util.Isbn;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogLoaderTest {
+
+  private static final int BOOKS = 2500;
+
+  @Autowired
+  private CatalogLoader catalogLoader;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @TempDir
+  private Path dir;
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @Test
+  void shouldFallBackToJdbcBatchesOnH2() {
+    assertThat(catalogLoader).isInstanceOf(JdbcBatchCatalogLoader.class);
+  }
+
+  @Test
+  void shouldLoadCatalogAndResolveAuthorEmails() throws IOException {
+    Author existing = authorRepository.save(new Author("Victor Hugo", "victor.hugo@example.com"));
+
+    Path authors = Files.writeString(dir.resolve("authors.csv"), String.join("\n",
+        "name,email,birthDate,biography",
+        "Émile Zola,emile.zola@example.com,1840-04-02,\"Romancier, journaliste\"",
+        "Gustave Flaubert,gustave.flaubert@example.com,,",
+        "Victor Hugo (doublon),victor.hugo@example.com,1802-02-26,"));
+
+    List<String> lines = new ArrayList<>(List.of("title,isbn,publicationDate,pages,genre,authorEmail"));
+    for (int i = 0; i < BOOKS; i++) {
+      String email = i % 2 == 0 ? "emile.zola@example.com" : "victor.hugo@example.com";
+      lines.add("Livre " + i + "," + Isbn.format(Isbn.withCheckDigit(978_000_000_000L + i)) + ",2001-01-01,100,Roman," + email);
+    }
+    // Même livre que "Livre 0" (9780000000002), sous sa forme ISBN-10
+    lines.add("Doublon,0-00-000000-0,2001-01-01,100,Roman,emile.zola@example.com");
+    lines.add("Orphelin,9789999999991,2001-01-01,100,Roman,inconnu@example.com");
+    Path books = Files.write(dir.resolve("books.csv"), lines);
+
+    CatalogLoadReport report = catalogLoader.load(authors, books);
+
+    assertThat(report.authorsRead()).isEqualTo(3);
+    assertThat(report.authorsInserted()).isEqualTo(2);
+    assertThat(report.booksRead()).isEqualTo(BOOKS + 2);
+    assertThat(report.booksInserted()).isEqualTo(BOOKS);
+    assertThat(report.phaseMillis()).containsKeys("insertAuthors", "resolveEmails", "insertBooks", "commit");
+
+    assertThat(bookRepository.countByAuthorIdAndStatus(existing.getId(), Book.BookStatus.AVAILABLE))
+        .isEqualTo(BOOKS / 2);
+    assertThat(authorRepository.findByEmail("emile.zola@example.com")).hasValueSatisfying(
+        author -> assertThat(author.getBiography()).isEqualTo("Romancier, journaliste"));
+
+    // Les identifiants JPA suivants restent disjoints de ceux attribués par le chargeur
+    Book book = bookRepository.save(new Book("Après chargement", "9781111111113", existing));
+    assertThat(bookRepository.findByIsbn("9781111111113")).hasValueSatisfying(
+        saved -> assertThat(saved.getId()).isEqualTo(book.getId()));
+    assertThat(bookRepository.count()).isEqualTo(BOOKS + 1);
+  }
+
+  @Test
+  void shouldRejectUnexpectedHeader() throws IOException {
+    Path authors = Files.writeString(dir.resolve("authors.csv"), "email,name\n");
+    Path books = Files.writeString(dir.resolve("books.csv"), "title,isbn,publicationDate,pages,genre,authorEmail\n");
+
+    assertThatThrownBy(() -> catalogLoader.load(authors, books))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("name,email,birthDate,biography");
+  }
+}
@@ -0,0 +1,180 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.entity.Book.BookStatus;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogUpsertTest {
+
+  private static final String ISBN = "9782070360024";
+  private static final String NEW_ISBN = "2070368238";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  private Author author;
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    author = authorRepository.save(new Author("Albert Camus", "albert.camus@example.com"));
+    book = bookRepository.save(new Book("La Peste", ISBN, author));
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @Test
+  void shouldInsertThenUpdateBookKeepingItsLoanStatus() throws Exception {
+    mockMvc.perform(get("/api/books/isbn/" + NEW_ISBN)).andExpect(status().isNotFound());
+
+    mockMvc.perform(put("/api/books/isbn/" + NEW_ISBN).contentType(MediaType.APPLICATION_JSON)
+            .content(bookJson("Caligula", author.getId())))
+        .andExpect(status().isCreated())
+        .andExpect(header().string("Location", startsWith("/api/books/")));
+    mockMvc.perform(get("/api/books/isbn/" + NEW_ISBN)).andExpect(jsonPath("$.title").value("Caligula"));
+    mockMvc.perform(patch("/api/books/" + NEW_ISBN + "/borrow")).andExpect(status().isOk());
+
+    // Même clé sous une autre écriture de l'ISBN : mise à jour, pas de doublon
+    mockMvc.perform(put("/api/books/isbn/978-2-07-036823-5").contentType(MediaType.APPLICATION_JSON)
+            .content(bookJson("Caligula ou le Malentendu", author.getId())))
+        .andExpect(status().isNoContent());
+
+    mockMvc.perform(get("/api/books/isbn/" + NEW_ISBN))
+        .andExpect(jsonPath("$.title").value("Caligula ou le Malentendu"))
+        .andExpect(jsonPath("$.status").value("BORROWED"));
+    Book upserted = bookRepository.findByIsbn(NEW_ISBN).orElseThrow();
+    assertThat(upserted.getVersion()).isEqualTo(2);
+    assertThat(bookRepository.count()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldAdjustAvailableCopiesWithoutDroppingBorrowedOnes() throws Exception {
+    mockMvc.perform(put("/api/books/isbn/" + ISBN).contentType(MediaType.APPLICATION_JSON)
+            .content(bookJson("La Peste", author.getId(), 3)))
+        .andExpect(status().isNoContent());
+    mockMvc.perform(patch("/api/books/" + ISBN + "/borrow")).andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/" + ISBN + "/borrow")).andExpect(status().isOk());
+
+    mockMvc.perform(put("/api/books/isbn/" + ISBN).contentType(MediaType.APPLICATION_JSON)
+            .content(bookJson("La Peste", author.getId(), 1)))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(put("/api/books/isbn/" + ISBN).contentType(MediaType.APPLICATION_JSON)
+            .content(bookJson("La Peste", author.getId(), 2)))
+        .andExpect(status().isNoContent());
+
+    mockMvc.perform(get("/api/books/isbn/" + ISBN))
+        .andExpect(jsonPath("$.totalCopies").value(2))
+        .andExpect(jsonPath("$.availableCopies").value(0))
+        .andExpect(jsonPath("$.status").value("BORROWED"));
+  }
+
+  @Test
+  void shouldUpsertBatchWritingRepeatedKeysOnce() throws Exception {
+    mockMvc.perform(get("/api/books/" + book.getId())).andExpect(jsonPath("$.title").value("La Peste"));
+    String batch = "[" + bookJson("L'Étranger", NEW_ISBN, author.getId()) + ","
+        + bookJson("La Peste (édition revue)", ISBN, author.getId()) + ","
+        + bookJson("L'Étranger (Folio)", NEW_ISBN, author.getId()) + "]";
+
+    String response = mockMvc.perform(put("/api/books/bulk").contentType(MediaType.APPLICATION_JSON).content(batch))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.received").value(3))
+        .andExpect(jsonPath("$.written").value(2))
+        .andReturn().getResponse().getContentAsString();
+
+    JsonNode ids = objectMapper.readTree(response).get("ids");
+    assertThat(ids.get(1).asLong()).isEqualTo(book.getId());
+    assertThat(ids.get(0).asLong()).isEqualTo(ids.get(2).asLong());
+    mockMvc.perform(get("/api/books/" + book.getId()))
+        .andExpect(jsonPath("$.title").value("La Peste (édition revue)"))
+        .andExpect(jsonPath("$.status").value(BookStatus.AVAILABLE.name()));
+    mockMvc.perform(get("/api/books/isbn/" + NEW_ISBN)).andExpect(jsonPath("$.title").value("L'Étranger (Folio)"));
+    mockMvc.perform(get("/api/authors/" + author.getId())).andExpect(jsonPath("$.books.length()").value(2));
+  }
+
+  @Test
+  void shouldUpsertAuthorsByEmail() throws Exception {
+    mockMvc.perform(get("/api/authors/" + author.getId())).andExpect(jsonPath("$.name").value("Albert Camus"));
+
+    mockMvc.perform(put("/api/authors/email/albert.camus@example.com").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\":\"Albert Camus\",\"biography\":\"Prix Nobel 1957\"}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(author.getId()));
+    mockMvc.perform(put("/api/authors/bulk").contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"name\":\"Simone Weil\",\"email\":\"simone.weil@example.com\"},"
+                + "{\"name\":\"Simone de Beauvoir\",\"email\":\"simone.debeauvoir@example.com\"}]"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.written").value(2));
+
+    mockMvc.perform(get("/api/authors/" + author.getId())).andExpect(jsonPath("$.biography").value("Prix Nobel 1957"));
+    mockMvc.perform(get("/api/authors/email/simone.weil@example.com")).andExpect(jsonPath("$.name").value("Simone Weil"));
+    assertThat(authorRepository.count()).isEqualTo(3);
+  }
+
+  @Test
+  void shouldRejectUpsertWithUnknownAuthorOrInvalidIsbn() throws Exception {
+    mockMvc.perform(put("/api/books/isbn/" + NEW_ISBN).contentType(MediaType.APPLICATION_JSON)
+            .content(bookJson("Caligula", 999_999L)))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(put("/api/books/isbn/1234567890").contentType(MediaType.APPLICATION_JSON)
+            .content(bookJson("Caligula", author.getId())))
+        .andExpect(status().isBadRequest());
+
+    assertThat(bookRepository.count()).isEqualTo(1);
+  }
+
+  private static String bookJson(String title, Long authorId) {
+    return "{\"title\":\"" + title + "\",\"author\":{\"id\":" + authorId + "}}";
+  }
+
+  private static String bookJson(String title, Long authorId, int totalCopies) {
+    return "{\"title\":\"" + title + "\",\"totalCopies\":" + totalCopies + ",\"author\":{\"id\":" + authorId + "}}";
+  }
+
+  private static String bookJson(String title, String isbn, Long authorId) {
+    return "{\"title\":\"" + title + "\",\"isbn\":\"" + isbn + "\",\"author\":{\"id\":" + authorId + "}}";
+  }
+}
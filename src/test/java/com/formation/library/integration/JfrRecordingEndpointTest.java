@@ -0,0 +1,127 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.mapper.DTOMapper;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=jfr")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JfrRecordingEndpointTest {
+
+  private static final String ISBN = "978-2-07-036002-4";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private DTOMapper dtoMapper;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @TempDir
+  private Path directory;
+
+  @BeforeEach
+  void setUp() {
+    Author author = authorRepository.save(new Author("Albert Camus", "albert.camus@example.com"));
+    bookRepository.save(new Book("L'Étranger", ISBN, author));
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    mockMvc.perform(delete("/actuator/jfr"));
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @Test
+  void shouldRecordLibraryEventsAndDownloadTheRecording() throws Exception {
+    String started = mockMvc.perform(post("/actuator/jfr")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"duration\": 120}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state").value("RUNNING"))
+        .andReturn().getResponse().getContentAsString();
+    long id = objectMapper.readTree(started).get("id").asLong();
+
+    mockMvc.perform(post("/actuator/jfr").contentType(MediaType.APPLICATION_JSON).content("{}"))
+        .andExpect(status().isConflict());
+
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isConflict());
+    dtoMapper.toBookDTOList(bookRepository.findAll());
+
+    mockMvc.perform(delete("/actuator/jfr"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state").value("STOPPED"));
+
+    byte[] recording = mockMvc.perform(get("/actuator/jfr/{id}", id))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsByteArray();
+    Path file = Files.write(directory.resolve("library.jfr"), recording);
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+    assertThat(events(events, "com.formation.library.Borrow"))
+        .extracting(event -> event.getString("operation") + ":" + event.getString("outcome"))
+        .containsExactly("borrow:success", "borrow:already_borrowed");
+    assertThat(events(events, "com.formation.library.RepositoryQuery"))
+        .anySatisfy(event -> {
+          assertThat(event.getString("repository")).isEqualTo("BookRepository");
+          assertThat(event.getString("method")).isEqualTo("borrowCopyByIsbnKey");
+          assertThat(event.getLong("rows")).isEqualTo(1);
+        })
+        .anySatisfy(event -> {
+          assertThat(event.getString("method")).isEqualTo("findAll");
+          assertThat(event.getLong("rows")).isEqualTo(1);
+        });
+    assertThat(events(events, "com.formation.library.MappingBatch"))
+        .singleElement()
+        .satisfies(event -> {
+          assertThat(event.getString("method")).isEqualTo("toBookDTOList");
+          assertThat(event.getInt("size")).isEqualTo(1);
+        });
+
+    mockMvc.perform(get("/actuator/jfr/{id}", id + 1)).andExpect(status().isNotFound());
+  }
+
+  private static List<RecordedEvent> events(List<RecordedEvent> events, String name) {
+    return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+  }
+}
@@ -0,0 +1,101 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.loan.LoanLedger;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoanLedgerTest {
+
+  private static final String ISBN = "9782070360024";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private LoanLedger loanLedger;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    Author author = authorRepository.save(new Author("Albert Camus", "albert.camus@example.com"));
+    book = bookRepository.save(new Book("La Peste", ISBN, author));
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @Test
+  void shouldAppendCommittedLoansOnlyOnceFlushed() throws Exception {
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isConflict());
+    mockMvc.perform(post("/api/books/{isbn}/reserve", ISBN).param("patron", "alice"))
+        .andExpect(status().isCreated());
+    mockMvc.perform(patch("/api/books/{isbn}/return", ISBN)).andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/{isbn}/pickup", ISBN).param("patron", "alice"))
+        .andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/{isbn}/return", ISBN)).andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/{isbn}/return", ISBN)).andExpect(status().isConflict());
+
+    loanLedger.flush();
+
+    List<Map<String, Object>> loans = jdbcTemplate.queryForList(
+        "SELECT type, patron, occurred_at, due_at FROM loans WHERE book_id = ? ORDER BY occurred_at, id",
+        book.getId());
+    assertThat(loans).extracting(loan -> loan.get("type") + ":" + loan.get("patron"))
+        .containsExactly("BORROWED:null", "RETURNED:null", "BORROWED:alice", "RETURNED:null");
+    Map<String, Object> borrowed = loans.get(0);
+    assertThat(Duration.between(instant(borrowed.get("occurred_at")), instant(borrowed.get("due_at"))))
+        .isEqualTo(Duration.ofDays(21));
+    assertThat(loans.get(1).get("due_at")).isNull();
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loan_outbox WHERE book_id = ?", Long.class,
+        book.getId())).isZero();
+  }
+
+  private static java.time.Instant instant(Object value) {
+    return value instanceof Timestamp timestamp ? timestamp.toInstant()
+        : ((java.time.OffsetDateTime) value).toInstant();
+  }
+}
@@ -0,0 +1,146 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.formation.library.cache.CacheNames;
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.util.Isbn;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LookupCacheTest {
+
+  private static final String ISBN = "9782070360024";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private Author author;
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    author = authorRepository.save(new Author("Albert Camus", "albert.camus@example.com"));
+    book = bookRepository.save(new Book("La Peste", ISBN, author));
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @Test
+  void shouldServeRepeatedLookupsFromCache() throws Exception {
+    statistics.clear();
+    double hitsBefore = isbnCacheHits();
+
+    for (int i = 0; i < 3; i++) {
+      mockMvc.perform(get("/api/books/isbn/" + ISBN)).andExpect(status().isOk());
+      mockMvc.perform(get("/api/books/" + book.getId())).andExpect(status().isOk());
+    }
+
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    assertThat(isbnCacheHits() - hitsBefore).isEqualTo(2);
+  }
+
+  @Test
+  void shouldEvictBookAndAuthorOnBorrowAndReturn() throws Exception {
+    mockMvc.perform(get("/api/books/isbn/" + ISBN)).andExpect(jsonPath("$.status").value("AVAILABLE"));
+    mockMvc.perform(get("/api/authors/" + author.getId()))
+        .andExpect(jsonPath("$.books[0].status").value("AVAILABLE"));
+
+    mockMvc.perform(patch("/api/books/" + ISBN + "/borrow")).andExpect(status().isOk());
+
+    mockMvc.perform(get("/api/books/isbn/" + ISBN)).andExpect(jsonPath("$.status").value("BORROWED"));
+    mockMvc.perform(get("/api/books/" + book.getId())).andExpect(jsonPath("$.status").value("BORROWED"));
+    mockMvc.perform(get("/api/authors/" + author.getId()))
+        .andExpect(jsonPath("$.books[0].status").value("BORROWED"));
+
+    mockMvc.perform(patch("/api/books/" + ISBN + "/return")).andExpect(status().isOk());
+
+    mockMvc.perform(get("/api/books/isbn/" + ISBN)).andExpect(jsonPath("$.status").value("AVAILABLE"));
+  }
+
+  @Test
+  void shouldEvictDeletedBook() throws Exception {
+    mockMvc.perform(get("/api/books/" + book.getId())).andExpect(status().isOk());
+
+    mockMvc.perform(delete("/api/books/" + book.getId())).andExpect(status().isNoContent());
+
+    mockMvc.perform(get("/api/books/" + book.getId())).andExpect(status().isNotFound());
+    mockMvc.perform(get("/api/authors/" + author.getId())).andExpect(jsonPath("$.books").isEmpty());
+  }
+
+  @Test
+  void shouldRememberMissingKeysUntilTheyAreCreated() throws Exception {
+    String missingIsbn = Isbn.format(Isbn.withCheckDigit(978_207_099_999L));
+    statistics.clear();
+
+    for (int i = 0; i < 3; i++) {
+      mockMvc.perform(get("/api/books/isbn/" + missingIsbn)).andExpect(status().isNotFound());
+      mockMvc.perform(get("/api/authors/email/inconnu@example.com")).andExpect(status().isNotFound());
+    }
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+    mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"title\":\"Caligula\",\"isbn\":\"" + missingIsbn + "\",\"author\":{\"id\":"
+                + author.getId() + "}}"))
+        .andExpect(status().isCreated());
+    mockMvc.perform(post("/api/authors").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\":\"Inconnu\",\"email\":\"inconnu@example.com\"}"))
+        .andExpect(status().isCreated());
+
+    mockMvc.perform(get("/api/books/isbn/" + missingIsbn)).andExpect(jsonPath("$.title").value("Caligula"));
+    mockMvc.perform(get("/api/authors/email/inconnu@example.com")).andExpect(jsonPath("$.name").value("Inconnu"));
+  }
+
+  private double isbnCacheHits() {
+    return meterRegistry.get("cache.gets").tag("cache", CacheNames.BOOKS_BY_ISBN).tag("result", "hit")
+        .functionCounter().count();
+  }
+}
@@ -0,0 +1,72 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+
+@SpringBootTest(properties = {
+    "management.endpoints.web.exposure.include=prometheus",
+    "spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+  private static final String ISBN = "978-2-07-036002-4";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @BeforeEach
+  void setUp() {
+    Author author = authorRepository.save(new Author("Albert Camus", "albert.camus@example.com"));
+    bookRepository.save(new Book("L'Étranger", ISBN, author));
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @Test
+  void shouldExposeServiceRepositoryBorrowAndHibernateMetrics() throws Exception {
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isConflict());
+
+    String scrape = mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    assertThat(scrape)
+        .contains("library_borrow_outcomes_total{application=\"library\",operation=\"borrow\",outcome=\"success\"} 1.0")
+        .contains("library_borrow_outcomes_total{application=\"library\",operation=\"borrow\",outcome=\"already_borrowed\"} 1.0")
+        .contains("library_borrow_outcomes_total{application=\"library\",operation=\"return\",outcome=\"not_borrowed\"} 0.0")
+        .containsPattern("library_service_seconds_count\\{.*class=\"com.formation.library.service.BookServiceImpl\".*method=\"borrowBook\"")
+        .containsPattern("library_mapping_seconds_count\\{.*method=\"toBookWithAuthorDTO\"")
+        .containsPattern("spring_data_repository_invocations_seconds_bucket\\{.*method=\"borrowCopyByIsbnKey\"")
+        .contains("hibernate_statements_total");
+  }
+}
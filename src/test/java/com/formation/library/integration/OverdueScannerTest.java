@@ -0,0 +1,185 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.loan.DueLoan;
+import com.formation.library.loan.LoanLedger;
+import com.formation.library.loan.OverdueScanner;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.repository.DueLoanStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OverdueScannerTest {
+
+  private static final String SHARED_ISBN = "9782070360024";
+  private static final String SINGLE_ISBN = "9782070368228";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private LoanLedger loanLedger;
+
+  @Autowired
+  private DueLoanStore dueLoanStore;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Book shared;
+  private Book single;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    Author author = authorRepository.save(new Author("Albert Camus", "albert.camus@example.com"));
+    shared = new Book("La Peste", SHARED_ISBN, author);
+    shared.setTotalCopies(2);
+    shared = bookRepository.save(shared);
+    single = bookRepository.save(new Book("L'Étranger", SINGLE_ISBN, author));
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  // Instance hors contexte, jamais démarrée : chaque appel reproduit un redémarrage (roue vide, reprise au
+  // point de reprise commun)
+  private OverdueScanner restartedScanner(DueLoanStore store, SimpleMeterRegistry registry) {
+    return new OverdueScanner(store, loanLedger, transactionManager, Duration.ofMinutes(1), Duration.ofHours(1),
+        Duration.ofDays(21), 1, registry);
+  }
+
+  private OverdueScanner restartedScanner(SimpleMeterRegistry registry) {
+    return restartedScanner(dueLoanStore, registry);
+  }
+
+  // Emprunts rendus échus d'environ neuf jours ; reprise fixée avant leurs échéances
+  private void expireLoans() {
+    loanLedger.flush();
+    jdbcTemplate.update("UPDATE loans SET due_at = due_at - INTERVAL '30' DAY WHERE book_id IN (?, ?)",
+        shared.getId(), single.getId());
+    jdbcTemplate.update("UPDATE loan_overdue_scan SET scanned_until = ?",
+        Timestamp.from(Instant.now().minus(Duration.ofDays(40))));
+  }
+
+  private long overdueCount() {
+    loanLedger.flush();
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans WHERE book_id IN (?, ?) AND type = 'OVERDUE'",
+        Long.class, shared.getId(), single.getId());
+  }
+
+  @Test
+  void shouldFlagOnlyLoansStillOutAfterTheirDueDate() throws Exception {
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", SHARED_ISBN)).andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", SHARED_ISBN)).andExpect(status().isOk());
+    // Premier exemplaire rendu : seul le second emprunt reste ouvert
+    mockMvc.perform(patch("/api/books/{isbn}/return", SHARED_ISBN)).andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", SINGLE_ISBN)).andExpect(status().isOk());
+    expireLoans();
+    List<Timestamp> dues = jdbcTemplate.queryForList(
+        "SELECT due_at FROM loans WHERE book_id = ? AND type = 'BORROWED' ORDER BY occurred_at, id",
+        Timestamp.class, shared.getId());
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    restartedScanner(registry).scan(Instant.now());
+    loanLedger.flush();
+
+    assertThat(jdbcTemplate.queryForList("SELECT due_at FROM loans WHERE book_id = ? AND type = 'OVERDUE'",
+        Timestamp.class, shared.getId())).containsExactly(dues.get(1));
+    // Chaque OVERDUE désigne son emprunt ; un second signalement du même emprunt est refusé
+    List<Long> flagged = jdbcTemplate.queryForList("SELECT o.loan_id FROM loans o JOIN loans l ON l.id = o.loan_id "
+        + "WHERE o.book_id IN (?, ?) AND o.type = 'OVERDUE' AND l.type = 'BORROWED'", Long.class,
+        shared.getId(), single.getId());
+    assertThat(flagged).hasSize(2);
+    assertThat(dueLoanStore.flagOverdue(
+        flagged.stream().map(id -> new DueLoan(id, 0, null, null, Instant.now())).toList())).isEmpty();
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans WHERE book_id = ? AND type = 'OVERDUE'",
+        Long.class, single.getId())).isEqualTo(1);
+    assertThat(registry.get("library.loans.overdue.batch").summary().count()).isEqualTo(2);
+    assertThat(registry.get("library.loans.overdue.lag").timer().max(TimeUnit.DAYS)).isGreaterThanOrEqualTo(8);
+
+    // Nouveau redémarrage, même depuis l'ancien point de reprise : rien n'est signalé deux fois
+    jdbcTemplate.update("UPDATE loan_overdue_scan SET scanned_until = ?",
+        Timestamp.from(Instant.now().minus(Duration.ofDays(40))));
+    SimpleMeterRegistry afterRestart = new SimpleMeterRegistry();
+    restartedScanner(afterRestart).scan(Instant.now());
+
+    assertThat(overdueCount()).isEqualTo(2);
+    assertThat(afterRestart.get("library.loans.overdue.batch").summary().count()).isZero();
+  }
+
+  @Test
+  void shouldFlagFailedBatchAfterRestart() throws Exception {
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", SHARED_ISBN)).andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", SINGLE_ISBN)).andExpect(status().isOk());
+    expireLoans();
+    Instant checkpoint = dueLoanStore.checkpoint();
+    AtomicBoolean failNext = new AtomicBoolean(true);
+    DueLoanStore failingOnce = new DueLoanStore(jdbcTemplate) {
+      @Override
+      public List<DueLoan> flagOverdue(List<DueLoan> loans) {
+        if (failNext.getAndSet(false)) {
+          throw new DataAccessResourceFailureException("Base indisponible");
+        }
+        return super.flagOverdue(loans);
+      }
+    };
+
+    // Premier lot en échec : le passage s'arrête, le point de reprise ne bouge pas
+    assertThatThrownBy(() -> restartedScanner(failingOnce, new SimpleMeterRegistry()).scan(Instant.now()))
+        .isInstanceOf(DataAccessResourceFailureException.class);
+    assertThat(overdueCount()).isZero();
+    assertThat(dueLoanStore.checkpoint()).isEqualTo(checkpoint);
+
+    // Arrêt avant le passage suivant : le redémarrage relit les échéances depuis le point de reprise
+    SimpleMeterRegistry afterRestart = new SimpleMeterRegistry();
+    assertThat(restartedScanner(afterRestart).scan(Instant.now())).isEqualTo(2);
+    assertThat(overdueCount()).isEqualTo(2);
+    assertThat(dueLoanStore.checkpoint()).isAfter(checkpoint);
+  }
+}
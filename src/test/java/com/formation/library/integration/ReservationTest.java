@@ -0,0 +1,151 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.formation.library.cache.ReservationQueues;
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.entity.Book.BookStatus;
+import com.formation.library.entity.Reservation;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.repository.ReservationRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReservationTest {
+
+  private static final String ISBN = "9782070360024";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private ReservationRepository reservationRepository;
+
+  @Autowired
+  private ReservationQueues reservationQueues;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  private Author author;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    author = authorRepository.save(new Author("Albert Camus", "albert.camus@example.com"));
+    bookRepository.save(new Book("La Peste", ISBN, author));
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @Test
+  void shouldHandReturnedBookToWaitersInArrivalOrder() throws Exception {
+    mockMvc.perform(post("/api/books/{isbn}/reserve", ISBN).param("patron", "alice"))
+        .andExpect(status().isConflict());
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isOk());
+
+    mockMvc.perform(post("/api/books/{isbn}/reserve", ISBN).param("patron", "alice"))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.isbn").value(ISBN))
+        .andExpect(jsonPath("$.status").value("WAITING"));
+    mockMvc.perform(post("/api/books/{isbn}/reserve", ISBN).param("patron", "bob"))
+        .andExpect(status().isCreated());
+    mockMvc.perform(post("/api/books/{isbn}/reserve", ISBN).param("patron", "alice"))
+        .andExpect(status().isConflict());
+
+    mockMvc.perform(patch("/api/books/{isbn}/return", ISBN))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value(BookStatus.RESERVED.name()))
+        .andExpect(jsonPath("$.availableCopies").value(0));
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isConflict());
+    mockMvc.perform(patch("/api/books/{isbn}/pickup", ISBN).param("patron", "bob"))
+        .andExpect(status().isConflict());
+
+    mockMvc.perform(patch("/api/books/{isbn}/pickup", ISBN).param("patron", "alice"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value(BookStatus.BORROWED.name()));
+    mockMvc.perform(patch("/api/books/{isbn}/return", ISBN))
+        .andExpect(jsonPath("$.status").value(BookStatus.RESERVED.name()));
+    mockMvc.perform(patch("/api/books/{isbn}/pickup", ISBN).param("patron", "bob"))
+        .andExpect(status().isOk());
+
+    // File vide : le retour remet l'exemplaire en rayon
+    mockMvc.perform(patch("/api/books/{isbn}/return", ISBN))
+        .andExpect(jsonPath("$.status").value(BookStatus.AVAILABLE.name()));
+    mockMvc.perform(get("/api/books/isbn/{isbn}", ISBN)).andExpect(jsonPath("$.availableCopies").value(1));
+    assertThat(reservationRepository.count()).isZero();
+  }
+
+  @Test
+  void shouldServeOldestWaiterWhenLocalQueueIsStale() throws Exception {
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isOk());
+    mockMvc.perform(post("/api/books/{isbn}/reserve", ISBN).param("patron", "alice"))
+        .andExpect(status().isCreated());
+    Book book = bookRepository.findByIsbn(ISBN).orElseThrow();
+    assertThat(reservationQueues.head(book.getIsbnKey()).patron()).isEqualTo("alice");
+
+    // Réservation plus ancienne prise sur un autre nœud : absente de la file de ce nœud
+    Instant aliceReservedAt = reservationRepository.findWaitingByIsbnKey(book.getIsbnKey()).get(0).reservedAt();
+    reservationRepository.save(new Reservation(book, "bob", aliceReservedAt.minusSeconds(1)));
+
+    mockMvc.perform(patch("/api/books/{isbn}/return", ISBN))
+        .andExpect(jsonPath("$.status").value(BookStatus.RESERVED.name()));
+    mockMvc.perform(patch("/api/books/{isbn}/pickup", ISBN).param("patron", "alice"))
+        .andExpect(status().isConflict());
+    mockMvc.perform(patch("/api/books/{isbn}/pickup", ISBN).param("patron", "bob"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void shouldKeepOtherCopiesLendableWhileOneIsHeld() throws Exception {
+    Book book = bookRepository.findByIsbn(ISBN).orElseThrow();
+    book.setTotalCopies(2);
+    bookRepository.save(book);
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isOk());
+    mockMvc.perform(patch("/api/books/{isbn}/borrow", ISBN)).andExpect(status().isOk());
+    mockMvc.perform(post("/api/books/{isbn}/reserve", ISBN).param("patron", "alice"))
+        .andExpect(status().isCreated());
+
+    mockMvc.perform(patch("/api/books/{isbn}/return", ISBN))
+        .andExpect(jsonPath("$.status").value(BookStatus.RESERVED.name()));
+    // Le second exemplaire rendu n'est attendu par personne : il repasse en rayon
+    mockMvc.perform(patch("/api/books/{isbn}/return", ISBN))
+        .andExpect(jsonPath("$.status").value(BookStatus.AVAILABLE.name()))
+        .andExpect(jsonPath("$.availableCopies").value(1));
+    mockMvc.perform(patch("/api/books/{isbn}/return", ISBN)).andExpect(status().isConflict());
+
+    Book held = bookRepository.findByIsbn(ISBN).orElseThrow();
+    assertThat(held.getHeldCopies()).isEqualTo(1);
+    assertThat(held.getAvailableCopies()).isEqualTo(1);
+  }
+}
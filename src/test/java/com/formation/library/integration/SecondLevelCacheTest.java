@@ -0,0 +1,136 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.library.dto.BookDTO;
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.entity.Book.BookStatus;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.service.IAuthorService;
+import com.formation.library.service.IBookService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+  private static final String ISBN = "9782070368228";
+
+  @Autowired
+  private IBookService bookService;
+
+  @Autowired
+  private IAuthorService authorService;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private Author author;
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    author = authorRepository.save(new Author("Boris Vian", "boris.vian@example.com"));
+    book = bookRepository.save(new Book("L'Écume des jours", ISBN, author));
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  void shouldLoadAuthorAndBooksFromSecondLevelCache() {
+    transactionTemplate.executeWithoutResult(status -> loadAuthorWithBooks());
+    statistics.clear();
+
+    transactionTemplate.executeWithoutResult(status -> loadAuthorWithBooks());
+
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+    assertThat(statistics.getDomainDataRegionStatistics("authors").getHitCount()).isEqualTo(1);
+    assertThat(statistics.getDomainDataRegionStatistics("author-books").getHitCount()).isEqualTo(1);
+    assertThat(statistics.getDomainDataRegionStatistics("books").getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldServeAuthorBooksQueryFromQueryCache() {
+    bookService.findByAuthorId(author.getId());
+    statistics.clear();
+
+    bookService.findByAuthorId(author.getId());
+
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+    assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+  }
+
+  // Upserts JDBC : Hibernate ne les voit pas, les résultats de requêtes en cache sont vidés explicitement
+  @Test
+  void shouldNotServeStaleAuthorBooksQueryAfterUpserts() {
+    bookService.findByAuthorId(author.getId());
+
+    Book upserted = new Book("L'Arrache-cœur", "9782253140634", author);
+    bookService.upsertByIsbn(upserted);
+
+    assertThat(bookService.findByAuthorId(author.getId())).extracting(BookDTO::title)
+        .containsExactlyInAnyOrder("L'Écume des jours", "L'Arrache-cœur");
+
+    authorService.upsertByEmail(new Author("Vernon Sullivan", "boris.vian@example.com"));
+
+    assertThat(bookService.findByAuthorId(author.getId())).extracting(BookDTO::authorName)
+        .containsOnly("Vernon Sullivan");
+  }
+
+  @Test
+  void shouldNeverServeStaleStatusAfterBorrowAndReturn() {
+    transactionTemplate.executeWithoutResult(status -> loadAuthorWithBooks());
+    bookService.findByAuthorId(author.getId());
+
+    bookService.borrowBook(ISBN);
+
+    assertThat(bookRepository.findById(book.getId()).orElseThrow().getStatus()).isEqualTo(BookStatus.BORROWED);
+    assertThat(bookService.findByAuthorId(author.getId())).singleElement()
+        .satisfies(dto -> assertThat(dto.status()).isEqualTo(BookStatus.BORROWED));
+
+    bookService.returnBook(ISBN);
+
+    transactionTemplate.executeWithoutResult(status -> assertThat(loadAuthorWithBooks().getBooks()).singleElement()
+        .satisfies(loaded -> assertThat(loaded.getStatus()).isEqualTo(BookStatus.AVAILABLE)));
+  }
+
+  private Author loadAuthorWithBooks() {
+    Author loaded = authorRepository.findById(author.getId()).orElseThrow();
+    loaded.getBooks().forEach(Book::getStatus);
+    return loaded;
+  }
+}
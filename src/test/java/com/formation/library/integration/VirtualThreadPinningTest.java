@@ -0,0 +1,120 @@
+package com.formation.library.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.service.IAuthorService;
+import com.formation.library.service.IBookService;
+import com.formation.library.util.Isbn;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+// Détection d'épinglage : un thread virtuel qui se bloque (JDBC, attente du pool Hikari) en tenant un
+// moniteur synchronized reste attaché à son porteur, et la JVM émet jdk.VirtualThreadPinned
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+class VirtualThreadPinningTest {
+
+  private static final int BOOKS = 20;
+  // Bien plus de tâches que de connexions Hikari : une partie des threads attend le pool
+  private static final int TASKS = 100;
+
+  @Autowired
+  private IBookService bookService;
+
+  @Autowired
+  private IAuthorService authorService;
+
+  @Autowired
+  private AuthorRepository authorRepository;
+
+  @Autowired
+  private BookRepository bookRepository;
+
+  private Author author;
+  private final List<Book> books = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    author = authorRepository.save(new Author("Albert Camus", "albert.camus@example.com"));
+    for (int i = 0; i < BOOKS; i++) {
+      books.add(bookRepository.save(new Book("Livre " + i,
+          Isbn.format(Isbn.withCheckDigit(978_207_000_000L + i)), author)));
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    bookRepository.deleteAll();
+    authorRepository.deleteAll();
+  }
+
+  @Test
+  void shouldNotPinVirtualThreadsOnServiceAndJdbcPaths() throws Exception {
+    // Premier appel hors enregistrement : résolution paresseuse des pointcuts AOP (moniteurs internes d'AspectJ)
+    bookService.borrowBook(books.get(0).getIsbn());
+    bookService.returnBook(books.get(0).getIsbn());
+
+    List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+    try (RecordingStream recording = new RecordingStream()) {
+      recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+      recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+      recording.startAsync();
+
+      try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (int i = 0; i < TASKS; i++) {
+          Book book = books.get(i % BOOKS);
+          executor.submit(() -> {
+            try {
+              bookService.borrowBook(book.getIsbn());
+              bookService.returnBook(book.getIsbn());
+            } catch (RuntimeException e) {
+              // Conflits d'emprunt attendus : seul l'épinglage est vérifié ici
+            }
+            bookService.findDTOById(book.getId());
+            bookService.findDTOByIsbn(book.getIsbn());
+            authorService.findDTOById(author.getId());
+            return bookService.searchByTitle("Livre", 10, false);
+          });
+        }
+      }
+      recording.stop();
+    }
+
+    assertThat(pinned).as(() -> describe(pinned)).isEmpty();
+  }
+
+  private static String describe(List<RecordedEvent> events) {
+    return events.stream()
+        .map(event -> event.getStackTrace() == null ? "(pile indisponible)"
+            : event.getStackTrace().getFrames().stream().limit(15).map(VirtualThreadPinningTest::frame)
+                .collect(Collectors.joining("\n    ", "Thread virtuel épinglé pendant " + event.getDuration()
+                    + " :\n    ", "")))
+        .distinct()
+        .collect(Collectors.joining("\n"));
+  }
+
+  private static String frame(RecordedFrame frame) {
+    return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+  }
+}
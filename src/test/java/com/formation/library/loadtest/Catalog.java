@@ -0,0 +1,157 @@
+package com.formation.library.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.library.util.Isbn;
+
+/**
+ * Jeu de données créé par l'API avant la mesure. Les ISBN (préfixe 979) et les emails portent un
+ * identifiant de campagne : plusieurs campagnes peuvent viser la même base PostgreSQL.
+ */
+final class Catalog {
+
+  static final String[] WORDS = {
+      "histoire", "nuit", "mer", "jardin", "secret", "voyage", "ombre", "lumière", "guerre", "paix",
+      "roi", "reine", "forêt", "montagne", "rivière", "cité", "empire", "silence", "mémoire", "étoile" };
+
+  // Plage d'ISBN réservée à une campagne (les 9 chiffres après 979 sont partagés entre campagnes)
+  private static final long ISBNS_PER_RUN = 100_000;
+  private static final long RUNS = 1_000_000_000L / ISBNS_PER_RUN;
+
+  private final ObjectMapper objectMapper;
+  private final long run;
+  private final long[] authorIds;
+  private final long[] bookIds;
+  private final String[] isbns;
+  private final AtomicLong nextIsbn;
+  private final AtomicLong nextAuthor;
+
+  private Catalog(ObjectMapper objectMapper, long run, long[] authorIds, long[] bookIds, String[] isbns) {
+    this.objectMapper = objectMapper;
+    this.run = run;
+    this.authorIds = authorIds;
+    this.bookIds = bookIds;
+    this.isbns = isbns;
+    this.nextIsbn = new AtomicLong(isbns.length);
+    this.nextAuthor = new AtomicLong(authorIds.length);
+  }
+
+  static Catalog seed(HttpClient client, String baseUrl, int authors, int books, ObjectMapper objectMapper)
+      throws IOException, InterruptedException {
+    long run = ThreadLocalRandom.current().nextLong(RUNS);
+    Catalog catalog = new Catalog(objectMapper, run, new long[authors], new long[books], new String[books]);
+
+    for (int i = 0; i < authors; i++) {
+      JsonNode author = send(client, post(baseUrl + "/api/authors", catalog.authorJson(i)), objectMapper);
+      catalog.authorIds[i] = author.get("id").asLong();
+    }
+
+    Random random = new Random(run);
+    StringBuilder ndjson = new StringBuilder();
+    for (int i = 0; i < books; i++) {
+      catalog.isbns[i] = catalog.isbn(i);
+      ndjson.append(objectMapper.writeValueAsString(Map.of(
+          "title", title(random, i),
+          "isbn", catalog.isbns[i],
+          "publicationDate", "2001-01-01",
+          "pages", 100 + i % 500,
+          "genre", "Roman",
+          "authorId", catalog.authorIds[i % authors]))).append('\n');
+    }
+    JsonNode imported = send(client, HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/bulk"))
+        .header("Content-Type", "application/x-ndjson")
+        .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+        .build(), objectMapper);
+    if (imported.get("imported").asLong() != books) {
+      throw new IllegalStateException("Import incomplet : " + imported);
+    }
+
+    for (int i = 0; i < books; i++) {
+      catalog.bookIds[i] = send(client, HttpRequest.newBuilder(URI.create(baseUrl + "/api/books/isbn/" + catalog.isbns[i]))
+          .GET().build(), objectMapper).get("id").asLong();
+    }
+    return catalog;
+  }
+
+  long randomBookId(Random random) {
+    return bookIds[random.nextInt(bookIds.length)];
+  }
+
+  String randomIsbn(Random random) {
+    return isbns[random.nextInt(isbns.length)];
+  }
+
+  long randomAuthorId(Random random) {
+    return authorIds[random.nextInt(authorIds.length)];
+  }
+
+  String randomWord(Random random) {
+    return WORDS[random.nextInt(WORDS.length)];
+  }
+
+  String newBookJson(Random random) {
+    long n = nextIsbn.getAndIncrement();
+    return json(Map.of(
+        "title", title(random, n),
+        "isbn", isbn(n),
+        "publicationDate", "2001-01-01",
+        "pages", 100,
+        "genre", "Roman",
+        "author", Map.of("id", randomAuthorId(random))));
+  }
+
+  String newAuthorJson() {
+    return authorJson(nextAuthor.getAndIncrement());
+  }
+
+  private String authorJson(long n) {
+    return json(Map.of(
+        "name", "Auteur " + run + "-" + n,
+        "email", "loadtest-" + run + "-" + n + "@example.com",
+        "birthDate", "1900-01-01"));
+  }
+
+  private String isbn(long n) {
+    return Isbn.format(Isbn.withCheckDigit(979_000_000_000L + run * ISBNS_PER_RUN + n % ISBNS_PER_RUN));
+  }
+
+  private static String title(Random random, long n) {
+    return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + n;
+  }
+
+  private String json(Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static HttpRequest post(String url, String json) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+
+  private static JsonNode send(HttpClient client, HttpRequest request, ObjectMapper objectMapper)
+      throws IOException, InterruptedException {
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() / 100 != 2) {
+      throw new IllegalStateException(request.method() + " " + request.uri() + " : HTTP " + response.statusCode()
+          + " " + response.body());
+    }
+    return objectMapper.readTree(response.body());
+  }
+}
@@ -0,0 +1,40 @@
+package com.formation.library.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+// Latences d'un point d'accès en microsecondes ; Recorder accepte les écritures concurrentes sans verrou
+final class EndpointStats {
+
+  static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+  static final int SIGNIFICANT_DIGITS = 3;
+
+  private final Recorder recorder = new Recorder(HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+  private final LongAdder conflicts = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+
+  void record(long latencyMicros, boolean conflict, boolean error) {
+    recorder.recordValue(Math.min(latencyMicros, HIGHEST_LATENCY_MICROS));
+    if (conflict) {
+      conflicts.increment();
+    }
+    if (error) {
+      errors.increment();
+    }
+  }
+
+  Histogram histogram() {
+    return recorder.getIntervalHistogram();
+  }
+
+  long conflicts() {
+    return conflicts.sum();
+  }
+
+  long errors() {
+    return errors.sum();
+  }
+}
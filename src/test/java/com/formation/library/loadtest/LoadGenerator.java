@@ -0,0 +1,198 @@
+package com.formation.library.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.library.LibraryApplication;
+
+/**
+ * Générateur de charge HTTP de bout en bout : chaque utilisateur simulé est un thread virtuel qui
+ * enchaîne les requêtes (boucle fermée) selon le mix demandé ; les latences sont agrégées par point
+ * d'accès dans des histogrammes HdrHistogram (p50/p99/p999).
+ * Lancement : mvn -Ploadtest -DskipTests verify -Dloadtest.args="--duration=1m --concurrency=64"
+ * ou, contre une instance déjà démarrée (PostgreSQL local par exemple), --url=http://localhost:8080.
+ * En boucle fermée, un serveur ralenti reçoit moins de requêtes : comparer aussi les débits.
+ */
+public final class LoadGenerator {
+
+  private final LoadTestOptions options;
+  private final String baseUrl;
+  private final HttpClient client;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+  private final Operation.Kind[] weightedKinds;
+  private final Map<Operation.Kind, Operation[]> operationsByKind = new EnumMap<>(Operation.Kind.class);
+  private volatile boolean measuring;
+
+  LoadGenerator(LoadTestOptions options, String baseUrl, HttpClient client) {
+    this.options = options;
+    this.baseUrl = baseUrl;
+    this.client = client;
+    for (Operation operation : Operation.values()) {
+      stats.put(operation, new EndpointStats());
+    }
+    for (Operation.Kind kind : Operation.Kind.values()) {
+      operationsByKind.put(kind, Arrays.stream(Operation.values()).filter(o -> o.kind() == kind)
+          .toArray(Operation[]::new));
+    }
+    // Tirage pondéré : famille selon le mix, puis opération uniforme au sein de la famille
+    this.weightedKinds = options.mix().entrySet().stream()
+        .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+        .toArray(Operation.Kind[]::new);
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+    ConfigurableApplicationContext application = null;
+    String baseUrl = options.url();
+    if (baseUrl == null) {
+      // Pas de redémarrage devtools (il relancerait ce main) ni de journalisation DEBUG de ./application.yaml
+      System.setProperty("spring.devtools.restart.enabled", "false");
+      List<String> applicationArgs = new ArrayList<>(
+          List.of("--server.port=0", "--logging.level.org.springframework.web=WARN"));
+      if (options.virtualThreads() != null) {
+        applicationArgs.add("--spring.threads.virtual.enabled=" + options.virtualThreads());
+      }
+      application = new SpringApplicationBuilder(LibraryApplication.class)
+          .profiles("test")
+          .run(applicationArgs.toArray(String[]::new));
+      baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+    }
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(executor)
+            .build()) {
+      new LoadGenerator(options, baseUrl, client).run();
+    } finally {
+      if (application != null) {
+        application.close();
+      }
+    }
+  }
+
+  void run() throws IOException, InterruptedException {
+    System.out.printf("Cible %s : %d auteurs et %d livres en préparation%n", baseUrl, options.authors(),
+        options.books());
+    Catalog catalog = Catalog.seed(client, baseUrl, options.authors(), options.books(), objectMapper);
+
+    System.out.printf("Chauffe %s puis mesure %s, %d utilisateurs, mix %s%n", options.warmup(), options.duration(),
+        options.concurrency(), options.mix());
+    long start = System.nanoTime();
+    long measureStart = start + options.warmup().toNanos();
+    long end = measureStart + options.duration().toNanos();
+    try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < options.concurrency(); i++) {
+        users.submit(() -> simulateUser(catalog, end));
+      }
+      Thread.sleep(Duration.ofNanos(measureStart - System.nanoTime()));
+      measuring = true;
+    }
+    double seconds = (System.nanoTime() - measureStart) / 1e9;
+
+    List<Map<String, Object>> results = report(seconds);
+    if (options.json() != null) {
+      Map<String, Object> document = new LinkedHashMap<>();
+      document.put("date", Instant.now().toString());
+      document.put("url", baseUrl);
+      document.put("virtualThreads", options.virtualThreads());
+      document.put("durationSeconds", seconds);
+      document.put("concurrency", options.concurrency());
+      document.put("mix", options.mix());
+      document.put("endpoints", results);
+      Files.createDirectories(options.json().toAbsolutePath().getParent());
+      objectMapper.writerWithDefaultPrettyPrinter().writeValue(options.json().toFile(), document);
+      System.out.println("Résultats enregistrés dans " + options.json());
+    }
+  }
+
+  private void simulateUser(Catalog catalog, long end) {
+    Random random = ThreadLocalRandom.current();
+    while (System.nanoTime() < end) {
+      Operation[] operations = operationsByKind.get(weightedKinds[random.nextInt(weightedKinds.length)]);
+      Operation operation = operations[random.nextInt(operations.length)];
+      long start = System.nanoTime();
+      int status;
+      try {
+        status = client.send(operation.request(baseUrl, catalog, random), HttpResponse.BodyHandlers.discarding())
+            .statusCode();
+      } catch (IOException e) {
+        status = -1;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      long latencyMicros = (System.nanoTime() - start) / 1_000;
+      if (measuring) {
+        boolean conflict = operation.isConflict(status);
+        stats.get(operation).record(latencyMicros, conflict, !conflict && status / 100 != 2);
+      }
+    }
+  }
+
+  private List<Map<String, Object>> report(double seconds) {
+    System.out.printf("%n%-36s %9s %9s %9s %9s %9s %9s %8s %8s%n", "point d'accès", "requêtes", "req/s",
+        "p50 ms", "p99 ms", "p999 ms", "max ms", "409", "erreurs");
+    List<Map<String, Object>> results = new ArrayList<>();
+    Histogram total = new Histogram(EndpointStats.HIGHEST_LATENCY_MICROS, EndpointStats.SIGNIFICANT_DIGITS);
+    long totalConflicts = 0;
+    long totalErrors = 0;
+    for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+      Histogram histogram = entry.getValue().histogram();
+      if (histogram.getTotalCount() == 0) {
+        continue;
+      }
+      total.add(histogram);
+      totalConflicts += entry.getValue().conflicts();
+      totalErrors += entry.getValue().errors();
+      results.add(line(entry.getKey().label(), histogram, entry.getValue().conflicts(), entry.getValue().errors(),
+          seconds));
+    }
+    results.add(line("TOTAL", total, totalConflicts, totalErrors, seconds));
+    return results;
+  }
+
+  private static Map<String, Object> line(String label, Histogram histogram, long conflicts, long errors,
+      double seconds) {
+    Map<String, Object> line = new LinkedHashMap<>();
+    line.put("endpoint", label);
+    line.put("requests", histogram.getTotalCount());
+    line.put("throughput", histogram.getTotalCount() / seconds);
+    line.put("p50Millis", millis(histogram.getValueAtPercentile(50)));
+    line.put("p99Millis", millis(histogram.getValueAtPercentile(99)));
+    line.put("p999Millis", millis(histogram.getValueAtPercentile(99.9)));
+    line.put("maxMillis", millis(histogram.getMaxValue()));
+    line.put("conflicts", conflicts);
+    line.put("errors", errors);
+    System.out.printf("%-36s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %8d %8d%n", label, histogram.getTotalCount(),
+        histogram.getTotalCount() / seconds, line.get("p50Millis"), line.get("p99Millis"), line.get("p999Millis"),
+        line.get("maxMillis"), conflicts, errors);
+    return line;
+  }
+
+  private static double millis(long micros) {
+    return micros / 1_000d;
+  }
+}
@@ -0,0 +1,77 @@
+package com.formation.library.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Options du générateur de charge, au format --nom=valeur :
+ * <ul>
+ * <li>--url : application cible ; absente, l'application est démarrée sur le profil test (H2)</li>
+ * <li>--virtual-threads : true/false, mode d'exécution de l'application démarrée par le générateur</li>
+ * <li>--duration, --warmup : durées de mesure et de chauffe (30s, 5s, 2m...)</li>
+ * <li>--concurrency : nombre d'utilisateurs simulés, un thread virtuel chacun</li>
+ * <li>--mix : pondération des familles d'opérations, par ex. read:80,write:10,borrow:10</li>
+ * <li>--authors, --books : taille du jeu de données créé avant la mesure</li>
+ * <li>--json : fichier de résultats JSON</li>
+ * </ul>
+ */
+record LoadTestOptions(String url, Boolean virtualThreads, Duration duration, Duration warmup, int concurrency,
+    Map<Operation.Kind, Integer> mix, int authors, int books, Path json) {
+
+  static LoadTestOptions parse(String[] args) {
+    String url = null;
+    Boolean virtualThreads = null;
+    Duration duration = Duration.ofSeconds(30);
+    Duration warmup = Duration.ofSeconds(5);
+    int concurrency = 32;
+    Map<Operation.Kind, Integer> mix = parseMix("read:80,write:10,borrow:10");
+    int authors = 20;
+    int books = 1000;
+    Path json = null;
+
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Option attendue au format --nom=valeur : " + arg);
+      }
+      String value = arg.substring(separator + 1);
+      switch (arg.substring(2, separator)) {
+        case "url" -> url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+        case "virtual-threads" -> virtualThreads = Boolean.valueOf(value);
+        case "duration" -> duration = parseDuration(value);
+        case "warmup" -> warmup = parseDuration(value);
+        case "concurrency" -> concurrency = Integer.parseInt(value);
+        case "mix" -> mix = parseMix(value);
+        case "authors" -> authors = Integer.parseInt(value);
+        case "books" -> books = Integer.parseInt(value);
+        case "json" -> json = Path.of(value);
+        default -> throw new IllegalArgumentException("Option inconnue : " + arg);
+      }
+    }
+    if (concurrency < 1 || authors < 1 || books < 1) {
+      throw new IllegalArgumentException("concurrency, authors et books doivent être positifs");
+    }
+    return new LoadTestOptions(url, virtualThreads, duration, warmup, concurrency, mix, authors, books, json);
+  }
+
+  private static Map<Operation.Kind, Integer> parseMix(String value) {
+    Map<Operation.Kind, Integer> mix = new EnumMap<>(Operation.Kind.class);
+    for (String part : value.split(",")) {
+      String[] weight = part.split(":");
+      if (weight.length != 2) {
+        throw new IllegalArgumentException("Pondération invalide : " + part);
+      }
+      mix.put(Operation.Kind.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+    }
+    if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+      throw new IllegalArgumentException("La somme des pondérations doit être positive : " + value);
+    }
+    return mix;
+  }
+
+  private static Duration parseDuration(String value) {
+    return Duration.parse("PT" + value.toUpperCase());
+  }
+}
@@ -0,0 +1,111 @@
+package com.formation.library.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Opérations rejouées sur BookController et AuthorController, regroupées par famille pour le mix.
+ * Un 409 est attendu sur emprunt/retour concurrents : il est compté à part et non comme une erreur.
+ */
+enum Operation {
+
+  GET_BOOK(Kind.READ, "GET /api/books/{id}") {
+    @Override
+    HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+      return get(baseUrl + "/api/books/" + catalog.randomBookId(random));
+    }
+  },
+  GET_BOOK_BY_ISBN(Kind.READ, "GET /api/books/isbn/{isbn}") {
+    @Override
+    HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+      return get(baseUrl + "/api/books/isbn/" + catalog.randomIsbn(random));
+    }
+  },
+  LIST_BOOKS(Kind.READ, "GET /api/books?after={id}") {
+    @Override
+    HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+      return get(baseUrl + "/api/books?limit=50&after=" + (catalog.randomBookId(random) - 1));
+    }
+  },
+  SEARCH_BOOKS(Kind.READ, "GET /api/books/search?title={mot}") {
+    @Override
+    HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+      return get(baseUrl + "/api/books/search?limit=20&title="
+          + URLEncoder.encode(catalog.randomWord(random), StandardCharsets.UTF_8));
+    }
+  },
+  GET_AUTHOR(Kind.READ, "GET /api/authors/{id}") {
+    @Override
+    HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+      return get(baseUrl + "/api/authors/" + catalog.randomAuthorId(random));
+    }
+  },
+  CREATE_BOOK(Kind.WRITE, "POST /api/books") {
+    @Override
+    HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+      return post(baseUrl + "/api/books", catalog.newBookJson(random));
+    }
+  },
+  CREATE_AUTHOR(Kind.WRITE, "POST /api/authors") {
+    @Override
+    HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+      return post(baseUrl + "/api/authors", catalog.newAuthorJson());
+    }
+  },
+  BORROW(Kind.BORROW, "PATCH /api/books/{isbn}/borrow") {
+    @Override
+    HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+      return patch(baseUrl + "/api/books/" + catalog.randomIsbn(random) + "/borrow");
+    }
+  },
+  RETURN(Kind.BORROW, "PATCH /api/books/{isbn}/return") {
+    @Override
+    HttpRequest request(String baseUrl, Catalog catalog, Random random) {
+      return patch(baseUrl + "/api/books/" + catalog.randomIsbn(random) + "/return");
+    }
+  };
+
+  enum Kind {
+    READ, WRITE, BORROW
+  }
+
+  private final Kind kind;
+  private final String label;
+
+  Operation(Kind kind, String label) {
+    this.kind = kind;
+    this.label = label;
+  }
+
+  Kind kind() {
+    return kind;
+  }
+
+  String label() {
+    return label;
+  }
+
+  abstract HttpRequest request(String baseUrl, Catalog catalog, Random random);
+
+  boolean isConflict(int status) {
+    return status == 409 && kind == Kind.BORROW;
+  }
+
+  private static HttpRequest get(String url) {
+    return HttpRequest.newBuilder(URI.create(url)).GET().build();
+  }
+
+  private static HttpRequest post(String url, String json) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json))
+        .build();
+  }
+
+  private static HttpRequest patch(String url) {
+    return HttpRequest.newBuilder(URI.create(url)).method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+  }
+}
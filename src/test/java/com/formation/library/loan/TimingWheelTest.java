@@ -0,0 +1,58 @@
+package com.formation.library.loan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+  private static final long START = 1_000_003L;
+
+  private final TimingWheel<Long> wheel = new TimingWheel<>(START);
+
+  private List<Long> advance(long toTick) {
+    List<Long> expired = new ArrayList<>();
+    wheel.advance(toTick, expired::add);
+    return expired;
+  }
+
+  @Test
+  void shouldExpireEachItemAtItsTickAcrossLevels() {
+    long[] offsets = { 1, 63, 64, 65, 4_095, 4_096, 300_000, 20_000_000 };
+    for (long offset : offsets) {
+      wheel.schedule(START + offset, offset);
+    }
+    assertThat(wheel.size()).isEqualTo(offsets.length);
+
+    for (long offset : offsets) {
+      assertThat(advance(START + offset - 1)).doesNotContain(offset);
+      assertThat(advance(START + offset)).containsExactly(offset);
+    }
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  void shouldExpireOverdueItemsOnNextAdvanceInDueOrder() {
+    wheel.schedule(START + 10, 3L);
+    wheel.schedule(START - 5, 1L);
+    wheel.schedule(START, 2L);
+
+    assertThat(advance(START)).containsExactly(1L, 2L);
+    assertThat(advance(START + 1_000)).containsExactly(3L);
+  }
+
+  @Test
+  void shouldCatchUpLongGapsWithoutLosingItems() {
+    for (long i = 0; i < 1_000; i++) {
+      wheel.schedule(START + 1 + i * 997, i);
+    }
+
+    List<Long> expired = advance(START + 1_000_000);
+
+    assertThat(expired).hasSize(1_000).isSorted();
+    assertThat(wheel.currentTick()).isEqualTo(START + 1_000_000);
+  }
+}
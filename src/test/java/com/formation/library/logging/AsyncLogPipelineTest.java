@@ -0,0 +1,80 @@
+package com.formation.library.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncLogPipelineTest {
+
+  private final List<LogEntry> written = new CopyOnWriteArrayList<>();
+  private AsyncLogPipeline pipeline;
+
+  @AfterEach
+  void tearDown() {
+    if (pipeline != null) {
+      pipeline.stop();
+    }
+  }
+
+  private void start(double requestSampleRate, double querySampleRate) {
+    pipeline = new AsyncLogPipeline(64, requestSampleRate, querySampleRate, Duration.ofMillis(500),
+        Duration.ofMillis(100), written::add);
+    pipeline.start();
+  }
+
+  @Test
+  void shouldAlwaysLogSlowAndFailedRequestsWhenSamplingIsOff() {
+    start(0, 0);
+
+    pipeline.request("GET", "/api/books/{id}", 200, TimeUnit.MILLISECONDS.toNanos(2));
+    pipeline.request("GET", "/api/books/search", 200, TimeUnit.MILLISECONDS.toNanos(800));
+    pipeline.request("POST", "/api/books", 503, TimeUnit.MILLISECONDS.toNanos(3));
+    pipeline.stop();
+
+    assertThat(written).extracting(LogEntry::target).containsExactly("/api/books/search", "/api/books");
+    assertThat(written).extracting(LogEntry::slow).containsExactly(true, false);
+    assertThat(written).extracting(LogEntry::failed).containsExactly(false, true);
+  }
+
+  @Test
+  void shouldSampleQueriesIndependentlyOfRequests() {
+    start(0, 1);
+
+    pipeline.request("GET", "/api/books/{id}", 200, TimeUnit.MILLISECONDS.toNanos(2));
+    assertThat(pipeline.shouldLogQuery(TimeUnit.MILLISECONDS.toNanos(1), false)).isTrue();
+    pipeline.query("BookRepository", "findByIsbnKey", 1, TimeUnit.MILLISECONDS.toNanos(1), false);
+    pipeline.stop();
+
+    assertThat(written).singleElement().satisfies(entry -> {
+      assertThat(entry.category()).isEqualTo(LogEntry.Category.QUERY);
+      assertThat(entry.slow()).isFalse();
+    });
+  }
+
+  @Test
+  void shouldFormatStructuredLines() {
+    LogEntry entry = new LogEntry(LogEntry.Category.QUERY, 0, "BookRepository", "updateStatusByIsbnKey", 1,
+        TimeUnit.MICROSECONDS.toNanos(1_250), false, false);
+
+    assertThat(AsyncLogPipeline.format(entry)).isEqualTo("ts=1970-01-01T00:00:00Z repository=BookRepository "
+        + "method=updateStatusByIsbnKey rows=1 durationMs=1.250 slow=false failed=false");
+  }
+
+  @Test
+  void shouldCountLinesDroppedWhileTheWriterIsStopped() {
+    pipeline = new AsyncLogPipeline(64, 1, 1, Duration.ofMillis(500), Duration.ofMillis(100), written::add);
+
+    for (int i = 0; i < 100; i++) {
+      pipeline.request("GET", "/api/books", 200, 1);
+    }
+
+    assertThat(pipeline.dropped()).isEqualTo(36);
+    pipeline.start();
+  }
+}
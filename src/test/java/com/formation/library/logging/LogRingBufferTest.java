@@ -0,0 +1,85 @@
+package com.formation.library.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class LogRingBufferTest {
+
+  @Test
+  void shouldDrainInPublicationOrder() {
+    LogRingBuffer<Integer> buffer = new LogRingBuffer<>(8);
+    for (int i = 0; i < 5; i++) {
+      assertThat(buffer.offer(i)).isTrue();
+    }
+
+    List<Integer> drained = new ArrayList<>();
+    assertThat(buffer.drain(drained::add, 3)).isEqualTo(3);
+    assertThat(buffer.drain(drained::add, 10)).isEqualTo(2);
+
+    assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+  }
+
+  @Test
+  void shouldRejectAndCountWhenFullThenAcceptAgainAfterDrain() {
+    LogRingBuffer<Integer> buffer = new LogRingBuffer<>(4);
+    for (int i = 0; i < 4; i++) {
+      buffer.offer(i);
+    }
+
+    assertThat(buffer.offer(4)).isFalse();
+    assertThat(buffer.offer(5)).isFalse();
+    assertThat(buffer.dropped()).isEqualTo(2);
+
+    buffer.drain(element -> { }, 1);
+    assertThat(buffer.offer(6)).isTrue();
+    List<Integer> drained = new ArrayList<>();
+    buffer.drain(drained::add, 10);
+    assertThat(drained).containsExactly(1, 2, 3, 6);
+  }
+
+  @Test
+  void shouldRejectCapacityThatIsNotAPowerOfTwo() {
+    assertThatThrownBy(() -> new LogRingBuffer<>(1000))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldDeliverEveryAcceptedElementExactlyOnceWithConcurrentProducers() throws Exception {
+    int producers = 8;
+    int perProducer = 50_000;
+    LogRingBuffer<Long> buffer = new LogRingBuffer<>(1024);
+    Set<Long> received = new HashSet<>();
+    AtomicLong accepted = new AtomicLong();
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(producers)) {
+      for (int p = 0; p < producers; p++) {
+        long base = (long) p * perProducer;
+        executor.submit(() -> {
+          for (int i = 0; i < perProducer; i++) {
+            if (buffer.offer(base + i)) {
+              accepted.incrementAndGet();
+            }
+          }
+        });
+      }
+      executor.shutdown();
+      while (!executor.isTerminated()) {
+        buffer.drain(element -> assertThat(received.add(element)).isTrue(), 256);
+      }
+    }
+    buffer.drain(element -> assertThat(received.add(element)).isTrue(), Integer.MAX_VALUE);
+
+    assertThat((long) received.size()).isEqualTo(accepted.get());
+    assertThat(accepted.get() + buffer.dropped()).isEqualTo((long) producers * perProducer);
+  }
+}
@@ -0,0 +1,46 @@
+package com.formation.library.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.formation.library.dto.BookEventDTO;
+import com.formation.library.entity.Book.BookStatus;
+import com.formation.library.entity.BookEvent;
+
+class FileBookEventSinkTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  private static BookEventDTO event(long id, BookEvent.Type type, BookStatus status) {
+    return new BookEventDTO(id, 7L, id, "9782070360024", type, status, status == BookStatus.AVAILABLE ? 1 : 0,
+        Instant.parse("2026-01-01T00:00:00Z"));
+  }
+
+  @Test
+  void shouldAppendOneJsonLinePerEventAcrossBatches(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("events/book-events.ndjson");
+    FileBookEventSink sink = new FileBookEventSink(objectMapper, file);
+
+    sink.publish(List.of(event(1, BookEvent.Type.CREATED, BookStatus.AVAILABLE),
+        event(2, BookEvent.Type.BORROWED, BookStatus.BORROWED)));
+    sink.publish(List.of(event(3, BookEvent.Type.RETURNED, BookStatus.AVAILABLE)));
+
+    List<String> lines = Files.readAllLines(file);
+    assertThat(lines).hasSize(3);
+    assertThat(objectMapper.readValue(lines.get(1), BookEventDTO.class))
+        .isEqualTo(event(2, BookEvent.Type.BORROWED, BookStatus.BORROWED));
+    assertThat(lines.get(2)).contains("\"type\":\"RETURNED\"", "\"occurredAt\":\"2026-01-01T00:00:00Z\"");
+  }
+}
@@ -9,10 +9,12 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.formation.library.dto.AuthorDTO;
 import com.formation.library.entity.Author;
 
 @DataJpaTest
@@ -55,4 +57,25 @@ class AuthorRepositoryTest {
     assertThat(authors).hasSize(1);
     assertThat(authors.get(0).getEmail()).isEqualTo("sam@sam.fr");
   }
+
+  @Test
+  void shouldSeekAuthorsAfterCursor() {
+    List<Author> firstPage = authorRepository.findPageAfter(0L, Limit.of(1));
+    List<Author> secondPage = authorRepository.findPageAfter(firstPage.get(0).getId(), Limit.of(1));
+    List<Author> lastPage = authorRepository.findPageAfter(secondPage.get(0).getId(), Limit.of(1));
+
+    assertThat(firstPage).extracting(Author::getEmail).containsExactly("sam@sam.fr");
+    assertThat(secondPage).extracting(Author::getEmail).containsExactly("pat@pat.fr");
+    assertThat(lastPage).isEmpty();
+  }
+
+  @Test
+  void shouldProjectAuthorDTOByEmail() {
+    entityManager.clear();
+
+    Optional<AuthorDTO> author = authorRepository.findDTOByEmail("pat@pat.fr");
+
+    assertThat(author).contains(new AuthorDTO(author2.getId(), "Patrick Michaux", "pat@pat.fr",
+        LocalDate.of(1959, 10, 26), "Je suis ton père"));
+  }
 }
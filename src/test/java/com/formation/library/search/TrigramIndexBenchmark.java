@@ -0,0 +1,64 @@
+package com.formation.library.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Mesure la latence de recherche de l'index trigramme face à un parcours
+ * linéaire (équivalent d'un LIKE '%...%' sans index) quand le catalogue grossit.
+ * Lancement : java -cp target/test-classes:target/classes com.formation.library.search.TrigramIndexBenchmark
+ */
+public class TrigramIndexBenchmark {
+
+  private static final String[] WORDS = {
+      "histoire", "nuit", "mer", "jardin", "secret", "voyage", "ombre", "lumière", "guerre", "paix",
+      "roi", "reine", "forêt", "montagne", "rivière", "cité", "empire", "silence", "mémoire", "étoile",
+      "hiver", "printemps", "vent", "feu", "pierre", "cendre", "miroir", "chemin", "île", "désert" };
+
+  private static final int QUERIES = 200;
+
+  public static void main(String[] args) {
+    System.out.printf("%10s %18s %18s%n", "livres", "trigramme (µs)", "linéaire (µs)");
+    for (int size : new int[] { 10_000, 100_000, 1_000_000 }) {
+      Random random = new Random(42);
+      TrigramIndex index = new TrigramIndex();
+      List<String> titles = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+            + " " + Integer.toString(i, 36);
+        titles.add(title);
+        index.put(i, title);
+      }
+
+      // Requêtes sélectives : un suffixe unique comme le ferait une saisie au clavier
+      String[] queries = new String[QUERIES];
+      for (int q = 0; q < QUERIES; q++) {
+        queries[q] = "s " + Integer.toString(random.nextInt(size), 36);
+      }
+
+      for (String query : queries) {
+        index.search(query, 50, true);
+      }
+      long start = System.nanoTime();
+      for (String query : queries) {
+        index.search(query, 50, true);
+      }
+      double indexed = (System.nanoTime() - start) / 1_000.0 / QUERIES;
+
+      start = System.nanoTime();
+      for (String query : queries) {
+        int found = 0;
+        for (String title : titles) {
+          if (title.toLowerCase(Locale.ROOT).contains(query) && ++found == 50) {
+            break;
+          }
+        }
+      }
+      double linear = (System.nanoTime() - start) / 1_000.0 / QUERIES;
+
+      System.out.printf("%10d %18.1f %18.1f%n", size, indexed, linear);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.formation.library.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTest {
+
+  private TrigramIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new TrigramIndex();
+    index.put(1L, "Les Misérables");
+    index.put(2L, "Notre-Dame de Paris");
+    index.put(3L, "Les Contemplations");
+    index.put(4L, "Misère");
+  }
+
+  private List<Long> ids(List<TrigramIndex.Match> matches) {
+    return matches.stream().map(TrigramIndex.Match::id).toList();
+  }
+
+  @Test
+  void shouldFindSubstringIgnoringCase() {
+    assertThat(ids(index.search("misÉ", 10, false))).containsExactly(1L);
+    assertThat(ids(index.search("LES ", 10, false))).containsExactly(1L, 3L);
+  }
+
+  @Test
+  void shouldRequireContiguousSubstringNotOnlyTrigrams() {
+    index.put(5L, "abcxbcd");
+
+    assertThat(ids(index.search("abcd", 10, false))).isEmpty();
+  }
+
+  @Test
+  void shouldHandleQueriesShorterThanATrigram() {
+    assertThat(ids(index.search("de", 10, false))).containsExactly(2L);
+  }
+
+  @Test
+  void shouldRankShorterCloserTitlesFirst() {
+    assertThat(ids(index.search("misè", 10, true))).containsExactly(4L);
+    assertThat(ids(index.search("mis", 10, true))).containsExactly(4L, 1L);
+  }
+
+  @Test
+  void shouldApplyLimit() {
+    assertThat(ids(index.search("s", 2, false))).containsExactly(1L, 2L);
+  }
+
+  @Test
+  void shouldReindexAndRemoveEntries() {
+    index.put(1L, "Quatrevingt-treize");
+    index.remove(3L);
+
+    assertThat(ids(index.search("les", 10, false))).isEmpty();
+    assertThat(ids(index.search("treize", 10, false))).containsExactly(1L);
+    assertThat(index.size()).isEqualTo(3);
+  }
+}
@@ -17,10 +17,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.Limit;
+
+import com.formation.library.cache.CatalogCacheInvalidator;
+import com.formation.library.cache.ExistingKeysFilter;
+import com.formation.library.cache.NegativeLookupCache;
+import com.formation.library.dto.AuthorDTO;
+import com.formation.library.dto.AuthorWithBooksDTO;
+import com.formation.library.dto.BookDTO;
+import com.formation.library.dto.BulkUpsertResultDTO;
 import com.formation.library.entity.Author;
+import com.formation.library.entity.Book.BookStatus;
 import com.formation.library.exception.AuthorNotFoundException;
 import com.formation.library.repository.AuthorRepository;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.repository.CatalogUpsert;
+import com.formation.library.repository.CatalogUpsert.UpsertedAuthor;
+import com.formation.library.search.CatalogSearch;
 
 @ExtendWith(MockitoExtension.class)
 public class AuthorServiceImplTest {
@@ -28,30 +41,78 @@ public class AuthorServiceImplTest {
   @Mock
   private AuthorRepository authorRepository;
 
+  @Mock
+  private BookRepository bookRepository;
+
+  @Mock
+  private CatalogSearch catalogSearch;
+
+  @Mock
+  private CatalogCacheInvalidator cacheInvalidator;
+
+  @Mock
+  private NegativeLookupCache negativeLookupCache;
+
+  @Mock
+  private ExistingKeysFilter existingKeys;
+
+  @Mock
+  private CatalogUpsert catalogUpsert;
+
   @InjectMocks
   private AuthorServiceImpl authorService;
 
   private Author author;
+  private AuthorDTO authorDTO;
 
   @BeforeEach
   void setUp() {
     author = new Author("John Doe", "john@example.com");
     author.setId(1L);
+    authorDTO = new AuthorDTO(1L, "John Doe", "john@example.com", null, null);
   }
 
   @Test
   void shouldSaveValidAuthor() {
-    when(authorRepository.existsByEmail(author.getEmail())).thenReturn(false);
     when(authorRepository.save(author)).thenReturn(author);
 
     Author savedAuthor = authorService.save(author);
 
     assertThat(savedAuthor).isEqualTo(author);
 
+    verify(authorRepository).save(author);
+    verify(existingKeys).addEmail(author.getEmail());
+    verifyNoMoreInteractions(authorRepository);
+  }
+
+  @Test
+  void shouldCheckRepositoryWhenFilterMayContainEmail() {
+    when(existingKeys.mightContainEmail(author.getEmail())).thenReturn(true);
+    when(authorRepository.existsByEmail(author.getEmail())).thenReturn(false);
+    when(authorRepository.save(author)).thenReturn(author);
+
+    authorService.save(author);
+
     verify(authorRepository).existsByEmail(author.getEmail());
     verify(authorRepository).save(author);
   }
 
+  @Test
+  void shouldUpsertAuthorsByEmailAndReportRepeatedEmailsOnce() {
+    Author jane = new Author("Jane Doe", "jane@example.com");
+    Author janeAgain = new Author("Jane D.", "jane@example.com");
+    List<UpsertedAuthor> rows = List.of(new UpsertedAuthor(1L, "john@example.com"),
+        new UpsertedAuthor(2L, "jane@example.com"));
+    when(catalogUpsert.upsertAuthors(List.of(author, jane, janeAgain))).thenReturn(rows);
+
+    BulkUpsertResultDTO result = authorService.upsertAllByEmail(List.of(author, jane, janeAgain));
+
+    assertThat(result).isEqualTo(new BulkUpsertResultDTO(3, 2, List.of(1L, 2L, 2L)));
+    verify(catalogSearch).indexAuthor(2L, "Jane D.");
+    verify(cacheInvalidator).authorsUpserted(rows);
+    verifyNoInteractions(authorRepository);
+  }
+
   @Test
   void shouldThrowExceptionWhenSavingAuthorWithNullName() {
     author.setName(null);
@@ -99,6 +160,7 @@ public class AuthorServiceImplTest {
 
   @Test
   void shouldThrowExceptionWhenSavingAuthorWithExistingEmail() {
+    when(existingKeys.mightContainEmail(author.getEmail())).thenReturn(true);
     when(authorRepository.existsByEmail(author.getEmail())).thenReturn(true);
 
     assertThatThrownBy(() -> authorService.save(author))
@@ -157,6 +219,69 @@ public class AuthorServiceImplTest {
     verifyNoMoreInteractions(authorRepository);
   }
 
+  @Test
+  void shouldFindAuthorWithBooksDTOById() {
+    BookDTO bookDTO = new BookDTO(10L, "Test Book", "9780000000019", null, null, null,
+        BookStatus.AVAILABLE, 1L, "John Doe");
+    when(authorRepository.findDTOById(1L)).thenReturn(Optional.of(authorDTO));
+    when(bookRepository.findDTOByAuthorId(1L)).thenReturn(List.of(bookDTO));
+
+    AuthorWithBooksDTO foundAuthor = authorService.findDTOById(1L);
+
+    assertThat(foundAuthor.name()).isEqualTo("John Doe");
+    assertThat(foundAuthor.books()).containsExactly(bookDTO);
+
+    verify(authorRepository).findDTOById(1L);
+    verify(bookRepository).findDTOByAuthorId(1L);
+    verifyNoMoreInteractions(authorRepository, bookRepository);
+  }
+
+  @Test
+  void shouldThrowExceptionWhenAuthorDTONotFoundById() {
+    when(authorRepository.findDTOById(1L)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> authorService.findDTOById(1L))
+        .isInstanceOf(AuthorNotFoundException.class)
+        .hasMessage("Auteur non trouvé avec l'ID: 1");
+
+    verifyNoInteractions(bookRepository);
+  }
+
+  @Test
+  void shouldFindAuthorDTOByEmail() {
+    when(authorRepository.findDTOByEmail("john@example.com")).thenReturn(Optional.of(authorDTO));
+
+    AuthorDTO foundAuthor = authorService.findDTOByEmail("john@example.com");
+
+    assertThat(foundAuthor).isEqualTo(authorDTO);
+    verify(authorRepository).findDTOByEmail("john@example.com");
+  }
+
+  @Test
+  void shouldRememberMissingEmailAndSkipRepositoryOnNextLookup() {
+    when(authorRepository.findDTOByEmail("inconnu@example.com")).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> authorService.findDTOByEmail("inconnu@example.com"))
+        .isInstanceOf(AuthorNotFoundException.class);
+    verify(negativeLookupCache).authorMissing("inconnu@example.com");
+
+    when(negativeLookupCache.isMissingAuthor("inconnu@example.com")).thenReturn(true);
+    assertThatThrownBy(() -> authorService.findDTOByEmail("inconnu@example.com"))
+        .isInstanceOf(AuthorNotFoundException.class)
+        .hasMessage("Auteur non trouvé avec l'email: inconnu@example.com");
+    verify(authorRepository).findDTOByEmail("inconnu@example.com");
+  }
+
+  @Test
+  void shouldSearchAuthorsByNameThroughSearchEngine() {
+    when(catalogSearch.searchAuthors("john", 50, false)).thenReturn(List.of(1L));
+    when(authorRepository.findDTOByIdIn(List.of(1L))).thenReturn(List.of(authorDTO));
+
+    List<AuthorDTO> foundAuthors = authorService.searchByName("john", 50, false);
+
+    assertThat(foundAuthors).containsExactly(authorDTO);
+  }
+
   @Test
   void shouldFindAllAuthors() {
     List<Author> authors = List.of(author, new Author("Jane Doe", "jane@example.com"));
@@ -172,18 +297,31 @@ public class AuthorServiceImplTest {
     verifyNoMoreInteractions(authorRepository);
   }
 
+  @Test
+  void shouldFindPageOfAuthorsAfterCursor() {
+    List<AuthorDTO> authors = List.of(authorDTO);
+    when(authorRepository.findDTOPageAfter(0L, Limit.of(20))).thenReturn(authors);
+
+    List<AuthorDTO> foundAuthors = authorService.findPage(0L, 20);
+
+    assertThat(foundAuthors).containsExactly(authorDTO);
+
+    verify(authorRepository).findDTOPageAfter(0L, Limit.of(20));
+    verifyNoMoreInteractions(authorRepository);
+  }
+
   @Test
   void shouldFindAuthorsByName() {
-    List<Author> authors = List.of(author);
-    when(authorRepository.findByNameContainingIgnoreCase("john")).thenReturn(authors);
+    List<AuthorDTO> authors = List.of(authorDTO);
+    when(authorRepository.findDTOByName("john")).thenReturn(authors);
 
-    List<Author> foundAuthors = authorService.findByName("john");
+    List<AuthorDTO> foundAuthors = authorService.findByName("john");
 
     assertThat(foundAuthors)
         .hasSize(1)
-        .contains(author);
+        .contains(authorDTO);
 
-    verify(authorRepository).findByNameContainingIgnoreCase("john");
+    verify(authorRepository).findDTOByName("john");
     verifyNoMoreInteractions(authorRepository);
   }
 
@@ -191,31 +329,31 @@ public class AuthorServiceImplTest {
   void shouldFindAuthorsByBirthDateBetween() {
     LocalDate startDate = LocalDate.of(1981, 7, 9);
     LocalDate endDate = LocalDate.of(2005, 6, 24);
-    List<Author> authors = List.of(author);
-    when(authorRepository.findByBirthDateBetween(startDate, endDate)).thenReturn(authors);
+    List<AuthorDTO> authors = List.of(authorDTO);
+    when(authorRepository.findDTOByBirthDateBetween(startDate, endDate)).thenReturn(authors);
 
-    List<Author> foundAuthors = authorService.findByBirthDateBetween(startDate, endDate);
+    List<AuthorDTO> foundAuthors = authorService.findByBirthDateBetween(startDate, endDate);
 
     assertThat(foundAuthors)
         .hasSize(1)
-        .contains(author);
+        .contains(authorDTO);
 
-    verify(authorRepository).findByBirthDateBetween(startDate, endDate);
+    verify(authorRepository).findDTOByBirthDateBetween(startDate, endDate);
     verifyNoMoreInteractions(authorRepository);
   }
 
   @Test
   void shouldFindAuthorsByGenre() {
-    List<Author> authors = List.of(author);
-    when(authorRepository.findByBooksGenre("Fiction")).thenReturn(authors);
+    List<AuthorDTO> authors = List.of(authorDTO);
+    when(authorRepository.findDTOByBooksGenre("Fiction")).thenReturn(authors);
 
-    List<Author> foundAuthors = authorService.findByGenre("Fiction");
+    List<AuthorDTO> foundAuthors = authorService.findByGenre("Fiction");
 
     assertThat(foundAuthors)
         .hasSize(1)
-        .contains(author);
+        .contains(authorDTO);
 
-    verify(authorRepository).findByBooksGenre("Fiction");
+    verify(authorRepository).findDTOByBooksGenre("Fiction");
     verifyNoMoreInteractions(authorRepository);
   }
 
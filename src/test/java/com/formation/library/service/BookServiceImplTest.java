@@ -0,0 +1,579 @@
+package com.formation.library.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.formation.library.cache.CatalogCacheInvalidator;
+import com.formation.library.cache.ExistingKeysFilter;
+import com.formation.library.cache.NegativeLookupCache;
+import com.formation.library.dto.BookDTO;
+import com.formation.library.dto.BookWithAuthorDTO;
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.entity.Book.BookStatus;
+import com.formation.library.entity.BookEvent;
+import com.formation.library.exception.BookAlreadyBorrowedException;
+import com.formation.library.exception.BookNotFoundException;
+import com.formation.library.exception.InvalidBookStateException;
+import com.formation.library.exception.InvalidIsbnException;
+import com.formation.library.loan.LoanLedger;
+import com.formation.library.outbox.BookEventOutbox;
+import com.formation.library.metrics.BorrowMetrics;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.repository.CatalogUpsert;
+import com.formation.library.repository.CatalogUpsert.UpsertedBook;
+import com.formation.library.search.CatalogSearch;
+import com.formation.library.util.Isbn;
+
+@ExtendWith(MockitoExtension.class)
+class BookServiceImplTest {
+
+  @Mock
+  private BookRepository bookRepository;
+
+  @Mock
+  private CatalogSearch catalogSearch;
+
+  @Mock
+  private CatalogCacheInvalidator cacheInvalidator;
+
+  @Mock
+  private BorrowMetrics borrowMetrics;
+
+  @Mock
+  private NegativeLookupCache negativeLookupCache;
+
+  @Mock
+  private ExistingKeysFilter existingKeys;
+
+  @Mock
+  private CatalogUpsert catalogUpsert;
+
+  @Mock
+  private IReservationService reservationService;
+
+  @Mock
+  private LoanLedger loanLedger;
+
+  @Mock
+  private BookEventOutbox bookEvents;
+
+  @InjectMocks
+  private BookServiceImpl bookService;
+
+  private Author author;
+  private Book book;
+  private BookDTO bookDTO;
+
+  @BeforeEach
+  void setUp() {
+    author = new Author("John Doe", "john@example.com");
+    author.setId(1L);
+    book = new Book("Test Book", "123456789X", author);
+    book.setId(1L);
+    bookDTO = new BookDTO(1L, "Test Book", "123456789X", null, null, null, BookStatus.AVAILABLE, 1L, "John Doe");
+  }
+
+  @Test
+  void shouldSaveValidBook() {
+    when(bookRepository.save(book)).thenReturn(book);
+
+    Book savedBook = bookService.save(book);
+
+    assertThat(savedBook).isEqualTo(book);
+    verify(bookRepository, never()).existsByIsbn(book.getIsbn());
+    verify(bookRepository).save(book);
+    verify(existingKeys).addIsbn(book.getIsbnKey());
+    verify(catalogSearch).indexBook(1L, "Test Book");
+    verify(bookEvents).record(book, BookEvent.Type.CREATED);
+  }
+
+  @Test
+  void shouldCheckRepositoryWhenFilterMayContainIsbn() {
+    when(existingKeys.mightContainIsbn(book.getIsbnKey())).thenReturn(true);
+    when(bookRepository.existsByIsbn(book.getIsbn())).thenReturn(false);
+    when(bookRepository.save(book)).thenReturn(book);
+
+    bookService.save(book);
+
+    verify(bookRepository).existsByIsbn(book.getIsbn());
+    verify(bookRepository).save(book);
+  }
+
+  @Test
+  void shouldUpsertBookWithoutReadingItFirst() {
+    Book upsert = new Book("Test Book", "978-1-234-56789-7", author);
+    UpsertedBook row = new UpsertedBook(1L, upsert.getIsbnKey(), 3L, BookStatus.BORROWED, 0);
+    when(catalogUpsert.upsertBooks(List.of(upsert))).thenReturn(List.of(row));
+
+    Book upsertedBook = bookService.upsertByIsbn(upsert);
+
+    assertThat(upsertedBook.getId()).isEqualTo(1L);
+    assertThat(upsertedBook.getVersion()).isEqualTo(3L);
+    verify(existingKeys).addIsbn(upsert.getIsbnKey());
+    verify(catalogSearch).indexBook(1L, "Test Book");
+    verify(bookEvents).recordUpserted(List.of(row), Map.of(upsert.getIsbnKey(), "978-1-234-56789-7"));
+    verify(cacheInvalidator).booksUpserted(List.of(row), Set.of(1L));
+    verifyNoInteractions(bookRepository);
+  }
+
+  @Test
+  void shouldRejectUpsertWithoutAuthorId() {
+    book.setAuthor(new Author("Jane Doe", "jane@example.com"));
+
+    assertThatThrownBy(() -> bookService.upsertByIsbn(book))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("L'identifiant de l'auteur doit être renseigné");
+    verifyNoInteractions(catalogUpsert);
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSavingBookWithNullTitle() {
+    book.setTitle(null);
+
+    assertThatThrownBy(() -> bookService.save(book))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Le titre du livre ne peut pas être vide");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSavingBookWithEmptyTitle() {
+    book.setTitle("   ");
+
+    assertThatThrownBy(() -> bookService.save(book))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Le titre du livre ne peut pas être vide");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSavingBookWithNullIsbn() {
+    book.setIsbn(null);
+
+    assertThatThrownBy(() -> bookService.save(book))
+        .isInstanceOf(InvalidIsbnException.class)
+        .hasMessage("ISBN invalide: null");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSavingBookWithInvalidIsbn() {
+    book.setIsbn("123"); // Trop court
+
+    assertThatThrownBy(() -> bookService.save(book))
+        .isInstanceOf(InvalidIsbnException.class)
+        .hasMessage("ISBN invalide: 123");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSavingBookWithWrongCheckDigit() {
+    book.setIsbn("1234567890");
+
+    assertThatThrownBy(() -> bookService.save(book))
+        .isInstanceOf(InvalidIsbnException.class)
+        .hasMessage("ISBN invalide: 1234567890");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSavingBookWithExistingIsbn() {
+    when(existingKeys.mightContainIsbn(book.getIsbnKey())).thenReturn(true);
+    when(bookRepository.existsByIsbn(book.getIsbn())).thenReturn(true);
+
+    assertThatThrownBy(() -> bookService.save(book))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Un livre avec cet ISBN existe déjà");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSavingBookWithNullAuthor() {
+    book.setAuthor(null);
+
+    assertThatThrownBy(() -> bookService.save(book))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("L'auteur ne peut pas être null");
+  }
+
+  @Test
+  void shouldAcceptValidIsbn10() {
+    book.setIsbn("123456789X");
+    when(bookRepository.save(book)).thenReturn(book);
+
+    Book savedBook = bookService.save(book);
+
+    assertThat(savedBook).isNotNull();
+  }
+
+  @Test
+  void shouldAcceptValidIsbn13() {
+    book.setIsbn("978-2-07-036002-4");
+    when(bookRepository.save(book)).thenReturn(book);
+
+    Book savedBook = bookService.save(book);
+
+    assertThat(savedBook).isNotNull();
+  }
+
+  @Test
+  void shouldFindBookById() {
+    when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+
+    Book foundBook = bookService.findById(1L);
+
+    assertThat(foundBook).isEqualTo(book);
+    verify(bookRepository).findById(1L);
+  }
+
+  @Test
+  void shouldThrowExceptionWhenBookNotFoundById() {
+    when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> bookService.findById(1L))
+        .isInstanceOf(BookNotFoundException.class)
+        .hasMessage("Livre non trouvé avec l'ID: 1");
+  }
+
+  @Test
+  void shouldFindBookByIsbn() {
+    when(bookRepository.findByIsbn("123456789X")).thenReturn(Optional.of(book));
+
+    Book foundBook = bookService.findByIsbn("123456789X");
+
+    assertThat(foundBook).isEqualTo(book);
+    verify(bookRepository).findByIsbn("123456789X");
+  }
+
+  @Test
+  void shouldThrowExceptionWhenBookNotFoundByIsbn() {
+    when(bookRepository.findByIsbn("0000000000")).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> bookService.findByIsbn("0000000000"))
+        .isInstanceOf(BookNotFoundException.class)
+        .hasMessage("Livre non trouvé avec l'ISBN: 0000000000");
+  }
+
+  @Test
+  void shouldFindBookDTOById() {
+    BookWithAuthorDTO dto = new BookWithAuthorDTO(1L, "Test Book", "123456789X", null, null, null,
+        BookStatus.AVAILABLE, 1, 1, 1L, "John Doe", "john@example.com", null, null);
+    when(bookRepository.findDTOById(1L)).thenReturn(Optional.of(dto));
+
+    BookWithAuthorDTO foundBook = bookService.findDTOById(1L);
+
+    assertThat(foundBook.author().email()).isEqualTo("john@example.com");
+    verify(bookRepository).findDTOById(1L);
+  }
+
+  @Test
+  void shouldThrowExceptionWhenBookDTONotFoundByIsbn() {
+    when(bookRepository.findDTOByIsbn("0000000000")).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> bookService.findDTOByIsbn("0000000000"))
+        .isInstanceOf(BookNotFoundException.class)
+        .hasMessage("Livre non trouvé avec l'ISBN: 0000000000");
+    verify(negativeLookupCache).bookMissing(Isbn.toKey("0000000000"));
+  }
+
+  @Test
+  void shouldNotQueryRepositoryForRecentlyMissingIsbn() {
+    when(negativeLookupCache.isMissingBook(Isbn.toKey("0000000000"))).thenReturn(true);
+
+    assertThatThrownBy(() -> bookService.findDTOByIsbn("0000000000"))
+        .isInstanceOf(BookNotFoundException.class)
+        .hasMessage("Livre non trouvé avec l'ISBN: 0000000000")
+        .satisfies(e -> assertThat(e.getStackTrace()).isEmpty());
+    verifyNoInteractions(bookRepository);
+  }
+
+  @Test
+  void shouldNotQueryRepositoryForInvalidIsbnLookup() {
+    assertThatThrownBy(() -> bookService.findDTOByIsbn("978-0000000000"))
+        .isInstanceOf(BookNotFoundException.class);
+    verifyNoInteractions(bookRepository, negativeLookupCache);
+  }
+
+  @Test
+  void shouldSearchBooksByTitleInSearchEngineOrder() {
+    BookDTO otherDTO = new BookDTO(2L, "Test Book 2", "0987654321", null, null, null, BookStatus.AVAILABLE, 1L,
+        "John Doe");
+    when(catalogSearch.searchBooks("test", 10, true)).thenReturn(List.of(2L, 1L));
+    when(bookRepository.findDTOByIdIn(List.of(2L, 1L))).thenReturn(List.of(bookDTO, otherDTO));
+
+    List<BookDTO> foundBooks = bookService.searchByTitle("test", 10, true);
+
+    assertThat(foundBooks).containsExactly(otherDTO, bookDTO);
+  }
+
+  @Test
+  void shouldNotQueryDatabaseWhenSearchFindsNothing() {
+    when(catalogSearch.searchBooks("zzz", 10, false)).thenReturn(List.of());
+
+    assertThat(bookService.searchByTitle("zzz", 10, false)).isEmpty();
+    verifyNoInteractions(bookRepository);
+  }
+
+  @Test
+  void shouldFindAllBooks() {
+    List<Book> books = Arrays.asList(book, new Book("Another Book", "0987654321", author));
+    when(bookRepository.findAll()).thenReturn(books);
+
+    List<Book> foundBooks = bookService.findAll();
+
+    assertThat(foundBooks).hasSize(2).containsExactlyElementsOf(books);
+  }
+
+  @Test
+  void shouldFindPageOfBooksAfterCursor() {
+    List<BookDTO> books = Arrays.asList(bookDTO);
+    when(bookRepository.findDTOPageAfter(0L, Limit.of(50))).thenReturn(books);
+
+    List<BookDTO> foundBooks = bookService.findPage(0L, 50);
+
+    assertThat(foundBooks).containsExactly(bookDTO);
+    verify(bookRepository).findDTOPageAfter(0L, Limit.of(50));
+  }
+
+  @Test
+  void shouldFindBooksByTitle() {
+    List<BookDTO> books = Arrays.asList(bookDTO);
+    when(bookRepository.findDTOByTitle("Test")).thenReturn(books);
+
+    List<BookDTO> foundBooks = bookService.findByTitle("Test");
+
+    assertThat(foundBooks).hasSize(1).contains(bookDTO);
+  }
+
+  @Test
+  void shouldFindBooksByStatus() {
+    List<BookDTO> books = Arrays.asList(bookDTO);
+    when(bookRepository.findDTOByStatus(BookStatus.AVAILABLE)).thenReturn(books);
+
+    List<BookDTO> foundBooks = bookService.findByStatus(BookStatus.AVAILABLE);
+
+    assertThat(foundBooks).hasSize(1);
+    verify(bookRepository).findDTOByStatus(BookStatus.AVAILABLE);
+  }
+
+  @Test
+  void shouldFindBooksByGenre() {
+    List<BookDTO> books = Arrays.asList(bookDTO);
+    when(bookRepository.findDTOByGenre("Fiction")).thenReturn(books);
+
+    List<BookDTO> foundBooks = bookService.findByGenre("Fiction");
+
+    assertThat(foundBooks).hasSize(1);
+    verify(bookRepository).findDTOByGenre("Fiction");
+  }
+
+  @Test
+  void shouldFindBooksByAuthorId() {
+    List<BookDTO> books = Arrays.asList(bookDTO);
+    when(bookRepository.findDTOByAuthorId(1L)).thenReturn(books);
+
+    List<BookDTO> foundBooks = bookService.findByAuthorId(1L);
+
+    assertThat(foundBooks).hasSize(1);
+    verify(bookRepository).findDTOByAuthorId(1L);
+  }
+
+  @Test
+  void shouldFindBooksByAuthorName() {
+    List<BookDTO> books = Arrays.asList(bookDTO);
+    when(bookRepository.findDTOByAuthorName("John")).thenReturn(books);
+
+    List<BookDTO> foundBooks = bookService.findByAuthorName("John");
+
+    assertThat(foundBooks).hasSize(1);
+    verify(bookRepository).findDTOByAuthorName("John");
+  }
+
+  @Test
+  void shouldFindBooksByPublicationDateBetween() {
+    LocalDate start = LocalDate.of(2020, 1, 1);
+    LocalDate end = LocalDate.of(2023, 12, 31);
+    List<BookDTO> books = Arrays.asList(bookDTO);
+    when(bookRepository.findDTOByPublicationDateBetween(start, end)).thenReturn(books);
+
+    List<BookDTO> foundBooks = bookService.findByPublicationDateBetween(start, end);
+
+    assertThat(foundBooks).hasSize(1);
+    verify(bookRepository).findDTOByPublicationDateBetween(start, end);
+  }
+
+  @Test
+  void shouldUpdateBook() {
+    Book updateData = new Book("Updated Title", "0987654321", author);
+    updateData.setPublicationDate(LocalDate.of(2023, 1, 1));
+    updateData.setPages(400);
+    updateData.setGenre("Science Fiction");
+
+    when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+    when(bookRepository.save(book)).thenReturn(book);
+
+    Book updatedBook = bookService.update(1L, updateData);
+
+    assertThat(updatedBook.getTitle()).isEqualTo("Updated Title");
+    assertThat(updatedBook.getIsbn()).isEqualTo("0987654321");
+    assertThat(updatedBook.getPublicationDate()).isEqualTo(LocalDate.of(2023, 1, 1));
+    assertThat(updatedBook.getPages()).isEqualTo(400);
+    assertThat(updatedBook.getGenre()).isEqualTo("Science Fiction");
+    verify(bookRepository).save(book);
+  }
+
+  @Test
+  void shouldKeepCopiesWhenUpdateOmitsThem() {
+    book.setTotalCopies(3);
+    book.borrow();
+    Book updateData = new Book("Updated Title", "123456789X", author);
+
+    when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+    when(bookRepository.save(book)).thenReturn(book);
+
+    Book updatedBook = bookService.update(1L, updateData);
+
+    assertThat(updatedBook.getTotalCopies()).isEqualTo(3);
+    assertThat(updatedBook.getAvailableCopies()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldUpdateCopiesWhenProvided() {
+    book.setTotalCopies(3);
+    book.borrow();
+    Book updateData = new Book("Updated Title", "123456789X", author);
+    updateData.setTotalCopies(2);
+
+    when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+    when(bookRepository.save(book)).thenReturn(book);
+
+    Book updatedBook = bookService.update(1L, updateData);
+
+    assertThat(updatedBook.getTotalCopies()).isEqualTo(2);
+    assertThat(updatedBook.getAvailableCopies()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldDeleteBook() {
+    when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+
+    bookService.deleteById(1L);
+
+    verify(bookRepository).delete(book);
+    verify(catalogSearch).removeBook(1L);
+    verify(bookEvents).record(book, BookEvent.Type.DELETED);
+  }
+
+  @Test
+  void shouldBorrowAvailableBook() {
+    when(bookRepository.borrowCopy("123456789X")).thenReturn(1);
+    book.setStatus(BookStatus.BORROWED);
+    when(bookRepository.findByIsbn("123456789X")).thenReturn(Optional.of(book));
+
+    Book borrowedBook = bookService.borrowBook("123456789X");
+
+    assertThat(borrowedBook.getStatus()).isEqualTo(BookStatus.BORROWED);
+    verify(bookRepository, never()).save(any(Book.class));
+    verify(cacheInvalidator).evictBook(book.getId(), "123456789X", book.getAuthor().getId());
+    verify(borrowMetrics).record(BorrowMetrics.Operation.BORROW, BorrowMetrics.Outcome.SUCCESS);
+    verify(loanLedger).borrowed(book, null);
+    verify(bookEvents).record(book, BookEvent.Type.BORROWED);
+  }
+
+  @Test
+  void shouldThrowExceptionWhenBorrowingUnavailableBook() {
+    when(bookRepository.borrowCopy("123456789X")).thenReturn(0);
+    when(bookRepository.existsByIsbn("123456789X")).thenReturn(true);
+
+    assertThatThrownBy(() -> bookService.borrowBook("123456789X"))
+        .isInstanceOf(BookAlreadyBorrowedException.class)
+        .hasMessage("Le livre avec l'ISBN 123456789X est déjà emprunté");
+    verify(borrowMetrics).record(BorrowMetrics.Operation.BORROW, BorrowMetrics.Outcome.ALREADY_BORROWED);
+    verifyNoInteractions(loanLedger);
+  }
+
+  @Test
+  void shouldThrowExceptionWhenBorrowingUnknownBook() {
+    when(bookRepository.borrowCopy("0000000000")).thenReturn(0);
+    when(bookRepository.existsByIsbn("0000000000")).thenReturn(false);
+
+    assertThatThrownBy(() -> bookService.borrowBook("0000000000"))
+        .isInstanceOf(BookNotFoundException.class);
+    verify(borrowMetrics).record(BorrowMetrics.Operation.BORROW, BorrowMetrics.Outcome.NOT_FOUND);
+  }
+
+  @Test
+  void shouldReturnBorrowedBook() {
+    when(bookRepository.returnCopy("123456789X")).thenReturn(1);
+    when(bookRepository.findByIsbn("123456789X")).thenReturn(Optional.of(book));
+
+    Book returnedBook = bookService.returnBook("123456789X");
+
+    assertThat(returnedBook.getStatus()).isEqualTo(BookStatus.AVAILABLE);
+    verify(bookRepository, never()).save(any(Book.class));
+    verify(borrowMetrics).record(BorrowMetrics.Operation.RETURN, BorrowMetrics.Outcome.SUCCESS);
+    verify(loanLedger).returned(book);
+    verify(bookEvents).record(book, BookEvent.Type.RETURNED);
+  }
+
+  @Test
+  void shouldHoldReturnedBookForNextWaiter() {
+    when(reservationService.claimNextWaiter(Isbn.toKey("123456789X"))).thenReturn(true);
+    when(bookRepository.holdReturnedCopy(Isbn.toKey("123456789X"))).thenReturn(1);
+    book.setStatus(BookStatus.RESERVED);
+    when(bookRepository.findByIsbn("123456789X")).thenReturn(Optional.of(book));
+
+    Book returnedBook = bookService.returnBook("123456789X");
+
+    assertThat(returnedBook.getStatus()).isEqualTo(BookStatus.RESERVED);
+    verify(bookRepository, never()).returnCopy("123456789X");
+    verify(borrowMetrics).record(BorrowMetrics.Operation.RETURN, BorrowMetrics.Outcome.SUCCESS);
+  }
+
+  @Test
+  void shouldThrowExceptionWhenReturningBookThatIsNotBorrowed() {
+    when(bookRepository.returnCopy("123456789X")).thenReturn(0);
+    when(bookRepository.existsByIsbn("123456789X")).thenReturn(true);
+
+    assertThatThrownBy(() -> bookService.returnBook("123456789X"))
+        .isInstanceOf(InvalidBookStateException.class)
+        .hasMessage("Le livre n'est pas emprunté");
+    verify(borrowMetrics).record(BorrowMetrics.Operation.RETURN, BorrowMetrics.Outcome.NOT_BORROWED);
+  }
+
+  @Test
+  void shouldCountByAuthorAndStatus() {
+    when(bookRepository.countByAuthorIdAndStatus(1L, BookStatus.AVAILABLE)).thenReturn(5L);
+
+    long count = bookService.countByAuthorAndStatus(1L, BookStatus.AVAILABLE);
+
+    assertThat(count).isEqualTo(5L);
+    verify(bookRepository).countByAuthorIdAndStatus(1L, BookStatus.AVAILABLE);
+  }
+
+  @Test
+  void shouldCheckIfBookExistsByIsbn() {
+    when(bookRepository.existsByIsbn("123456789X")).thenReturn(true);
+
+    boolean exists = bookService.existsByIsbn("123456789X");
+
+    assertThat(exists).isTrue();
+    verify(bookRepository).existsByIsbn("123456789X");
+  }
+
+}
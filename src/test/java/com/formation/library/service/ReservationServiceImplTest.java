@@ -0,0 +1,71 @@
+package com.formation.library.service;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.formation.library.cache.CatalogCacheInvalidator;
+import com.formation.library.cache.ReservationQueues;
+import com.formation.library.entity.Author;
+import com.formation.library.entity.Book;
+import com.formation.library.exception.InvalidBookStateException;
+import com.formation.library.loan.LoanLedger;
+import com.formation.library.outbox.BookEventOutbox;
+import com.formation.library.repository.BookRepository;
+import com.formation.library.repository.ReservationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceImplTest {
+
+  private static final String ISBN = "9782070360024";
+
+  @Mock
+  private ReservationRepository reservationRepository;
+
+  @Mock
+  private BookRepository bookRepository;
+
+  @Mock
+  private ReservationQueues reservationQueues;
+
+  @Mock
+  private CatalogCacheInvalidator cacheInvalidator;
+
+  @Mock
+  private LoanLedger loanLedger;
+
+  @Mock
+  private BookEventOutbox bookEvents;
+
+  @InjectMocks
+  private ReservationServiceImpl reservationService;
+
+  private Book book;
+
+  @BeforeEach
+  void setUp() {
+    book = new Book("L'Étranger", ISBN, new Author("Albert Camus", "albert.camus@example.com"));
+    book.setId(1L);
+  }
+
+  @Test
+  void shouldNotRecordPickUpWithoutHeldCopy() {
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(Optional.of(book));
+    when(reservationRepository.deleteReady(1L, "alice")).thenReturn(1);
+    when(bookRepository.pickUpHeldCopy(book.getIsbnKey())).thenReturn(0);
+
+    assertThatThrownBy(() -> reservationService.pickUp(ISBN, "alice"))
+        .isInstanceOf(InvalidBookStateException.class)
+        .hasMessage("Aucun exemplaire n'est réservé");
+    verifyNoInteractions(loanLedger, bookEvents, cacheInvalidator);
+  }
+}
@@ -0,0 +1,56 @@
+package com.formation.library.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+  private static final long FIRST_ISBN = 9_782_070_000_000L;
+
+  @Test
+  void shouldNeverAnswerNoForAnInsertedKey() {
+    BloomFilter filter = new BloomFilter(100_000, 0.01);
+    for (long key = FIRST_ISBN; key < FIRST_ISBN + 100_000; key++) {
+      filter.put(key);
+    }
+
+    for (long key = FIRST_ISBN; key < FIRST_ISBN + 100_000; key++) {
+      assertThat(filter.mightContain(key)).isTrue();
+    }
+  }
+
+  @Test
+  void shouldKeepFalsePositiveRateNearTargetAtExpectedLoad() {
+    BloomFilter filter = new BloomFilter(100_000, 0.01);
+    for (long key = FIRST_ISBN; key < FIRST_ISBN + 100_000; key++) {
+      filter.put(key);
+    }
+
+    int falsePositives = 0;
+    for (long key = FIRST_ISBN + 100_000; key < FIRST_ISBN + 200_000; key++) {
+      if (filter.mightContain(key)) {
+        falsePositives++;
+      }
+    }
+    assertThat(falsePositives / 100_000d).isLessThan(0.015);
+    assertThat(filter.hashCount()).isEqualTo(7);
+  }
+
+  @Test
+  void shouldHashStringsOn64Bits() {
+    BloomFilter filter = new BloomFilter(1_000, 0.01);
+    filter.put(BloomFilter.hash("albert.camus@example.com"));
+
+    assertThat(filter.mightContain(BloomFilter.hash("albert.camus@example.com"))).isTrue();
+    assertThat(filter.mightContain(BloomFilter.hash("simone.weil@example.com"))).isFalse();
+    assertThat(BloomFilter.hash("a")).isNotEqualTo(BloomFilter.hash("b"));
+  }
+
+  @Test
+  void shouldRejectInvalidParameters() {
+    assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new BloomFilter(1_000, 1)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
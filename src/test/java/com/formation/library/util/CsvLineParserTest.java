@@ -0,0 +1,27 @@
+package com.formation.library.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class CsvLineParserTest {
+
+  @Test
+  void shouldSplitPlainFields() {
+    assertThat(CsvLineParser.parse("a,b,,c")).containsExactly("a", "b", "", "c");
+  }
+
+  @Test
+  void shouldKeepCommasAndEscapedQuotesInsideQuotedFields() {
+    assertThat(CsvLineParser.parse("\"Germinal, tome 1\",\"Il dit \"\"bonjour\"\"\",3"))
+        .containsExactly("Germinal, tome 1", "Il dit \"bonjour\"", "3");
+  }
+
+  @Test
+  void shouldRejectUnterminatedQuote() {
+    assertThatThrownBy(() -> CsvLineParser.parse("\"Germinal,1"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("Guillemet non fermé");
+  }
+}
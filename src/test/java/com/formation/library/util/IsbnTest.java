@@ -0,0 +1,54 @@
+package com.formation.library.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class IsbnTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = { "9782070360024", "978-2-07-036002-4", "978 2 07 036002 4", "2070360024",
+      "2-07-036002-4", "ISBN 978-2-07-036002-4", "ISBN-10: 2-07-036002-4", "ISBN-13:9782070360024" })
+  void shouldNormalizeEveryWritingToTheSameKey(String isbn) {
+    assertThat(Isbn.toKey(isbn)).isEqualTo(9782070360024L);
+  }
+
+  @Test
+  void shouldAcceptCheckDigitX() {
+    assertThat(Isbn.toKey("123456789X")).isEqualTo(9781234567897L);
+    assertThat(Isbn.toKey("0-8044-2957-x")).isEqualTo(9780804429573L);
+  }
+
+  @Test
+  void shouldAcceptIsbn979() {
+    assertThat(Isbn.toKey("979-10-90636-07-1")).isEqualTo(9791090636071L);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "", "123", "1234567890", "9782070360025", "1234567890123", "12345678X0",
+      "97820703600241", "978--2070360024", "-9782070360024", "9782070360024-", "978207036002A", "ISBN" })
+  void shouldRejectInvalidIsbn(String isbn) {
+    assertThat(Isbn.toKey(isbn)).isEqualTo(Isbn.INVALID);
+    assertThat(Isbn.isValid(isbn)).isFalse();
+  }
+
+  @Test
+  void shouldRejectNull() {
+    assertThat(Isbn.isValid(null)).isFalse();
+  }
+
+  @Test
+  void shouldComputeCheckDigit() {
+    assertThat(Isbn.withCheckDigit(978207036002L)).isEqualTo(9782070360024L);
+    assertThat(Isbn.format(Isbn.withCheckDigit(978000000000L))).isEqualTo("9780000000002");
+  }
+
+  @Test
+  void shouldRejectFormattingInvalidKey() {
+    assertThatThrownBy(() -> Isbn.format(Isbn.INVALID))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}